@@ -22,6 +22,8 @@
 
 package com.github.javatlacati.contiperf;
 
+import com.github.javatlacati.contiperf.util.PreciseSleep;
+
 /**
  * Abstract helper class which provides common functionality for
  * {@link InvocationRunner}s.<br>
@@ -34,19 +36,32 @@ package com.github.javatlacati.contiperf;
 public abstract class AbstractInvocationRunner implements InvocationRunner {
 
     private WaitTimer wait;
+    private long deadline;
 
     protected AbstractInvocationRunner(WaitTimer wait) {
 	this.wait = wait;
+	this.deadline = WaitTimer.NO_DEADLINE;
+    }
+
+    /**
+     * Starts the schedule of a {@link WaitTimer} which paces the invocations,
+     * to be called before the first invocation.
+     */
+    protected void startSchedule() {
+	deadline = System.nanoTime();
     }
 
+    /**
+     * Waits until the {@link WaitTimer#nextDeadline(long, long) next
+     * invocation} is due, with a precision of microseconds for
+     * {@link WaitTimer#isPrecise() precise} timers.
+     */
     protected void sleep() {
-	int waitTime = wait.getWaitTime();
-	if (waitTime > 0) {
-	    try {
-		Thread.sleep(waitTime);
-	    } catch (InterruptedException e) {
-		throw new RuntimeException(e);
-	    }
+	try {
+	    deadline = wait.nextDeadline(deadline, System.nanoTime());
+	    PreciseSleep.until(deadline, wait.isPrecise());
+	} catch (InterruptedException e) {
+	    throw new RuntimeException(e);
 	}
     }
 
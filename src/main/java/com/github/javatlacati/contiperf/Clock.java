@@ -22,9 +22,13 @@
 
 package com.github.javatlacati.contiperf;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Extension interface for different providers of time, e.g. system, CPU or user
- * time.<br>
+ * time. {@link #getTime()} provides milliseconds, {@link #getTime(TimeUnit)}
+ * provides the time in the requested unit, as far as the underlying source
+ * supports that resolution.<br>
  * <br>
  * Created: 23.05.2012 07:51:45
  * 
@@ -35,4 +39,13 @@ public interface Clock {
     String getName();
 
     long getTime();
+
+    /**
+     * Returns the time in the given unit. By default, it is converted from the
+     * milliseconds of {@link #getTime()}, clocks with a finer resolution
+     * override this.
+     */
+    default long getTime(TimeUnit unit) {
+        return unit.convert(getTime(), TimeUnit.MILLISECONDS);
+    }
 }
@@ -22,11 +22,17 @@
 
 package com.github.javatlacati.contiperf;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import com.github.javatlacati.contiperf.util.ContiPerfUtil;
+import com.github.javatlacati.contiperf.util.VirtualThreads;
 
 /**
  * Runs several {@link Runnable}s concurrently. If a {@link Throwable} is
- * encountered, execution of all threads is canceled.<br>
+ * encountered, execution of all threads is canceled. The runners are executed
+ * on platform threads or, on Java 21 and newer, on virtual threads, which
+ * allows for simulating tens of thousands of blocking clients, or by the
+ * workers of a {@link WorkerPool}, which are reused across tests.<br>
  * <br>
  * Created: 15.04.2010 23:42:30
  * 
@@ -38,18 +44,53 @@ public class ConcurrentRunner implements InvocationRunner {
     private String name;
     private InvocationRunner[] runners;
     private int rampUp;
+    private boolean virtualThreads;
+    private WorkerPool workerPool;
 
     public ConcurrentRunner(String name, InvocationRunner[] runners, int rampUp) {
+	this(name, runners, rampUp, false);
+    }
+
+    /**
+     * @param virtualThreads if true, each runner is executed on a virtual
+     *            thread instead of a platform thread
+     * @throws PerfTestConfigurationError if virtual threads are requested but
+     *             not supported by the JVM
+     */
+    public ConcurrentRunner(String name, InvocationRunner[] runners,
+	    int rampUp, boolean virtualThreads) {
+	if (virtualThreads) {
+	    VirtualThreads.checkSupported();
+	}
 	this.name = name;
 	this.runners = runners;
 	this.rampUp = rampUp;
+	this.virtualThreads = virtualThreads;
+	this.workerPool = null;
+    }
+
+    /**
+     * @param workerPool the pool whose workers execute the runners instead of
+     *            threads created for this runner
+     */
+    public ConcurrentRunner(String name, InvocationRunner[] runners,
+	    int rampUp, WorkerPool workerPool) {
+	this(name, runners, rampUp, false);
+	this.workerPool = workerPool;
     }
 
     public void run() {
-	CPThreadGroup threadGroup = new CPThreadGroup(name);
+	if (workerPool != null) {
+	    runPooled();
+	    return;
+	}
+	AtomicReference<Throwable> throwable = new AtomicReference<>();
 	Thread[] threads = new Thread[runners.length];
 	for (int i = 0; i < runners.length; i++) {
-	    threads[i] = new Thread(threadGroup, runners[i]);
+	    Runnable task = new FailureCapture(runners[i], throwable, threads);
+	    String threadName = name + "-" + (i + 1);
+	    threads[i] = (virtualThreads ? VirtualThreads.newThread(threadName,
+		    task) : new Thread(task, threadName));
 	}
 	for (int i = 0; i < runners.length; i++) {
 	    Thread thread = threads[i];
@@ -63,16 +104,28 @@ public class ConcurrentRunner implements InvocationRunner {
 		thread.join();
 	    }
 	} catch (InterruptedException e) {
-	    // if the thread group has an exception, that one is more
+	    // if a thread has encountered an exception, that one is more
 	    // interesting
-	    if (threadGroup.throwable == null) {
+	    if (throwable.get() == null) {
 		throw new PerfTestExecutionError(e); // interruption without
 						     // throwable cause
 	    }
 	}
-	// The thread group encountered a Throwable, report it to the caller
-	if (threadGroup.throwable != null) {
-	    throw ContiPerfUtil.executionError(threadGroup.throwable);
+	// A thread encountered a Throwable, report it to the caller
+	if (throwable.get() != null) {
+	    throw ContiPerfUtil.executionError(throwable.get());
+	}
+    }
+
+    private void runPooled() {
+	Throwable throwable;
+	try {
+	    throwable = workerPool.execute(name, runners, rampUp);
+	} catch (InterruptedException e) {
+	    throw new PerfTestExecutionError(e);
+	}
+	if (throwable != null) {
+	    throw ContiPerfUtil.executionError(throwable);
 	}
     }
 
@@ -85,24 +138,35 @@ public class ConcurrentRunner implements InvocationRunner {
     }
 
     /**
-     * Implements the {@link ThreadGroup#uncaughtException(Thread, Throwable)}
-     * method interrupting the execution of all threads in case of a
-     * {@link Throwable} and memorizing the {@link Throwable}.
+     * Executes a runner, memorizes the first {@link Throwable} of all runners
+     * and interrupts the other threads in case of a {@link Throwable}. Unlike
+     * a {@link ThreadGroup}, this works for virtual threads as well.
      */
-    class CPThreadGroup extends ThreadGroup {
+    static class FailureCapture implements Runnable {
 
-	Throwable throwable;
+	private final Runnable runner;
+	private final AtomicReference<Throwable> throwable;
+	private final Thread[] threads;
 
-	public CPThreadGroup(String name) {
-	    super(name);
+	FailureCapture(Runnable runner, AtomicReference<Throwable> throwable,
+		Thread[] threads) {
+	    this.runner = runner;
+	    this.throwable = throwable;
+	    this.threads = threads;
 	}
 
-	@Override
-	public void uncaughtException(Thread thread, Throwable throwable) {
-	    if (this.throwable == null) {
-		this.throwable = throwable;
+	public void run() {
+	    try {
+		runner.run();
+	    } catch (Throwable t) {
+		if (throwable.compareAndSet(null, t)) {
+		    for (Thread thread : threads) {
+			if (thread != Thread.currentThread()) {
+			    thread.interrupt();
+			}
+		    }
+		}
 	    }
-	    interrupt();
 	}
     }
 
@@ -41,6 +41,10 @@ public class Config {
     private static final String DEFAULT_REPORT_FOLDER_NAME = "contiperf-report";
     public static final String SYSPROP_ACTIVE = "contiperf.active";
     public static final String SYSPROP_CONFIG_FILENAME = "contiperf.config";
+    public static final String SYSPROP_JMX = "contiperf.jmx";
+    public static final String SYSPROP_SAMPLING = "contiperf.sampling";
+    public static final String SYSPROP_PROFILE_BASELINE = "contiperf.profile.baseline";
+    public static final String SYSPROP_WORKER_POOL = "contiperf.workerpool";
     public static final String DEFAULT_CONFIG_FILENAME = "contiperf.config.xml";
 
     public boolean active() {
@@ -49,6 +53,55 @@ public class Config {
                 .equals(sysprop.trim().toLowerCase(Locale.US));
     }
 
+    /**
+     * Tells if running tests are exposed as MBeans, which is activated by
+     * setting the system property {@value #SYSPROP_JMX} to true.
+     */
+    public boolean jmxEnabled() {
+        return Boolean.parseBoolean(System.getProperty(SYSPROP_JMX));
+    }
+
+    /**
+     * Returns the period in milliseconds in which the stacks of the threads
+     * running a test are sampled, or 0 if sampling is disabled. Sampling is
+     * activated by setting the system property {@value #SYSPROP_SAMPLING} to
+     * the period.
+     */
+    public long samplingPeriod() {
+        String sysprop = System.getProperty(SYSPROP_SAMPLING);
+        if (sysprop == null || sysprop.trim().length() == 0) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(sysprop.trim()));
+        } catch (NumberFormatException e) {
+            throw new PerfTestConfigurationError("Illegal sampling period: " + sysprop);
+        }
+    }
+
+    /**
+     * Returns the report folder of a baseline run whose profiles are compared
+     * with the current ones, or null if none has been configured with the
+     * system property {@value #SYSPROP_PROFILE_BASELINE}.
+     */
+    public File profileBaselineFolder() {
+        String sysprop = System.getProperty(SYSPROP_PROFILE_BASELINE);
+        if (sysprop == null || sysprop.trim().length() == 0) {
+            return null;
+        }
+        return new File(sysprop.trim());
+    }
+
+    /**
+     * Tells if concurrent tests execute their threads on the
+     * {@link WorkerPool#sharedInstance() shared worker pool} instead of
+     * creating threads of their own, which is activated by setting the system
+     * property {@value #SYSPROP_WORKER_POOL} to true.
+     */
+    public boolean workerPoolEnabled() {
+        return Boolean.parseBoolean(System.getProperty(SYSPROP_WORKER_POOL));
+    }
+
     // helpers
     // ---------------------------------------------------------------------------------------------------------
 
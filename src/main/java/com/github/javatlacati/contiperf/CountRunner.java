@@ -50,6 +50,7 @@ public class CountRunner extends AbstractInvocationRunner {
 
     public void run() {
 	try {
+	    startSchedule();
 	    while (invocationsLeft.getAndDecrement() > 0) {
 		invoker.invoke(argsProvider.next());
 		sleep();
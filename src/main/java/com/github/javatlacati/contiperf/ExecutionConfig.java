@@ -22,8 +22,13 @@
 
 package com.github.javatlacati.contiperf;
 
+import java.util.concurrent.TimeUnit;
+
 import com.github.javatlacati.contiperf.clock.SystemClock;
+import com.github.javatlacati.contiperf.timer.AbstractTimer;
 import com.github.javatlacati.contiperf.timer.None;
+import com.github.javatlacati.stat.Histogram;
+import com.github.javatlacati.stat.LogLinearHistogram;
 
 /**
  * Holds the execution configuration for a single test.<br>
@@ -43,6 +48,15 @@ public class ExecutionConfig {
     private int threads;
     WaitTimer waitTimer;
     private boolean cancelOnViolation;
+    private Class<? extends Histogram> histogramType;
+    private TimeUnit timeUnit;
+    private boolean correctCoordinatedOmission;
+    private int expectedInterval;
+    private int timelineInterval;
+    private boolean virtualThreads;
+    private double rate;
+    private boolean poissonArrivals;
+    private LoadStage[] stages;
 
     // TODO v2.x private int timeout;
 
@@ -65,6 +79,15 @@ public class ExecutionConfig {
 	this.rampUp = rampUp;
 	this.warmUp = warmUp;
 	this.cancelOnViolation = cancelOnViolation;
+	this.histogramType = LogLinearHistogram.class;
+	this.timeUnit = TimeUnit.MILLISECONDS;
+	this.correctCoordinatedOmission = false;
+	this.expectedInterval = -1;
+	this.timelineInterval = -1;
+	this.virtualThreads = false;
+	this.rate = -1;
+	this.poissonArrivals = false;
+	this.stages = new LoadStage[0];
 	try {
 	    waitTimer = waitTimerClass.newInstance();
 	    waitTimer.init(waitParams);
@@ -113,6 +136,7 @@ public class ExecutionConfig {
     public String toString() {
 	return (invocations > 0 ? invocations + " invocations" : "Running"
 		+ duration + " ms")
+		+ (rate > 0 ? " at " + rate + " calls/s" : "")
 		+ " with " + threads + " threads";
     }
 
@@ -120,4 +144,156 @@ public class ExecutionConfig {
 	return clocks;
     }
 
+    public Class<? extends Histogram> getHistogramType() {
+	return histogramType;
+    }
+
+    public void setHistogramType(Class<? extends Histogram> histogramType) {
+	this.histogramType = histogramType;
+    }
+
+    /** Returns the unit in which latencies are measured and reported. */
+    public TimeUnit getTimeUnit() {
+	return timeUnit;
+    }
+
+    public void setTimeUnit(TimeUnit timeUnit) {
+	this.timeUnit = timeUnit;
+    }
+
+    public boolean isCorrectCoordinatedOmission() {
+	return correctCoordinatedOmission;
+    }
+
+    public void setCorrectCoordinatedOmission(boolean correctCoordinatedOmission) {
+	this.correctCoordinatedOmission = correctCoordinatedOmission;
+    }
+
+    public int getExpectedInterval() {
+	return expectedInterval;
+    }
+
+    public void setExpectedInterval(int expectedInterval) {
+	this.expectedInterval = expectedInterval;
+    }
+
+    /**
+     * Returns the number of milliseconds after which the latencies of a
+     * timeline interval are reported, or a value of zero or less if no
+     * timeline is recorded.
+     */
+    public int getTimelineInterval() {
+	return timelineInterval;
+    }
+
+    public void setTimelineInterval(int timelineInterval) {
+	this.timelineInterval = timelineInterval;
+    }
+
+    /** Tells if the test threads are virtual threads. */
+    public boolean isVirtualThreads() {
+	return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+	this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Returns the number of invocations per second which a {@link RateRunner}
+     * issues, or a value of zero or less if invocations are issued by closed
+     * loops.
+     */
+    public double getRate() {
+	return rate;
+    }
+
+    public void setRate(double rate) {
+	checkRateAndStages(rate, stages);
+	this.rate = rate;
+    }
+
+    public boolean isPoissonArrivals() {
+	return poissonArrivals;
+    }
+
+    public void setPoissonArrivals(boolean poissonArrivals) {
+	this.poissonArrivals = poissonArrivals;
+    }
+
+    /** Returns the stages of the load shape, or an empty array. */
+    public LoadStage[] getStages() {
+	return stages;
+    }
+
+    /**
+     * @throws PerfTestConfigurationError if the stages mix threads and rates
+     */
+    public void setStages(LoadStage[] stages) {
+	LoadStage.checkConsistency(stages);
+	checkRateAndStages(rate, stages);
+	this.stages = stages;
+    }
+
+    public boolean isStaged() {
+	return stages.length > 0;
+    }
+
+    /**
+     * Tells if invocations are issued at a rate, either configured for the
+     * test or for its stages, instead of by closed loops.
+     */
+    public boolean isOpenModel() {
+	return rate > 0 || (isStaged() && stages[0].isRateBased());
+    }
+
+    /**
+     * Determines the expected interval between two invocations of a thread for
+     * coordinated omission correction: the configured
+     * {@link #getExpectedInterval() expected interval} or else the average
+     * wait time of the {@link WaitTimer}.
+     * 
+     * @return the interval in the given unit, or -1 if correction is not
+     *         activated
+     */
+    public long correctionInterval(TimeUnit unit) {
+	if (!correctCoordinatedOmission) {
+	    return -1;
+	}
+	double millis = expectedInterval;
+	if (millis <= 0 && waitTimer instanceof AbstractTimer) {
+	    millis = ((AbstractTimer) waitTimer).getAverageWaitTime();
+	}
+	if (millis <= 0) {
+	    throw new PerfTestConfigurationError(
+		    "Correcting coordinated omission requires an expectedInterval "
+			    + "or a timer with a wait time");
+	}
+	return Math.max(1, unit.convert((long) (millis * 1000000),
+		TimeUnit.NANOSECONDS));
+    }
+
+    public Histogram createHistogram() {
+	try {
+	    return histogramType.newInstance();
+	} catch (Exception e) {
+	    throw new PerfTestConfigurationError("Error creating histogram "
+		    + histogramType.getName(), e);
+	}
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Rejects a rate together with thread based stages, which would make the
+     * stages' thread counts be taken for rates.
+     */
+    private static void checkRateAndStages(double rate, LoadStage[] stages) {
+	if (rate > 0 && stages.length > 0 && !stages[0].isRateBased()) {
+	    throw new PerfTestConfigurationError(
+		    "A rate cannot be combined with thread based stages");
+	}
+    }
+
 }
@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf;
+
+/**
+ * Runtime representation of a {@link Stage} of a load shape.<br>
+ * <br>
+ * Created: 18.10.2026 17:27:36
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public class LoadStage {
+
+    private final String name;
+    private final int duration;
+    private final int threads;
+    private final double rate;
+    private final boolean ramp;
+    private final boolean verify;
+
+    public LoadStage(String name, int duration, int threads, double rate,
+                     boolean ramp, boolean verify) {
+        if (duration <= 0) {
+            throw new PerfTestConfigurationError("Stage '" + name + "' needs a positive duration");
+        }
+        if ((threads >= 0) == (rate >= 0)) {
+            throw new PerfTestConfigurationError("Stage '" + name + "' must define either threads or a rate");
+        }
+        this.name = name;
+        this.duration = duration;
+        this.threads = threads;
+        this.rate = rate;
+        this.ramp = ramp;
+        this.verify = verify;
+    }
+
+    /** Creates a stage which holds a number of threads. */
+    public static LoadStage threads(String name, int duration, int threads) {
+        return new LoadStage(name, duration, threads, -1, false, true);
+    }
+
+    /** Creates a stage which holds an invocation rate. */
+    public static LoadStage rate(String name, int duration, double rate) {
+        return new LoadStage(name, duration, -1, rate, false, true);
+    }
+
+    /** Creates a stage which ramps to a number of threads. */
+    public static LoadStage threadRamp(String name, int duration, int threads) {
+        return new LoadStage(name, duration, threads, -1, true, false);
+    }
+
+    /** Creates a stage which ramps to an invocation rate. */
+    public static LoadStage rateRamp(String name, int duration, double rate) {
+        return new LoadStage(name, duration, -1, rate, true, false);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public boolean isRamp() {
+        return ramp;
+    }
+
+    public boolean isVerify() {
+        return verify;
+    }
+
+    /** Tells if the stage defines a rate instead of a number of threads. */
+    public boolean isRateBased() {
+        return rate >= 0;
+    }
+
+    /** Returns the number of threads or the rate which the stage aims at. */
+    public double getTarget() {
+        return (isRateBased() ? rate : threads);
+    }
+
+    /**
+     * Returns the number of threads or the rate to apply at the given time.
+     * 
+     * @param previousTarget the target of the previous stage, the start of a
+     *            ramp
+     * @param elapsed the number of milliseconds since the beginning of the
+     *            stage
+     */
+    public double targetAt(double previousTarget, long elapsed) {
+        if (!ramp) {
+            return getTarget();
+        }
+        double fraction = Math.min(1, Math.max(0, (double) elapsed / duration));
+        return previousTarget + (getTarget() - previousTarget) * fraction;
+    }
+
+    /**
+     * Verifies that all stages define threads or all define a rate.
+     * 
+     * @return true if the stages are rate based
+     */
+    public static boolean checkConsistency(LoadStage[] stages) {
+        for (LoadStage stage : stages) {
+            if (stage.isRateBased() != stages[0].isRateBased()) {
+                throw new PerfTestConfigurationError(
+                        "Stages must either all define threads or all define a rate");
+            }
+        }
+        return stages.length > 0 && stages[0].isRateBased();
+    }
+
+    // java.lang.Object overrides
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return name + "(" + (ramp ? "ramp to " : "") + (isRateBased() ? rate + " calls/s" : threads + " threads")
+                + " for " + duration + " ms)";
+    }
+
+}
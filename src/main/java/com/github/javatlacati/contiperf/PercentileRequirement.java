@@ -23,7 +23,10 @@
 package com.github.javatlacati.contiperf;
 
 /**
- * Defines percentile performance requests on a test.<br>
+ * Defines percentile performance requests on a test. The {@link #getMillis()
+ * latency limit} is expressed in the time unit of the enclosing
+ * {@link PerformanceRequirement}, which is milliseconds by default. The
+ * percentage may be fractional, e.g. 99.9.<br>
  * <br>
  * Created: 18.10.2009 06:25:42
  * 
@@ -32,23 +35,23 @@ package com.github.javatlacati.contiperf;
  */
 public class PercentileRequirement {
 
-    private int percentage;
+    private double percentage;
     private int millis;
 
     public PercentileRequirement() {
 	this(-1, -1);
     }
 
-    public PercentileRequirement(int percentage, int millis) {
+    public PercentileRequirement(double percentage, int millis) {
 	this.percentage = percentage;
 	this.millis = millis;
     }
 
-    public int getPercentage() {
+    public double getPercentage() {
 	return percentage;
     }
 
-    public void setPercentage(int percentage) {
+    public void setPercentage(double percentage) {
 	this.percentage = percentage;
     }
 
@@ -29,11 +29,14 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 import java.lang.annotation.Documented;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
 
 import com.github.javatlacati.contiperf.timer.ConstantTimer;
 import com.github.javatlacati.contiperf.timer.CumulatedTimer;
 import com.github.javatlacati.contiperf.timer.None;
 import com.github.javatlacati.contiperf.timer.RandomTimer;
+import com.github.javatlacati.stat.Histogram;
+import com.github.javatlacati.stat.LogLinearHistogram;
 
 /**
  * Defines execution details and performance requirements for a test method: How
@@ -80,6 +83,11 @@ import com.github.javatlacati.contiperf.timer.RandomTimer;
  * validate test execution. For the example above, a minimum rampUp time of 9
  * seconds is useful:
  * {@code @PerfTest(threads = 10, duration = 60000, rampUp = 1000, warmUp = 9000)}
+ * 
+ * <h3>Load stages</h3> Capacity tests which step through different load levels
+ * can define a sequence of {@link #stages()}, each with a number of threads or
+ * a rate and a duration. Threads are added and retired while the test is
+ * running, and each stage is reported and verified on its own.
  * <br>
  * <br>
  * Created: 14.10.2009 14:41:18
@@ -140,7 +148,9 @@ public @interface PerfTest {
 
     /**
      * The class of a {@link WaitTimer} implementation by which a wait time can
-     * be incurred between test invocations
+     * be incurred between test invocations. A
+     * {@link com.github.javatlacati.contiperf.timer.PacingTimer} holds a fixed
+     * rate per thread instead.
      */
     Class<? extends WaitTimer> timer() default None.class;
 
@@ -156,6 +166,91 @@ public @interface PerfTest {
      */
     Class<? extends Clock>[] clocks() default {};
 
+    /**
+     * The {@link Histogram} implementation which stores the measured
+     * latencies. The default {@link LogLinearHistogram} needs only a few
+     * kilobytes for any latency range at a relative error of less than 1%.
+     */
+    Class<? extends Histogram> histogram() default LogLinearHistogram.class;
+
+    /**
+     * The unit in which latencies are measured, recorded and reported. Use
+     * {@link TimeUnit#MICROSECONDS} or {@link TimeUnit#NANOSECONDS} for
+     * testing code that completes in less than a millisecond. Durations,
+     * ramp-up and warm-up times are always specified in milliseconds. The
+     * default value is {@link TimeUnit#MILLISECONDS}.
+     */
+    TimeUnit timeUnit() default TimeUnit.MILLISECONDS;
+
+    /**
+     * Set this to true for correcting measured latencies for coordinated
+     * omission: Each thread waits for an invocation to complete before issuing
+     * the next one, so a stall is recorded as one slow sample instead of as
+     * all the invocations that would have been delayed by it. The correction
+     * back-fills these samples based on the {@link #expectedInterval()}.
+     * Reports show raw and corrected values side by side and latency
+     * requirements are verified against the corrected values. The default
+     * value is false.
+     */
+    boolean correctCoordinatedOmission() default false;
+
+    /**
+     * The number of milliseconds which are expected to pass between two
+     * invocations of a thread, used for {@link #correctCoordinatedOmission()}.
+     * If it is not set, the average wait time of the {@link #timer()} is used.
+     */
+    int expectedInterval() default -1;
+
+    /**
+     * The number of milliseconds after which the latencies measured in the
+     * elapsed period are reported as a timeline interval. This reveals
+     * degradations over time, e.g. from garbage collection or cache warming,
+     * which are hidden in the overall statistics of long-running tests. By
+     * default, no timeline is recorded.
+     */
+    int timelineInterval() default -1;
+
+    /**
+     * Set this to true for running the {@link #threads()} on virtual threads
+     * instead of platform threads. Virtual threads are cheap to create and
+     * block, so tests can simulate tens of thousands of concurrent clients
+     * which wait for I/O. This requires Java 21 or newer. The default value is
+     * false.
+     */
+    boolean virtualThreads() default false;
+
+    /**
+     * The number of invocations per second which are issued independently of
+     * how long earlier invocations took, which is an open workload model: When
+     * the tested code slows down, invocations queue up instead of being issued
+     * less often. The invocations are executed by a pool of {@link #threads()}
+     * worker threads for the {@link #duration()} or, if no duration is set,
+     * for the number of {@link #invocations()}. Latencies are measured from
+     * the scheduled start of an invocation, service time and queueing delay
+     * are reported separately, and the test fails if the measured throughput
+     * falls short of the rate. The {@link #timer()} and {@link #rampUp()} are
+     * ignored. By default, invocations are issued by closed loops.
+     */
+    double rate() default -1;
+
+    /**
+     * Set this to true for issuing the invocations of a {@link #rate()} at
+     * exponentially distributed intervals, like requests of independent
+     * clients arrive, instead of at fixed intervals. The default value is
+     * false.
+     */
+    boolean poissonArrivals() default false;
+
+    /**
+     * The stages of a load shape, e.g. ramp, hold, spike and ramp-down, which
+     * are executed in sequence in one test run. The threads or rate of each
+     * stage replace the {@link #threads()} or {@link #rate()} of the test,
+     * and the sum of the stage durations replaces the {@link #duration()}. For
+     * rate based stages, {@link #threads()} is the size of the worker pool. By
+     * default, the test has a constant load.
+     */
+    Stage[] stages() default {};
+
     // TODO v2.x int timeout() default -1;
 
 }
@@ -22,10 +22,15 @@
 
 package com.github.javatlacati.contiperf;
 
+import java.util.concurrent.TimeUnit;
+
 import com.github.javatlacati.contiperf.util.ContiPerfUtil;
+import com.github.javatlacati.stat.ConfidenceInterval;
 
 /**
- * Defines performance requirements on a test.<br>
+ * Defines performance requirements on a test. Latency requirements (average,
+ * max and percentiles) are expressed in the requirement's
+ * {@link #getTimeUnit() time unit}, total time always in milliseconds.<br>
  * <br>
  * Created: 18.10.2009 06:21:57
  *
@@ -39,6 +44,9 @@ public class PerformanceRequirement {
     private int totalTime;
     private int throughput;
     private final double allowedErrorsRate;
+    private TimeUnit timeUnit;
+    private double confidenceLevel;
+    private double maxAverageMargin;
 
     private PercentileRequirement[] percentiles;
 
@@ -55,6 +63,9 @@ public class PerformanceRequirement {
         this.percentiles = percentiles;
         this.throughput = throughput;
         this.allowedErrorsRate = allowedErrorsRate;
+        this.timeUnit = TimeUnit.MILLISECONDS;
+        this.confidenceLevel = -1;
+        this.maxAverageMargin = -1;
     }
 
     public int getAverage() {
@@ -93,6 +104,69 @@ public class PerformanceRequirement {
         return allowedErrorsRate;
     }
 
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public void setTimeUnit(TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    /**
+     * Returns the confidence level at which average and throughput
+     * requirements are evaluated, or a negative value if they are compared
+     * with the measured values directly.
+     */
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public void setConfidenceLevel(double confidenceLevel) {
+        if (confidenceLevel <= 0 || confidenceLevel >= 1) {
+            throw new PerfTestConfigurationError(
+                    "Confidence level must be between 0 and 1: " + confidenceLevel);
+        }
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    public boolean isConfidenceLevelSet() {
+        return confidenceLevel > 0;
+    }
+
+    /**
+     * Returns the {@link #getConfidenceLevel() confidence level}, or the
+     * {@link ConfidenceInterval#DEFAULT_LEVEL default} if none is set.
+     */
+    public double effectiveConfidenceLevel() {
+        return (isConfidenceLevelSet() ? confidenceLevel
+                : ConfidenceInterval.DEFAULT_LEVEL);
+    }
+
+    public double getMaxAverageMargin() {
+        return maxAverageMargin;
+    }
+
+    public void setMaxAverageMargin(double maxAverageMargin) {
+        this.maxAverageMargin = maxAverageMargin;
+    }
+
+    /**
+     * Converts a latency requirement value to the given unit. Negative values
+     * indicate that the requirement is not set and are returned unchanged. If
+     * the target unit is coarser, the value is rounded up, so that e.g. a
+     * maximum of 1500 microseconds is not tightened to 1 millisecond.
+     */
+    public long convert(long value, TimeUnit targetUnit) {
+        if (value < 0) {
+            return value;
+        }
+        long result = targetUnit.convert(value, timeUnit);
+        if (timeUnit.convert(result, targetUnit) < value) {
+            result++;
+        }
+        return result;
+    }
+
     public boolean isAllowedError() {
 
         return allowedErrorsRate > 0.0;
@@ -105,7 +179,10 @@ public class PerformanceRequirement {
                 .append(", max=").append(max)
                 .append(", totalTime=").append(totalTime)
                 .append(", throughput=").append(throughput)
-                .append(", percentiles=").append(percentiles);
+                .append(", percentiles=").append(percentiles)
+                .append(", timeUnit=").append(timeUnit)
+                .append(", confidenceLevel=").append(confidenceLevel)
+                .append(", maxAverageMargin=").append(maxAverageMargin);
         return builder.toString();
     }
 
@@ -23,15 +23,39 @@
 package com.github.javatlacati.contiperf;
 
 import com.github.javatlacati.contiperf.clock.SystemClock;
+import com.github.javatlacati.contiperf.monitor.JmxMonitor;
 import com.github.javatlacati.contiperf.report.ReportContext;
 import com.github.javatlacati.contiperf.report.ReportModule;
+import com.github.javatlacati.contiperf.report.ReportUtil;
+import com.github.javatlacati.contiperf.util.ContiPerfUtil;
 import com.github.javatlacati.contiperf.util.InvokerProxy;
+import com.github.javatlacati.contiperf.util.PeriodicThread;
+import com.github.javatlacati.profile.Profiler;
+import com.github.javatlacati.profile.Profiling;
+import com.github.javatlacati.profile.StackSampler;
+import com.github.javatlacati.stat.ConfidenceInterval;
+import com.github.javatlacati.stat.IntervalSnapshot;
 import com.github.javatlacati.stat.LatencyCounter;
 
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectName;
 
 /**
- * {@link InvokerProxy} that provides performance tracking features.<br>
+ * {@link InvokerProxy} that provides performance tracking features. If
+ * {@link Profiling} is enabled, each invocation is measured as a profile named
+ * after the test in the {@link Profiler#defaultInstance() default profiler},
+ * so that the profiles which the tested code enters become its sub profiles.
+ * The test's profiles record nanoseconds, independent of the test's time
+ * unit, so that code running for less than a millisecond has a self time.<br>
  * <br>
  * Created: 22.10.2009 16:36:43
  *
@@ -40,6 +64,16 @@ import java.io.PrintWriter;
  */
 public class PerformanceTracker extends InvokerProxy {
 
+    /** Name of the counter of the service times of scheduled invocations. */
+    public static final String SERVICE_TIME = "service";
+
+    /** Name of the counter of the queueing delays of scheduled invocations. */
+    public static final String QUEUEING_DELAY = "queueing";
+
+    private static final long NOT_SCHEDULED = Long.MIN_VALUE;
+
+    private static final Set<PerformanceTracker> ACTIVE_TRACKERS = new CopyOnWriteArraySet<>();
+
     private final ExecutionConfig executionConfig;
     private final PerformanceRequirement requirement;
 
@@ -49,6 +83,14 @@ public class PerformanceTracker extends InvokerProxy {
     private LatencyCounter[] counters;
     private boolean trackingStarted;
     private long warmUpFinishedTime;
+    private PeriodicThread timelineThread;
+    private volatile boolean aborted;
+    private ObjectName mbeanName;
+    private final boolean profiling;
+    private volatile StackSampler sampler;
+    private volatile StageResult currentStage;
+    private final List<StageResult> stageResults;
+    private volatile int threads;
 
     public PerformanceTracker(Invoker target,
                               PerformanceRequirement requirement, ReportContext context) {
@@ -68,49 +110,252 @@ public class PerformanceTracker extends InvokerProxy {
         this.counters = null;
         this.trackingStarted = false;
         this.warmUpFinishedTime = -1;
+        this.aborted = false;
+        this.mbeanName = null;
+        this.profiling = Profiling.isEnabled();
+        this.currentStage = null;
+        this.stageResults = new ArrayList<>();
+        this.threads = this.executionConfig.getThreads();
+    }
+
+    /** Returns the trackers which are currently tracking, e.g. for monitoring. */
+    public static Collection<PerformanceTracker> activeTrackers() {
+        return Collections.unmodifiableSet(ACTIVE_TRACKERS);
+    }
+
+    public ExecutionConfig getExecutionConfig() {
+        return executionConfig;
+    }
+
+    public PerformanceRequirement getRequirement() {
+        return requirement;
     }
 
     public void setContext(ReportContext context) {
         this.context = context;
     }
 
+    /**
+     * Makes each thread which invokes the test from now on register with the
+     * sampler, so that its stacks are sampled.
+     */
+    public void setSampler(StackSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    public StackSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * Returns the number of threads which currently invoke the test. Unless a
+     * runner {@link #setThreads(int) reports} otherwise, this is the configured
+     * {@link ExecutionConfig#getThreads() thread count}.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /** Called by runners which vary the number of threads during a test. */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     public LatencyCounter[] getCounters() {
         return counters;
     }
 
+    /** Returns the counters of a stage or null if the stage has not been started. */
+    public synchronized LatencyCounter[] getCounters(LoadStage stage) {
+        for (StageResult stageResult : stageResults) {
+            if (stageResult.stage == stage) {
+                return stageResult.counters;
+            }
+        }
+        return null;
+    }
+
     public void startTracking() {
         reportStart();
-        int max = requirement != null ? requirement.getMax() : -1;
+        this.counters = createCounters(executionConfig.getTimelineInterval() > 0);
+        if (executionConfig.getTimelineInterval() > 0) {
+            // completes a timeline interval periodically
+            timelineThread = new PeriodicThread("ContiPerf timeline " + getId(),
+                    executionConfig.getTimelineInterval(), new Runnable() {
+                        @Override
+                        public void run() {
+                            rotateIntervals();
+                        }
+                    });
+            timelineThread.start();
+        }
+        trackingStarted = true;
+        ACTIVE_TRACKERS.add(this);
+        if (Config.instance().jmxEnabled()) {
+            mbeanName = JmxMonitor.register(this);
+        }
+    }
+
+    /**
+     * Creates and starts a counter for each clock and, for an open workload
+     * model, the counters of service time and queueing delay.
+     */
+    private LatencyCounter[] createCounters(boolean timeline) {
         int length = clocks.length;
-        this.counters = new LatencyCounter[length];
+        LatencyCounter[] result = new LatencyCounter[length
+                + (executionConfig.isOpenModel() ? 2 : 0)];
+        long correctionInterval = executionConfig
+                .correctionInterval(executionConfig.getTimeUnit());
         for (int i = 0; i < length; i++) {
-            LatencyCounter counter = new LatencyCounter(target.toString(),
-                    clocks[i].getName(), max >= 0 ? max : 1000);
-            this.counters[i] = counter;
-            counter.start();
+            result[i] = createCounter(clocks[i].getName(), correctionInterval, timeline);
         }
-        trackingStarted = true;
+        if (result.length > length) {
+            result[length] = createCounter(SERVICE_TIME, -1, timeline);
+            result[length + 1] = createCounter(QUEUEING_DELAY, -1, timeline);
+        }
+        return result;
+    }
+
+    private LatencyCounter createCounter(String clockName, long correctionInterval,
+                                         boolean timeline) {
+        LatencyCounter counter = new LatencyCounter(target.toString(),
+                clockName, executionConfig.getTimeUnit(),
+                executionConfig.createHistogram());
+        counter.setExpectedInterval(correctionInterval);
+        if (timeline) {
+            counter.enableIntervals();
+        }
+        counter.start();
+        return counter;
+    }
+
+    /**
+     * Begins a stage of a {@link ExecutionConfig#isStaged() staged} test and
+     * ends the previous one. From now on, invocations are recorded by
+     * counters of the stage as well, which are reported and verified on their
+     * own when tracking stops. Invocations which are still running when a
+     * stage ends are recorded by that stage, whose counters are stopped when
+     * the last of them has finished.
+     */
+    public synchronized void startStage(LoadStage stage) {
+        endStage();
+        StageResult result = new StageResult(stage, createCounters(false));
+        stageResults.add(result);
+        this.currentStage = result;
+    }
+
+    private synchronized void endStage() {
+        StageResult stage = currentStage;
+        if (stage != null) {
+            currentStage = null;
+            stage.exit();
+        }
+    }
+
+    /** Returns the current stage, which must be {@link StageResult#exit() exited}, or null. */
+    private StageResult enterStage() {
+        StageResult stage = currentStage;
+        while (stage != null && !stage.enter()) {
+            // the stage has just ended
+            stage = currentStage;
+        }
+        return stage;
+    }
+
+    /** Returns the ID under which a stage is reported. */
+    public String stageId(LoadStage stage) {
+        return getId() + "[" + stage.getName() + "]";
+    }
+
+    /**
+     * Makes the next invocation of each thread fail, e.g. for terminating a
+     * long-running test early.
+     */
+    public void abort() {
+        this.aborted = true;
+    }
+
+    public boolean isAborted() {
+        return aborted;
     }
 
     @Override
     public Object invoke(Object[] args) throws Exception {
-        long clock0StartTime = clocks[0].getTime();
-        long realStartMillis = System.nanoTime() / 1000000;
+        return invoke(args, NOT_SCHEDULED);
+    }
+
+    /**
+     * Invokes the target for an invocation which has been scheduled by an
+     * open workload model, e.g. a {@link RateRunner}. Its wall-clock latency
+     * is measured from the scheduled start, so that it includes the time which
+     * the invocation waited for being executed, while other clocks only
+     * measure the invocation itself. If the test has a
+     * {@link ExecutionConfig#getRate() rate}, the service time and the
+     * queueing delay are recorded by the counters {@value #SERVICE_TIME} and
+     * {@value #QUEUEING_DELAY} in addition.
+     * 
+     * @param scheduledStart the scheduled start time as a
+     *            {@link System#nanoTime()} value
+     */
+    public Object invoke(Object[] args, long scheduledStart) throws Exception {
+        TimeUnit timeUnit = executionConfig.getTimeUnit();
+        long startNanos = System.nanoTime();
+        long realStartMillis = startNanos / 1000000;
         if (warmUpFinishedTime == -1) {
             warmUpFinishedTime = realStartMillis + executionConfig.getWarmUp();
         }
         checkState(realStartMillis);
+        if (aborted) {
+            context.fail("Test " + getId() + " has been aborted");
+        }
         PerfTestExecutionError perfTestExecutionError = null;
         Object result = null;
+        // register with sampler and profiler before the clock starts,
+        // so that their overhead is not measured as part of the invocation
+        StackSampler sampler = this.sampler;
+        if (sampler != null) {
+            sampler.addThread(Thread.currentThread());
+        }
+        if (profiling) {
+            Profiler.defaultInstance().enter(getId(), TimeUnit.NANOSECONDS);
+        }
+        // the invocation is recorded by the stage in which it started
+        StageResult stage = enterStage();
+        long[] elapsed = new long[clocks.length];
+        long queueingDelay;
+        long latency;
         try {
-            result = super.invoke(args);
-        } catch (PerfTestExecutionError ptee) {
-            perfTestExecutionError = ptee;
-        }
-        int latency = (int) (clocks[0].getTime() - clock0StartTime);
-        if (isTrackingStarted()) {
-            for (LatencyCounter counter : counters) {
-                counter.addSample(latency, perfTestExecutionError);
+            try {
+                // the first clock is read last and stopped first, so that it
+                // measures the invocation most closely
+                for (int i = clocks.length - 1; i >= 0; i--) {
+                    elapsed[i] = clocks[i].getTime(timeUnit);
+                }
+                try {
+                    result = super.invoke(args);
+                } catch (PerfTestExecutionError ptee) {
+                    perfTestExecutionError = ptee;
+                }
+                for (int i = 0; i < clocks.length; i++) {
+                    elapsed[i] = clocks[i].getTime(timeUnit) - elapsed[i];
+                }
+            } finally {
+                if (profiling) {
+                    Profiler.defaultInstance().exit();
+                }
+            }
+            queueingDelay = (scheduledStart != NOT_SCHEDULED ? timeUnit.convert(
+                    Math.max(0, startNanos - scheduledStart), TimeUnit.NANOSECONDS) : 0);
+            latency = latency(0, elapsed, queueingDelay);
+            if (isTrackingStarted()) {
+                record(counters, elapsed, queueingDelay, perfTestExecutionError);
+                if (stage != null) {
+                    record(stage.counters, elapsed, queueingDelay, perfTestExecutionError);
+                }
+            }
+        } finally {
+            if (stage != null) {
+                stage.exit();
             }
         }
         reportInvocation(latency, realStartMillis);
@@ -122,14 +367,41 @@ public class PerformanceTracker extends InvokerProxy {
             }
         }
         if (requirement != null && requirement.getMax() >= 0
-                && latency > requirement.getMax()
+                && latency > requirement.convert(requirement.getMax(), timeUnit)
                 && executionConfig.isCancelOnViolation()) {
+            String unit = " " + LatencyCounter.unitSymbol(timeUnit);
             context.fail("Method " + getId() + " exceeded time limit of "
-                    + requirement.getMax() + " ms running " + latency + " ms");
+                    + requirement.convert(requirement.getMax(), timeUnit) + unit
+                    + " running " + latency + unit);
         }
         return result;
     }
 
+    /**
+     * Records the time of each clock into its counter. The service time is
+     * the time of the first clock.
+     */
+    private void record(LatencyCounter[] counters, long[] elapsed,
+                        long queueingDelay, PerfTestExecutionError error) {
+        for (int i = 0; i < clocks.length; i++) {
+            counters[i].addSample(latency(i, elapsed, queueingDelay), error);
+        }
+        if (counters.length > clocks.length) {
+            counters[clocks.length].addSample(elapsed[0], error);
+            counters[clocks.length + 1].addSample(queueingDelay, error);
+        }
+    }
+
+    /**
+     * Returns the latency measured by a clock. The queueing delay is measured
+     * in wall-clock time, so it is only added to the time of a
+     * {@link SystemClock}, but not e.g. to the CPU time of the invocation.
+     */
+    private long latency(int clockIndex, long[] elapsed, long queueingDelay) {
+        return (clocks[clockIndex] instanceof SystemClock ? elapsed[clockIndex] + queueingDelay
+                : elapsed[clockIndex]);
+    }
+
     private synchronized void checkState(long callStart) {
         if (callStart >= warmUpFinishedTime && !trackingStarted) {
             startTracking();
@@ -145,32 +417,54 @@ public class PerformanceTracker extends InvokerProxy {
             throw new RuntimeException(
                     "Trying to stop counter before it was started");
         }
+        if (timelineThread != null) {
+            timelineThread.cancel();
+            timelineThread = null;
+            rotateIntervals();
+        }
         for (LatencyCounter counter : counters) {
             counter.stop();
         }
+        endStage();
+        unregisterMBean();
+        ACTIVE_TRACKERS.remove(this);
         LatencyCounter mainCounter = counters[0];
         mainCounter.printSummary(new PrintWriter(System.out));
         reportCompletion();
-        if (!isAllowedErrors(requirement)
-                && mainCounter.getAssertionErrors().size() > 0) {
-            Throwable p = mainCounter.getAssertionErrors().get(0);
+        List<PerfTestExecutionError> errors = mainCounter.getAssertionErrors();
+        if (!isAllowedErrors(requirement) && !errors.isEmpty()) {
+            Throwable p = errors.get(0);
             while (p.getCause() != null && !(p instanceof AssertionError)) {
                 p = p.getCause();
             }
             if (p instanceof AssertionError) {
                 throw (AssertionError) p;
             } else {
-                throw mainCounter.getAssertionErrors().get(0);
+                throw errors.get(0);
             }
         }
-        if (requirement != null) {
-            checkRequirements(mainCounter);
+        if (executionConfig.isStaged()) {
+            // the stages replace the overall verification, which would mix
+            // ramps with the stages under full load
+            for (StageResult stageResult : stageResults) {
+                if (stageResult.stage.isVerify()) {
+                    verifyStage(stageResult);
+                }
+            }
+        } else {
+            if (requirement != null) {
+                checkRequirements(mainCounter, getId());
+            }
+            checkRate(mainCounter, executionConfig.getRate(), getId());
         }
         this.trackingStarted = false;
     }
 
     public void clear() {
+        unregisterMBean();
+        ACTIVE_TRACKERS.remove(this);
         counters = null;
+        stageResults.clear();
     }
 
     // helper methods
@@ -181,22 +475,58 @@ public class PerformanceTracker extends InvokerProxy {
         return requirement != null && requirement.isAllowedError();
     }
 
+    private void unregisterMBean() {
+        if (mbeanName != null) {
+            JmxMonitor.unregister(mbeanName);
+            mbeanName = null;
+        }
+    }
+
     private void reportStart() {
         for (ReportModule module : context.getReportModules()) {
             module.starting(getId());
         }
     }
 
-    private void reportInvocation(int latency, long callStart) {
+    private void reportInvocation(long latency, long callStart) {
         for (ReportModule module : context.getReportModules()) {
             module.invoked(getId(), latency, callStart);
         }
     }
 
+    private void rotateIntervals() {
+        IntervalSnapshot[] snapshots = new IntervalSnapshot[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            snapshots[i] = counters[i].rotateInterval();
+        }
+        for (ReportModule module : context.getReportModules()) {
+            module.intervalCompleted(getId(), snapshots);
+        }
+    }
+
     private void reportCompletion() {
         for (ReportModule module : context.getReportModules()) {
             module.completed(getId(), counters, executionConfig, requirement);
         }
+        for (StageResult stageResult : stageResults) {
+            if (stageResult.counters[0].sampleCount() > 0) {
+                for (ReportModule module : context.getReportModules()) {
+                    module.completed(stageId(stageResult.stage), stageResult.counters,
+                            executionConfig, requirement);
+                }
+            }
+        }
+    }
+
+    private void verifyStage(StageResult stageResult) {
+        LoadStage stage = stageResult.stage;
+        LatencyCounter mainCounter = stageResult.counters[0];
+        if (requirement != null) {
+            checkRequirements(mainCounter, stageId(stage));
+        }
+        if (stage.isRateBased() && !stage.isRamp()) {
+            checkRate(mainCounter, stage.getRate(), stageId(stage));
+        }
     }
 
     private void reportError() {
@@ -205,17 +535,19 @@ public class PerformanceTracker extends InvokerProxy {
         }
     }
 
-    private void checkRequirements(LatencyCounter mainCounter) {
+    private void checkRequirements(LatencyCounter mainCounter, String id) {
         long elapsedMillis = mainCounter.duration();
-        long requiredMax = requirement.getMax();
+        TimeUnit timeUnit = mainCounter.getTimeUnit();
+        String unit = " " + mainCounter.getUnitSymbol();
+        long requiredMax = requirement.convert(requirement.getMax(), timeUnit);
         if (requiredMax >= 0 && mainCounter.maxLatency() > requiredMax) {
-            context.fail("The maximum latency of " + requiredMax
-                    + " ms was exceeded, Measured: "
-                    + mainCounter.maxLatency() + " ms");
+            context.fail("The maximum latency of " + requiredMax + unit
+                    + " was exceeded, Measured: "
+                    + mainCounter.maxLatency() + unit);
         }
         long requiredTotalTime = requirement.getTotalTime();
         if (requiredTotalTime >= 0 && elapsedMillis > requiredTotalTime) {
-            context.fail("Test run " + getId() + " exceeded timeout of "
+            context.fail("Test run " + id + " exceeded timeout of "
                     + requiredTotalTime + " ms running " + elapsedMillis
                     + " ms");
         }
@@ -223,28 +555,39 @@ public class PerformanceTracker extends InvokerProxy {
         if (requiredThroughput > 0 && elapsedMillis > 0) {
             long actualThroughput = mainCounter.sampleCount() * 1000
                     / elapsedMillis;
-            if (actualThroughput < requiredThroughput) {
-                context.fail("Test " + getId() + " had a throughput of only "
+            if (ReportUtil.evaluatedThroughput(mainCounter, requirement) < requiredThroughput) {
+                context.fail("Test " + id + " had a throughput of only "
                         + actualThroughput + " calls per second, required: "
                         + requiredThroughput + " calls per second");
             }
         }
-        int requiredAverage = requirement.getAverage();
+        long requiredAverage = requirement.convert(requirement.getAverage(), timeUnit);
         if (requiredAverage >= 0
-                && mainCounter.averageLatency() > requiredAverage) {
-            context.fail("Average execution time of " + getId()
+                && ReportUtil.evaluatedAverage(mainCounter, requirement) > requiredAverage) {
+            context.fail("Average execution time of " + id
                     + " exceeded the requirement of " + requiredAverage
-                    + " ms, measured " + mainCounter.averageLatency() + " ms");
+                    + unit + ", " + evaluatedAverageInfo(mainCounter));
+        }
+        double maxAverageMargin = requirement.getMaxAverageMargin();
+        if (maxAverageMargin > 0) {
+            double margin = ReportUtil.averageMargin(mainCounter, requirement);
+            if (margin > maxAverageMargin) {
+                context.fail("The average execution time of " + id
+                        + " has a margin of error of " + (margin * 100)
+                        + "%, required: " + (maxAverageMargin * 100) + "%");
+            }
         }
         for (PercentileRequirement percentile : requirement
                 .getPercentileRequirements()) {
-            long measuredLatency = mainCounter.percentileLatency(percentile
+            long measuredLatency = mainCounter.correctedPercentileLatency(percentile
                     .getPercentage());
-            if (measuredLatency > percentile.getMillis()) {
-                context.fail(percentile.getPercentage() + "-percentile of "
-                        + getId() + " exceeded the requirement of "
-                        + percentile.getMillis() + " ms, measured "
-                        + measuredLatency + " ms");
+            long requiredLatency = requirement.convert(percentile.getMillis(), timeUnit);
+            if (measuredLatency > requiredLatency) {
+                context.fail(ContiPerfUtil.formatPercentage(percentile.getPercentage())
+                        + "-percentile of "
+                        + id + " exceeded the requirement of "
+                        + requiredLatency + unit + ", measured "
+                        + measuredLatency + unit);
             }
         }
 
@@ -257,4 +600,76 @@ public class PerformanceTracker extends InvokerProxy {
                     + (mainCounter.errorsRate() * 100) + "%");
         }
     }
+
+    /**
+     * Verifies that a target rate has been achieved: The test fails if the
+     * upper bound of the confidence interval of the throughput is below the
+     * target rate, which tolerates the random variation of Poisson arrivals.
+     */
+    private void checkRate(LatencyCounter mainCounter, double rate, String id) {
+        if (rate <= 0) {
+            return;
+        }
+        ConfidenceInterval throughput = mainCounter.throughputConfidenceInterval(
+                ConfidenceInterval.DEFAULT_LEVEL);
+        if (throughput.getUpper() < rate) {
+            context.fail("Test " + id + " had a throughput of only "
+                    + mainCounter.throughput() + " calls per second, target rate: "
+                    + rate + " calls per second");
+        }
+    }
+
+    /** Describes the value which {@link ReportUtil#evaluatedAverage} compared. */
+    private String evaluatedAverageInfo(LatencyCounter counter) {
+        String unit = " " + counter.getUnitSymbol();
+        String average = (counter.isCorrected() ? "corrected average" : "average");
+        if (!requirement.isConfidenceLevelSet()) {
+            return "measured " + average + ": " + counter.correctedAverageLatency() + unit;
+        }
+        ConfidenceInterval interval = counter.correctedAverageConfidenceInterval(
+                requirement.getConfidenceLevel());
+        return "lower bound of the "
+                + ContiPerfUtil.formatPercentage(requirement.getConfidenceLevel() * 100)
+                + "% confidence interval of the " + average + ": "
+                + interval.getLower() + unit + " (" + average + ": "
+                + counter.correctedAverageLatency() + unit + " \u00b1"
+                + interval.getHalfWidth() + unit + ")";
+    }
+
+    /** The counters of a stage. */
+    static final class StageResult {
+
+        final LoadStage stage;
+        final LatencyCounter[] counters;
+        /** The number of running invocations, plus one while the stage is current. */
+        private final AtomicInteger users;
+
+        StageResult(LoadStage stage, LatencyCounter[] counters) {
+            this.stage = stage;
+            this.counters = counters;
+            this.users = new AtomicInteger(1);
+        }
+
+        /** Registers an invocation, unless the stage has been completed. */
+        boolean enter() {
+            int count;
+            do {
+                count = users.get();
+                if (count == 0) {
+                    return false;
+                }
+            } while (!users.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        /** Stops the counters when the stage has ended and all of its invocations have finished. */
+        void exit() {
+            if (users.decrementAndGet() == 0) {
+                for (LatencyCounter counter : counters) {
+                    counter.stop();
+                }
+            }
+        }
+    }
+
 }
@@ -0,0 +1,242 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf;
+
+import com.github.javatlacati.contiperf.util.ContiPerfUtil;
+import com.github.javatlacati.contiperf.util.PreciseSleep;
+import com.github.javatlacati.contiperf.util.VirtualThreads;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Issues invocations at a {@link ExecutionConfig#getRate() constant rate},
+ * independent of how long earlier invocations took. Unlike the other runners,
+ * which wait for an invocation to complete before issuing the next one, this
+ * implements an open workload model: When the tested system slows down,
+ * requests queue up instead of arriving less often, like they do in
+ * production. The invocations are scheduled at fixed intervals or, with
+ * {@link ExecutionConfig#isPoissonArrivals() Poisson arrivals}, at
+ * exponentially distributed intervals, and are executed by a pool of
+ * {@link ExecutionConfig#getThreads() worker threads}. Each invocation is
+ * measured from its scheduled start, so the time it waits for a free worker
+ * is reported as queueing delay in addition to its service time. Wait timers
+ * and ramp-up times are ignored. With rate based
+ * {@link ExecutionConfig#getStages() stages}, the rate follows the stages,
+ * each of which is {@link PerformanceTracker#startStage(LoadStage) tracked} on
+ * its own.<br>
+ * <br>
+ * Created: 18.10.2026 17:14:46
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public class RateRunner implements InvocationRunner {
+
+    /** The maximum number of nanoseconds by which a rate based stage advances at once. */
+    static final long RATE_TICK = 1000000;
+
+    private final String name;
+    private PerformanceTracker tracker;
+    private final ArgumentsProvider argsProvider;
+    private final ExecutionConfig config;
+    private final Random random;
+
+    public RateRunner(String name, PerformanceTracker tracker, ArgumentsProvider argsProvider) {
+        this.config = tracker.getExecutionConfig();
+        if (!config.isOpenModel()) {
+            throw new PerfTestConfigurationError("No rate configured for " + name);
+        }
+        if (config.isVirtualThreads()) {
+            VirtualThreads.checkSupported();
+        }
+        this.name = name;
+        this.tracker = tracker;
+        this.argsProvider = argsProvider;
+        this.random = new Random();
+    }
+
+    public void run() {
+        AtomicReference<Throwable> throwable = new AtomicReference<>();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(config.getThreads(), config.getThreads(),
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new WorkerFactory());
+        try {
+            if (config.isStaged()) {
+                runStages(workers, throwable);
+            } else {
+                runConstantRate(workers, throwable);
+            }
+        } catch (InterruptedException e) {
+            throwable.compareAndSet(null, new PerfTestExecutionError(e));
+        } finally {
+            workers.shutdown();
+            awaitTermination(workers);
+        }
+        if (throwable.get() != null) {
+            throw ContiPerfUtil.executionError(throwable.get());
+        }
+    }
+
+    public void close() {
+        tracker = null;
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private void runConstantRate(ThreadPoolExecutor workers, AtomicReference<Throwable> throwable)
+            throws InterruptedException {
+        double interval = 1000000000. / config.getRate();
+        long durationNanos = config.getDuration() * 1000000L;
+        long start = System.nanoTime();
+        double offset = 0;
+        for (long i = 0; config.getDuration() > 0 || i < config.getInvocations(); i++) {
+            if (config.getDuration() > 0 && offset >= durationNanos) {
+                break;
+            }
+            long scheduledStart = start + (long) offset;
+            PreciseSleep.until(scheduledStart);
+            if (throwable.get() != null) {
+                break;
+            }
+            workers.execute(new Invocation(argsProvider.next(), scheduledStart, throwable));
+            offset += nextWork() * interval;
+        }
+    }
+
+    /**
+     * Issues the invocations of rate based stages. Since the rate may change
+     * while the next invocation is due, the arrival process advances in steps
+     * of at most {@link #RATE_TICK} and consumes the work of each step at the
+     * rate at its beginning: An invocation is issued when one unit of work
+     * (or, for Poisson arrivals, an exponentially distributed amount of work)
+     * has been consumed.
+     */
+    private void runStages(ThreadPoolExecutor workers, AtomicReference<Throwable> throwable)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        double offset = 0;
+        double stageStart = 0;
+        double previousRate = 0;
+        double work = nextWork();
+        for (LoadStage stage : config.getStages()) {
+            double stageEnd = stageStart + stage.getDuration() * 1000000.;
+            PreciseSleep.until(start + (long) stageStart);
+            tracker.startStage(stage);
+            while (offset < stageEnd && throwable.get() == null) {
+                double rate = stage.targetAt(previousRate, (long) ((offset - stageStart) / 1000000));
+                double step = (rate > 0 ? work * 1000000000. / rate : Double.POSITIVE_INFINITY);
+                if (step > RATE_TICK) {
+                    offset += RATE_TICK;
+                    work -= rate * RATE_TICK / 1000000000.;
+                    continue;
+                }
+                offset += step;
+                work = nextWork();
+                if (offset >= stageEnd) {
+                    break;
+                }
+                long scheduledStart = start + (long) offset;
+                PreciseSleep.until(scheduledStart);
+                if (throwable.get() == null) {
+                    workers.execute(new Invocation(argsProvider.next(), scheduledStart, throwable));
+                }
+            }
+            stageStart = stageEnd;
+            previousRate = stage.getTarget();
+        }
+        PreciseSleep.until(start + (long) stageStart);
+    }
+
+    private double nextWork() {
+        return (config.isPoissonArrivals() ? -Math.log(1 - random.nextDouble()) : 1);
+    }
+
+    private static void awaitTermination(ThreadPoolExecutor workers) {
+        boolean interrupted = false;
+        while (!workers.isTerminated()) {
+            try {
+                workers.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                // cancel the invocations which are waiting for a worker
+                workers.shutdownNow();
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    class Invocation implements Runnable {
+
+        private final Object[] args;
+        private final long scheduledStart;
+        private final AtomicReference<Throwable> throwable;
+
+        Invocation(Object[] args, long scheduledStart, AtomicReference<Throwable> throwable) {
+            this.args = args;
+            this.scheduledStart = scheduledStart;
+            this.throwable = throwable;
+        }
+
+        public void run() {
+            if (throwable.get() != null) {
+                return;
+            }
+            try {
+                tracker.invoke(args, scheduledStart);
+            } catch (Throwable t) {
+                throwable.compareAndSet(null, t);
+            }
+        }
+    }
+
+    class WorkerFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        public Thread newThread(Runnable task) {
+            String threadName = name + "-worker-" + count.incrementAndGet();
+            return (config.isVirtualThreads() ? VirtualThreads.newThread(threadName, task)
+                    : new Thread(task, threadName));
+        }
+    }
+
+    // java.lang.Object overrides
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        String load = (config.isStaged() ? Arrays.toString(config.getStages()) : config.getRate() + " calls/s");
+        return getClass().getSimpleName() + "(" + load
+                + (config.isPoissonArrivals() ? ", Poisson" : "") + ")";
+    }
+
+}
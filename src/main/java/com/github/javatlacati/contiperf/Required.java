@@ -29,6 +29,7 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 import java.lang.annotation.Documented;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Specifies performance requirements for a test.<br>
@@ -93,7 +94,9 @@ public @interface Required {
      * Defines a custom set of percentile requirements as a comma-separated list
      * of percentile:millisecond pairs, for example 80:300,96:2000 to require
      * 80% of the invocations to take 300 ms or less and 96% to take 2000 ms or
-     * less.
+     * less. Percentages may be fractional, e.g. 99.9:20 requires 99.9% of the
+     * invocations to take 20 ms or less. When a different {@link #timeUnit()}
+     * is used, the values are interpreted in that unit.
      */
     String percentiles() default "";
 
@@ -106,4 +109,32 @@ public @interface Required {
      */
     double allowedErrorsRate() default 0.;
 
+    /**
+     * The unit of the latency requirements {@link #average()},
+     * {@link #median()}, {@link #max()} and the percentiles. It is independent
+     * of the unit in which the test measures, e.g. a test measuring in
+     * microseconds can still require a maximum of 2 milliseconds.
+     * {@link #totalTime()} is always specified in milliseconds.
+     */
+    TimeUnit timeUnit() default TimeUnit.MILLISECONDS;
+
+    /**
+     * Makes the {@link #average()} and {@link #throughput()} requirements
+     * tolerate measurement noise: When set to a probability like 0.95, a
+     * requirement is only considered violated if the violation is significant
+     * at that confidence level, i.e. if the whole confidence interval of the
+     * average latency lies above the required average or the whole confidence
+     * interval of the throughput lies below the required throughput.
+     */
+    double confidenceLevel() default -1;
+
+    /**
+     * Requires the average latency to be measured precisely enough: The half
+     * width of its confidence interval must not exceed the specified fraction
+     * of the average, e.g. 0.05 for a margin of error of 5%. The interval is
+     * calculated for the {@link #confidenceLevel()}, or 95% if that is not
+     * set.
+     */
+    double maxAverageMargin() default -1;
+
 }
@@ -0,0 +1,144 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf;
+
+import java.util.concurrent.TimeUnit;
+
+import com.github.javatlacati.stat.CounterRepository;
+import com.github.javatlacati.stat.LatencyCounter;
+
+/**
+ * Reusable {@link StopWatch} variant for frequently executed code, which is
+ * bound to a {@link LatencyCounter} once and measures with nanosecond
+ * precision. Each thread uses a {@link Scope} of its own which is reused for
+ * all of its measurements, so measuring does not allocate objects once a
+ * thread has taken its first measurement. It can be used with
+ * try-with-resources
+ * 
+ * <pre>
+ * private static final ScopedStopWatch WATCH = ScopedStopWatch.of(&quot;mytest&quot;);
+ * ...
+ * try (ScopedStopWatch.Scope scope = WATCH.start()) {
+ *     doSomething();
+ * }
+ * </pre>
+ * 
+ * or by calling {@link #start()} and {@link #stop()} explicitly. Measurements
+ * of a thread may be nested, e.g. in recursive calls, but must be stopped in
+ * reverse order of their start. Latencies are recorded in the counter's
+ * {@link LatencyCounter#getTimeUnit() time unit}, which is nanoseconds for
+ * counters created by {@link #of(String)}.<br>
+ * <br>
+ * Created: 18.10.2026 16:40:16
+ * 
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ * @see StopWatch
+ */
+public final class ScopedStopWatch {
+
+    private final LatencyCounter counter;
+    private final ThreadLocal<Scope> scope;
+
+    public ScopedStopWatch(LatencyCounter counter) {
+        this.counter = counter;
+        this.scope = new ThreadLocal<Scope>() {
+            @Override
+            protected Scope initialValue() {
+                return new Scope(ScopedStopWatch.this);
+            }
+        };
+    }
+
+    /**
+     * Creates a stop watch which records to the nanosecond counter of the
+     * given name in the {@link CounterRepository}.
+     */
+    public static ScopedStopWatch of(String name) {
+        return new ScopedStopWatch(CounterRepository.getInstance()
+                .getOrCreateCounter(name, TimeUnit.NANOSECONDS));
+    }
+
+    public LatencyCounter getCounter() {
+        return counter;
+    }
+
+    /** Starts a measurement in the current thread. */
+    public Scope start() {
+        Scope result = scope.get();
+        result.push(System.nanoTime());
+        return result;
+    }
+
+    /**
+     * Stops the measurement which has been started last in the current
+     * thread and records its latency.
+     * 
+     * @return the latency in the counter's time unit
+     * @throws IllegalStateException if no measurement has been started
+     */
+    public long stop() {
+        long elapsed = System.nanoTime() - scope.get().pop();
+        long latency = counter.getTimeUnit().convert(elapsed,
+                TimeUnit.NANOSECONDS);
+        counter.addSample(latency, null);
+        return latency;
+    }
+
+    /** The measurements of one thread, closing the scope stops the latest one. */
+    public static final class Scope implements AutoCloseable {
+
+        private final ScopedStopWatch owner;
+        private long[] startTimes;
+        private int depth;
+
+        Scope(ScopedStopWatch owner) {
+            this.owner = owner;
+            this.startTimes = new long[4];
+            this.depth = 0;
+        }
+
+        void push(long startTime) {
+            if (depth == startTimes.length) {
+                long[] newStartTimes = new long[depth * 2];
+                System.arraycopy(startTimes, 0, newStartTimes, 0, depth);
+                startTimes = newStartTimes;
+            }
+            startTimes[depth++] = startTime;
+        }
+
+        long pop() {
+            if (depth == 0) {
+                throw new IllegalStateException("Called stop() on "
+                        + owner.counter.getName() + " without start()");
+            }
+            return startTimes[--depth];
+        }
+
+        @Override
+        public void close() {
+            owner.stop();
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Defines one stage of the load shape of a {@link PerfTest#stages() staged}
+ * test: the number of concurrent threads or the invocation rate which is
+ * applied for the stage's duration. A stage either steps to its target right
+ * at its beginning and holds it, or {@link #ramp() ramps} linearly from the
+ * target of the previous stage to its own. Each stage gets its own latency
+ * statistics and verdicts. Example of a capacity test with a spike:
+ * 
+ * <pre>
+ * &#64;PerfTest(stages = {
+ *     &#64;Stage(name = "ramp", threads = 10, duration = 10000, ramp = true, verify = false),
+ *     &#64;Stage(name = "hold", threads = 10, duration = 30000),
+ *     &#64;Stage(name = "spike", threads = 50, duration = 5000),
+ *     &#64;Stage(name = "recover", threads = 10, duration = 20000),
+ *     &#64;Stage(name = "down", threads = 0, duration = 5000, ramp = true, verify = false) })
+ * </pre>
+ * 
+ * All stages of a test define either threads or a rate.<br>
+ * <br>
+ * Created: 18.10.2026 17:27:36
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Documented
+@Target({})
+@Retention(RUNTIME)
+public @interface Stage {
+
+    /** The name of the stage in reports. By default, stages are numbered. */
+    String name() default "";
+
+    /** The number of milliseconds the stage lasts. */
+    int duration();
+
+    /** The number of concurrent threads invoking the test in a closed loop. */
+    int threads() default -1;
+
+    /**
+     * The number of invocations per second which are issued in an open
+     * workload model, see {@link PerfTest#rate()}.
+     */
+    double rate() default -1;
+
+    /**
+     * Set this to true for changing the threads or rate linearly from the
+     * target of the previous stage, or from zero for the first stage, to the
+     * target of this stage. By default, the target is applied right at the
+     * beginning of the stage.
+     */
+    boolean ramp() default false;
+
+    /**
+     * Tells if the performance requirements are verified for the stage. Set
+     * this to false e.g. for ramp stages. The default value is true.
+     */
+    boolean verify() default true;
+
+}
@@ -0,0 +1,188 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf;
+
+import com.github.javatlacati.contiperf.util.ContiPerfUtil;
+import com.github.javatlacati.contiperf.util.VirtualThreads;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executes the {@link ExecutionConfig#getStages() stages} of a closed workload
+ * model one after the other. Each worker thread calls the invoker in a loop,
+ * and the runner starts and retires workers while the test is running, so
+ * that the number of workers follows the threads of the current stage. In a
+ * ramp, the number is adjusted gradually from the threads of the previous
+ * stage. A retired worker completes its current invocation before it
+ * terminates. Each stage is {@link PerformanceTracker#startStage(LoadStage)
+ * tracked} on its own.<br>
+ * <br>
+ * Created: 18.10.2026 17:27:36
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public class StagedRunner implements InvocationRunner {
+
+    /** The number of milliseconds between two adjustments of a ramp. */
+    static final long RAMP_TICK = 100;
+
+    private final String name;
+    private PerformanceTracker tracker;
+    private final ArgumentsProvider argsProvider;
+    private final ExecutionConfig config;
+    private final List<Worker> activeWorkers;
+    private final List<Worker> workers;
+    private final AtomicReference<Throwable> throwable;
+    private Thread controller;
+
+    public StagedRunner(String name, PerformanceTracker tracker, ArgumentsProvider argsProvider) {
+        this.config = tracker.getExecutionConfig();
+        if (!config.isStaged() || config.isOpenModel()) {
+            throw new PerfTestConfigurationError("No thread stages configured for " + name);
+        }
+        if (config.isVirtualThreads()) {
+            VirtualThreads.checkSupported();
+        }
+        this.name = name;
+        this.tracker = tracker;
+        this.argsProvider = argsProvider;
+        this.activeWorkers = new ArrayList<>();
+        this.workers = new ArrayList<>();
+        this.throwable = new AtomicReference<>();
+    }
+
+    public void run() {
+        this.controller = Thread.currentThread();
+        try {
+            double previousTarget = 0;
+            for (LoadStage stage : config.getStages()) {
+                tracker.startStage(stage);
+                long stageStart = System.currentTimeMillis();
+                long stageEnd = stageStart + stage.getDuration();
+                long now;
+                while ((now = System.currentTimeMillis()) < stageEnd && throwable.get() == null) {
+                    adjustWorkers((int) Math.round(stage.targetAt(previousTarget, now - stageStart)));
+                    Thread.sleep(stage.isRamp() ? Math.min(RAMP_TICK, stageEnd - now) : stageEnd - now);
+                }
+                previousTarget = stage.getTarget();
+            }
+        } catch (InterruptedException e) {
+            // if a worker has encountered an exception, that one is more
+            // interesting
+            throwable.compareAndSet(null, new PerfTestExecutionError(e));
+        } finally {
+            adjustWorkers(0);
+            joinWorkers();
+        }
+        if (throwable.get() != null) {
+            throw ContiPerfUtil.executionError(throwable.get());
+        }
+    }
+
+    /** Returns the number of workers which have not been retired. */
+    public synchronized int getActiveWorkers() {
+        return activeWorkers.size();
+    }
+
+    public void close() {
+        tracker = null;
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private synchronized void adjustWorkers(int target) {
+        while (activeWorkers.size() < target) {
+            String threadName = name + "-" + (workers.size() + 1);
+            Worker worker = new Worker();
+            Thread thread = (config.isVirtualThreads() ? VirtualThreads.newThread(threadName, worker)
+                    : new Thread(worker, threadName));
+            worker.thread = thread;
+            activeWorkers.add(worker);
+            workers.add(worker);
+            thread.start();
+        }
+        while (activeWorkers.size() > target) {
+            // retire the youngest worker first
+            activeWorkers.remove(activeWorkers.size() - 1).retired = true;
+        }
+        tracker.setThreads(target);
+    }
+
+    private void joinWorkers() {
+        boolean interrupted = Thread.interrupted();
+        for (Worker worker : workers) {
+            while (worker.thread.isAlive()) {
+                try {
+                    worker.thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    class Worker extends AbstractInvocationRunner {
+
+        volatile boolean retired;
+        Thread thread;
+
+        Worker() {
+            super(config.getWaitTimer());
+        }
+
+        public void run() {
+            try {
+                startSchedule();
+                while (!retired && throwable.get() == null) {
+                    tracker.invoke(argsProvider.next());
+                    sleep();
+                }
+            } catch (Throwable t) {
+                if (throwable.compareAndSet(null, t)) {
+                    controller.interrupt();
+                }
+            }
+        }
+
+        public void close() {
+            // nothing to do
+        }
+    }
+
+    // java.lang.Object overrides
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + Arrays.toString(config.getStages());
+    }
+
+}
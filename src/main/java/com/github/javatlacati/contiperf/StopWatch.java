@@ -22,6 +22,8 @@
 
 package com.github.javatlacati.contiperf;
 
+import java.util.concurrent.TimeUnit;
+
 import com.github.javatlacati.stat.CounterRepository;
 import com.github.javatlacati.stat.LatencyCounter;
 
@@ -37,6 +39,16 @@ import com.github.javatlacati.stat.LatencyCounter;
  * watch.stop();
  * </pre>
  * 
+ * In frequently executed code, resolve the counter once and pass it to the
+ * stop watch, which saves a lookup by name on each call to stop():
+ * 
+ * <pre>
+ * static final LatencyCounter COUNTER = CounterRepository.getInstance()
+ * 	.getOrCreateCounter(&quot;mytest&quot;);
+ * ...
+ * StopWatch watch = new StopWatch(COUNTER);
+ * </pre>
+ * 
  * You can use a stop watch only a single time, so you have to create a new
  * instance for each measurement you are performing. After the desired number of
  * invocations, you can query the associated {@link LatencyCounter} from the
@@ -55,14 +67,28 @@ import com.github.javatlacati.stat.LatencyCounter;
  * @author Volker Bergmann
  * @see CounterRepository
  * @see LatencyCounter
+ * @see ScopedStopWatch
  */
 public class StopWatch {
 
     private String name;
+    private LatencyCounter counter;
     private long startTime;
 
     public StopWatch(String name) {
 	this.name = name;
+	this.counter = null;
+	this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Creates a stop watch which records to the given counter, e.g. one
+     * obtained from {@link CounterRepository#getOrCreateCounter(String)}, in
+     * the counter's time unit.
+     */
+    public StopWatch(LatencyCounter counter) {
+	this.name = counter.getName();
+	this.counter = counter;
 	this.startTime = System.nanoTime();
     }
 
@@ -71,8 +97,15 @@ public class StopWatch {
 	    throw new RuntimeException("Called stop() on StopWatch '" + name
 		    + "' which has already been stopped");
 	}
-	int latency = (int) ((System.nanoTime() - startTime) / 1000000L);
+	long elapsed = System.nanoTime() - startTime;
 	startTime = -1;
+	if (counter != null) {
+	    long latency = counter.getTimeUnit().convert(elapsed,
+		    TimeUnit.NANOSECONDS);
+	    counter.addSample(latency, null);
+	    return latency;
+	}
+	int latency = (int) (elapsed / 1000000L);
 	CounterRepository.getInstance().addSample(name, latency);
 	return latency;
     }
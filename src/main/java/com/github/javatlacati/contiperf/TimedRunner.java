@@ -50,6 +50,7 @@ public class TimedRunner extends AbstractInvocationRunner {
 	try {
 	    long start = System.currentTimeMillis();
 	    long endTime = start + duration;
+	    startSchedule();
 	    do {
 		invoker.invoke(argsProvider.next());
 		sleep();
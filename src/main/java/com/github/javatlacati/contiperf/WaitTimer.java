@@ -22,8 +22,12 @@
 
 package com.github.javatlacati.contiperf;
 
+import java.util.concurrent.TimeUnit;
+
 /**
- * Common interface for components that provide a wait time.<br>
+ * Common interface for components that provide a wait time. Beyond the
+ * millisecond wait times of {@link #getWaitTime()}, timers may provide wait
+ * times in nanoseconds and absolute schedules.<br>
  * <br>
  * Created: 06.04.2012 17:04:42
  * 
@@ -31,7 +35,44 @@ package com.github.javatlacati.contiperf;
  * @author Volker Bergmann
  */
 public interface WaitTimer {
+
+    /** Tells {@link #nextDeadline(long, long)} that there is no previous deadline. */
+    long NO_DEADLINE = Long.MIN_VALUE;
+
     void init(double[] params);
 
     int getWaitTime();
+
+    /**
+     * Returns the wait time in nanoseconds. By default, it is the
+     * {@link #getWaitTime() wait time} in milliseconds converted.
+     */
+    default long getWaitTimeNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(getWaitTime());
+    }
+
+    /**
+     * Determines the {@link System#nanoTime()} at which a thread invokes the
+     * test next. By default, the thread waits for the
+     * {@link #getWaitTimeNanos() wait time} after each invocation. Timers which
+     * keep an absolute schedule add their interval to the previous deadline
+     * instead.
+     * 
+     * @param previousDeadline the previous deadline of the thread, which is
+     *            the start of the schedule before the first invocation, or
+     *            {@link #NO_DEADLINE} if unknown
+     * @param now the current {@link System#nanoTime()}
+     */
+    default long nextDeadline(long previousDeadline, long now) {
+        return now + getWaitTimeNanos();
+    }
+
+    /**
+     * Tells if the deadlines must be met with a precision of microseconds,
+     * which makes the waiting thread spin for the last part of each wait.
+     * Timers with millisecond wait times do not need that.
+     */
+    default boolean isPrecise() {
+        return false;
+    }
 }
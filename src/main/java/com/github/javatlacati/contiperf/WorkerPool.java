@@ -0,0 +1,350 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pool of platform threads which execute the runners of many tests, so that
+ * a suite of short performance tests does not pay for thread creation and
+ * loses neither the thread-local state nor the warm-up of its threads between
+ * the tests. Each {@link #execute(String, Runnable[], long) execution} leases
+ * one idle worker per task, creating workers if necessary, and returns them
+ * to the pool when its tasks are done, so tests running concurrently never
+ * share a worker. The tasks of an execution start together behind a barrier
+ * and are isolated from other executions: The first {@link Throwable} of
+ * a task cancels the other tasks of the same execution only, and a worker's
+ * interrupt status is cleared before it is reused. The workers are daemon
+ * threads. A worker which has been idle for the pool's keep-alive time
+ * terminates, so the pool shrinks again after a test with many threads, and
+ * all workers terminate when the pool is {@link #shutdown() shut down}.<br>
+ * <br>
+ * Created: 18.10.2026 17:31:39
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public class WorkerPool {
+
+    /** The default number of milliseconds after which an idle worker terminates. */
+    public static final long DEFAULT_KEEP_ALIVE = 60000;
+
+    private static WorkerPool sharedInstance;
+
+    private final String name;
+    private final long keepAlive;
+    private final Deque<Worker> idleWorkers;
+    private int size;
+    private int created;
+    private boolean shutdown;
+
+    public WorkerPool(String name) {
+        this(name, DEFAULT_KEEP_ALIVE);
+    }
+
+    /**
+     * @param keepAlive the number of milliseconds after which an idle worker
+     *            terminates
+     */
+    public WorkerPool(String name, long keepAlive) {
+        this.name = name;
+        this.keepAlive = keepAlive;
+        this.idleWorkers = new ArrayDeque<>();
+        this.size = 0;
+        this.created = 0;
+        this.shutdown = false;
+    }
+
+    /** Returns the pool which is shared by all tests of the JVM. */
+    public static synchronized WorkerPool sharedInstance() {
+        if (sharedInstance == null) {
+            sharedInstance = new WorkerPool("contiperf-worker");
+        }
+        return sharedInstance;
+    }
+
+    /** Starts workers until the pool has at least the given number. */
+    public synchronized void prestart(int count) {
+        checkNotShutdown();
+        while (size < count) {
+            idleWorkers.push(newWorker());
+        }
+    }
+
+    /** Returns the number of workers, busy or idle. */
+    public synchronized int getSize() {
+        return size;
+    }
+
+    public synchronized int getIdleCount() {
+        return idleWorkers.size();
+    }
+
+    /**
+     * Executes each task on a worker of its own and waits until all tasks
+     * have completed. While a task is running, its worker is named after the
+     * execution.
+     *
+     * @param name the name of the execution, e.g. the test ID
+     * @param rampUp the number of milliseconds between the starts of two
+     *            consecutive tasks
+     * @return the first {@link Throwable} which was thrown by a task, or null
+     *         if all tasks completed normally
+     * @throws InterruptedException if the calling thread was interrupted. The
+     *             tasks are canceled in that case, and the method returns
+     *             when all of them have finished.
+     */
+    public Throwable execute(String name, Runnable[] tasks, long rampUp) throws InterruptedException {
+        Execution execution = new Execution(tasks.length);
+        Worker[] workers = lease(tasks.length);
+        for (int i = 0; i < tasks.length; i++) {
+            String threadName = name + "-" + (i + 1);
+            workers[i].assign(new Assignment(execution, tasks[i], i * rampUp, threadName));
+        }
+        execution.start.countDown();
+        try {
+            execution.done.await();
+        } catch (InterruptedException e) {
+            execution.cancel();
+            // the caller must not report results while tasks still record samples
+            awaitUninterruptibly(execution.done);
+            throw e;
+        }
+        return execution.throwable.get();
+    }
+
+    /**
+     * Terminates the idle workers and makes the busy workers terminate when
+     * their current task is done.
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        for (Worker worker : idleWorkers) {
+            worker.thread.interrupt();
+        }
+        size -= idleWorkers.size();
+        idleWorkers.clear();
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private synchronized Worker[] lease(int count) {
+        checkNotShutdown();
+        Worker[] result = new Worker[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = (idleWorkers.isEmpty() ? newWorker() : idleWorkers.pop());
+        }
+        return result;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Returns a worker to the pool and tells if it may continue. */
+    synchronized boolean giveBack(Worker worker) {
+        if (shutdown) {
+            size--;
+            return false;
+        }
+        idleWorkers.push(worker);
+        return true;
+    }
+
+    /**
+     * Removes an idle worker whose keep-alive time has elapsed and tells if
+     * it may terminate. A worker which has been leased in the meantime must
+     * wait for its assignment instead.
+     */
+    synchronized boolean retire(Worker worker) {
+        if (!idleWorkers.remove(worker)) {
+            return false;
+        }
+        size--;
+        return true;
+    }
+
+    private Worker newWorker() {
+        size++;
+        Worker worker = new Worker(name + "-" + (++created));
+        worker.thread.start();
+        return worker;
+    }
+
+    private void checkNotShutdown() {
+        if (shutdown) {
+            throw new IllegalStateException("Worker pool " + name + " has been shut down");
+        }
+    }
+
+    /** The state of one call to {@link #execute(String, Runnable[], long)}. */
+    static final class Execution {
+
+        final CountDownLatch start;
+        final CountDownLatch done;
+        final AtomicReference<Throwable> throwable;
+        private final Set<Thread> running;
+
+        Execution(int taskCount) {
+            this.start = new CountDownLatch(1);
+            this.done = new CountDownLatch(taskCount);
+            this.throwable = new AtomicReference<>();
+            this.running = new HashSet<>();
+        }
+
+        synchronized void started(Thread thread) {
+            running.add(thread);
+        }
+
+        void fail(Throwable t) {
+            if (throwable.compareAndSet(null, t)) {
+                cancel();
+            }
+        }
+
+        synchronized void cancel() {
+            for (Thread thread : running) {
+                if (thread != Thread.currentThread()) {
+                    thread.interrupt();
+                }
+            }
+        }
+
+        /**
+         * Unregisters a thread, which cannot be interrupted by this execution
+         * afterwards.
+         */
+        synchronized void finished(Thread thread) {
+            running.remove(thread);
+        }
+    }
+
+    /** A task which a worker executes on behalf of an {@link Execution}. */
+    static final class Assignment {
+
+        private final Execution execution;
+        private final Runnable task;
+        private final long delay;
+        private final String threadName;
+
+        Assignment(Execution execution, Runnable task, long delay, String threadName) {
+            this.execution = execution;
+            this.task = task;
+            this.delay = delay;
+            this.threadName = threadName;
+        }
+
+        void run(Thread thread) {
+            String poolName = thread.getName();
+            thread.setName(threadName);
+            execution.started(thread);
+            try {
+                execution.start.await();
+                if (execution.throwable.get() == null) {
+                    if (delay > 0) {
+                        Thread.sleep(delay);
+                    }
+                    task.run();
+                }
+            } catch (InterruptedException e) {
+                // canceled before the task has begun
+            } catch (Throwable t) {
+                execution.fail(t);
+            } finally {
+                execution.finished(thread);
+                // clear an interrupt of the execution, it must not affect the next one
+                Thread.interrupted();
+                thread.setName(poolName);
+            }
+        }
+    }
+
+    class Worker implements Runnable {
+
+        final Thread thread;
+        private final BlockingQueue<Assignment> assignments;
+
+        Worker(String threadName) {
+            this.thread = new Thread(this, threadName);
+            this.thread.setDaemon(true);
+            this.assignments = new LinkedBlockingQueue<>();
+        }
+
+        void assign(Assignment assignment) {
+            assignments.add(assignment);
+        }
+
+        public void run() {
+            while (true) {
+                Assignment assignment;
+                try {
+                    assignment = assignments.poll(keepAlive, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    // shut down while idle
+                    return;
+                }
+                if (assignment == null) {
+                    if (retire(this)) {
+                        return;
+                    }
+                    continue;
+                }
+                assignment.run(thread);
+                boolean proceed = giveBack(this);
+                assignment.execution.done.countDown();
+                if (!proceed) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // java.lang.Object overrides
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + name + "]";
+    }
+
+}
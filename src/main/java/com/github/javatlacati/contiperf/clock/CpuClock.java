@@ -23,6 +23,7 @@
 package com.github.javatlacati.contiperf.clock;
 
 import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
 
 import com.github.javatlacati.contiperf.Clock;
 
@@ -48,4 +49,9 @@ public class CpuClock extends AbstractClock {
 	return ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime() / 1000000;
     }
 
+    @Override
+    public long getTime(TimeUnit unit) {
+	return unit.convert(ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime(), TimeUnit.NANOSECONDS);
+    }
+
 }
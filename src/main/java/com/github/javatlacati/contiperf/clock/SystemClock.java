@@ -22,6 +22,8 @@
 
 package com.github.javatlacati.contiperf.clock;
 
+import java.util.concurrent.TimeUnit;
+
 import com.github.javatlacati.contiperf.Clock;
 
 /**
@@ -45,4 +47,9 @@ public class SystemClock extends AbstractClock {
 	return System.nanoTime() / 1000000;
     }
 
+    @Override
+    public long getTime(TimeUnit unit) {
+	return unit.convert(System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
 }
@@ -22,11 +22,13 @@
 
 package com.github.javatlacati.contiperf.junit;
 
+import java.io.IOException;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.github.javatlacati.contiperf.ArgumentsProvider;
 import com.github.javatlacati.contiperf.Clock;
 import com.github.javatlacati.contiperf.ConcurrentRunner;
+import com.github.javatlacati.contiperf.Config;
 import com.github.javatlacati.contiperf.CountRunner;
 import com.github.javatlacati.contiperf.EmptyArgumentsProvider;
 import com.github.javatlacati.contiperf.ExecutionConfig;
@@ -36,15 +38,22 @@ import com.github.javatlacati.contiperf.PerfTestConfigurationError;
 import com.github.javatlacati.contiperf.PerfTestExecutionError;
 import com.github.javatlacati.contiperf.PerformanceRequirement;
 import com.github.javatlacati.contiperf.PerformanceTracker;
+import com.github.javatlacati.contiperf.RateRunner;
+import com.github.javatlacati.contiperf.StagedRunner;
 import com.github.javatlacati.contiperf.TimedRunner;
 import com.github.javatlacati.contiperf.WaitTimer;
+import com.github.javatlacati.contiperf.WorkerPool;
 import com.github.javatlacati.contiperf.report.ReportContext;
+import com.github.javatlacati.profile.StackSampler;
 import org.junit.runners.model.Statement;
 
 /**
  * Implementation of {@link org.junit.runners.model.Statement} which wraps
  * another Statement and adds multiple invocation, execution timing and duration
- * check.<br>
+ * check. If {@link Config#samplingPeriod() sampling} is activated, the stacks
+ * of the invoking threads are sampled while the test runs and their hotspots
+ * are written to the report folder. With the {@link Config#workerPoolEnabled()
+ * worker pool}, concurrent tests reuse the threads of the earlier tests.<br>
  * <br>
  * Created: 12.10.2009 07:37:47
  * 
@@ -75,6 +84,7 @@ final class PerfTestStatement extends Statement {
 	Clock[] clocks = config.getClocks();
 	PerformanceTracker tracker = new PerformanceTracker(invoker, config,
 		requirement, context, clocks);
+	StackSampler sampler = createSampler(tracker);
 		try (InvocationRunner runner = createRunner(tracker)) {
 			runner.run();
 			if (!tracker.isTrackingStarted() && config.getWarmUp() > 0) {
@@ -83,15 +93,52 @@ final class PerfTestStatement extends Statement {
 								+ config.getWarmUp() + " ms) was over");
 			}
 		} finally {
-			if (tracker.isTrackingStarted()) {
-				tracker.stopTracking();
+			try {
+				if (tracker.isTrackingStarted()) {
+					tracker.stopTracking();
+				}
+			} finally {
+				// a failed requirement must neither leak the sampler
+				// thread nor suppress the hotspot report
+				tracker.clear();
+				if (sampler != null) {
+					sampler.stop();
+					writeSamplerReport(sampler);
+				}
 			}
-			tracker.clear();
 		}
     }
 
+    private StackSampler createSampler(PerformanceTracker tracker) {
+	long period = Config.instance().samplingPeriod();
+	if (period <= 0) {
+	    return null;
+	}
+	StackSampler sampler = new StackSampler(id, period);
+	tracker.setSampler(sampler);
+	sampler.start();
+	return sampler;
+    }
+
+    private void writeSamplerReport(StackSampler sampler) {
+	try {
+	    sampler.writeReport(context.getReportFolder());
+	} catch (IOException e) {
+	    // a missing hotspot report must not hide the test result
+	    e.printStackTrace();
+	}
+    }
+
     private InvocationRunner createRunner(PerformanceTracker tracker) {
 	ArgumentsProvider provider = new EmptyArgumentsProvider();
+	if (config.isStaged() && !config.isOpenModel()) {
+	    // closed workload model with a varying number of threads
+	    return new StagedRunner(id, tracker, provider);
+	}
+	if (config.isOpenModel()) {
+	    // open workload model
+	    return new RateRunner(id, tracker, provider);
+	}
 	InvocationRunner runner;
 	int threads = config.getThreads();
 	int rampUp = config.getRampUp();
@@ -115,7 +162,7 @@ final class PerfTestStatement extends Statement {
 		    runners[i] = new TimedRunner(tracker, provider, waitTimer,
 			    durationWithRampUp - i * rampUp);
 		}
-		runner = new ConcurrentRunner(id, runners, rampUp);
+		runner = concurrentRunner(runners, rampUp);
 	    }
 	} else if (invocations >= 0) {
 	    AtomicLong counter = new AtomicLong(invocations);
@@ -129,7 +176,7 @@ final class PerfTestStatement extends Statement {
 		    runners[i] = new CountRunner(tracker, provider, waitTimer,
 			    counter);
 		}
-		runner = new ConcurrentRunner(id, runners, rampUp);
+		runner = concurrentRunner(runners, rampUp);
 	    }
 	} else {
 	    throw new PerfTestConfigurationError(
@@ -138,4 +185,14 @@ final class PerfTestStatement extends Statement {
 	return runner;
     }
 
+    private InvocationRunner concurrentRunner(InvocationRunner[] runners,
+	    int rampUp) {
+	if (!config.isVirtualThreads() && Config.instance().workerPoolEnabled()) {
+	    return new ConcurrentRunner(id, runners, rampUp,
+		    WorkerPool.sharedInstance());
+	}
+	return new ConcurrentRunner(id, runners, rampUp,
+		config.isVirtualThreads());
+    }
+
 }
\ No newline at end of file
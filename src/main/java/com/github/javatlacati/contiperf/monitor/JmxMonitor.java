@@ -0,0 +1,139 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.monitor;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.github.javatlacati.contiperf.PerformanceTracker;
+import com.github.javatlacati.stat.CounterRepository;
+import com.github.javatlacati.stat.CounterRepositoryListener;
+import com.github.javatlacati.stat.LatencyCounter;
+
+/**
+ * Registers monitoring MBeans at the platform MBean server, so that running
+ * tests and {@link CounterRepository} counters can be watched with JConsole
+ * or VisualVM. {@link PerformanceTracker}s register themselves when the
+ * system property <code>contiperf.jmx</code> is <code>true</code>, the
+ * counters of a repository are registered after calling
+ * {@link #monitor(CounterRepository)}. The MBeans are registered in the
+ * domain {@value #DOMAIN} with the types <code>PerfTest</code> and
+ * <code>LatencyCounter</code>. Registration errors are printed, but do not
+ * affect the monitored code.<br>
+ * <br>
+ * Created: 18.10.2026 16:49:51
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class JmxMonitor {
+
+    public static final String DOMAIN = "com.github.javatlacati.contiperf";
+
+    private static final CounterRepositoryListener REPOSITORY_LISTENER = new CounterRepositoryListener() {
+        @Override
+        public void counterCreated(LatencyCounter counter) {
+            register(new LatencyCounterMonitor(counter),
+                    objectName("LatencyCounter", counter.getName()));
+        }
+
+        @Override
+        public void counterRemoved(LatencyCounter counter) {
+            unregister(objectName("LatencyCounter", counter.getName()));
+        }
+    };
+
+    private JmxMonitor() {
+    }
+
+    /**
+     * Registers an MBean for each existing and future counter of the
+     * repository.
+     */
+    public static void monitor(CounterRepository repository) {
+        repository.addListener(REPOSITORY_LISTENER);
+        for (Map.Entry<String, LatencyCounter> entry : repository
+                .getCounters()) {
+            REPOSITORY_LISTENER.counterCreated(entry.getValue());
+        }
+    }
+
+    /** Unregisters the MBeans of the repository's counters. */
+    public static void unmonitor(CounterRepository repository) {
+        repository.removeListener(REPOSITORY_LISTENER);
+        for (Map.Entry<String, LatencyCounter> entry : repository
+                .getCounters()) {
+            REPOSITORY_LISTENER.counterRemoved(entry.getValue());
+        }
+    }
+
+    /**
+     * Registers a {@link PerfTestMonitor} for a tracker which has started
+     * tracking.
+     * 
+     * @return the name of the MBean, or null if registration failed
+     */
+    public static ObjectName register(PerformanceTracker tracker) {
+        ObjectName name = objectName("PerfTest", tracker.getId());
+        return (register(new PerfTestMonitor(tracker), name) ? name : null);
+    }
+
+    public static ObjectName objectName(String type, String name) {
+        try {
+            return new ObjectName(DOMAIN + ":type=" + type + ",name="
+                    + ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Illegal MBean name: " + name, e);
+        }
+    }
+
+    public static boolean register(Object mbean, ObjectName name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+            return true;
+        } catch (JMException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public static void unregister(ObjectName name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
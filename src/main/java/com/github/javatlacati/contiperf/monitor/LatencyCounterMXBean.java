@@ -0,0 +1,62 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.monitor;
+
+import java.util.Map;
+
+import com.github.javatlacati.stat.LatencyCounter;
+
+/**
+ * Management interface which exposes the live statistics of a
+ * {@link LatencyCounter}. Latencies are expressed in the counter's
+ * {@link #getTimeUnit() time unit}.<br>
+ * <br>
+ * Created: 18.10.2026 16:49:51
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public interface LatencyCounterMXBean {
+
+    String getName();
+
+    String getTimeUnit();
+
+    long getSampleCount();
+
+    long getErrorCount();
+
+    /** Returns the number of samples per second. */
+    double getThroughput();
+
+    double getAverageLatency();
+
+    long getMaxLatency();
+
+    /**
+     * Returns the latency of each monitored percentile, keyed by the
+     * percentage, e.g. "99.9".
+     */
+    Map<String, Long> getPercentiles();
+
+}
@@ -0,0 +1,115 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.monitor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.github.javatlacati.contiperf.util.ContiPerfUtil;
+import com.github.javatlacati.stat.Histogram;
+import com.github.javatlacati.stat.LatencyCounter;
+
+/**
+ * {@link LatencyCounterMXBean} implementation. Each query merges the
+ * counter's striped histograms into a snapshot, so monitoring blocks a
+ * recording thread at most while its stripe is copied. If the counter has not been
+ * {@link LatencyCounter#start() started}, the throughput is calculated from
+ * the creation of the monitor.<br>
+ * <br>
+ * Created: 18.10.2026 16:49:51
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class LatencyCounterMonitor implements LatencyCounterMXBean {
+
+    public static final double[] DEFAULT_PERCENTILES = { 50, 90, 95, 99, 99.9 };
+
+    private final LatencyCounter counter;
+    private final double[] percentiles;
+    private final long creationTime;
+
+    public LatencyCounterMonitor(LatencyCounter counter) {
+        this(counter, DEFAULT_PERCENTILES);
+    }
+
+    public LatencyCounterMonitor(LatencyCounter counter, double[] percentiles) {
+        this.counter = counter;
+        this.percentiles = percentiles;
+        this.creationTime = System.currentTimeMillis();
+    }
+
+    @Override
+    public String getName() {
+        return counter.getName();
+    }
+
+    @Override
+    public String getTimeUnit() {
+        return counter.getTimeUnit().name();
+    }
+
+    @Override
+    public long getSampleCount() {
+        return counter.sampleCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return counter.errorCount();
+    }
+
+    @Override
+    public double getThroughput() {
+        long startTime = (counter.getStartTime() != -1 ? counter.getStartTime()
+                : creationTime);
+        long endTime = (counter.isRunning() || counter.getEndTime() == -1 ? System
+                .currentTimeMillis() : counter.getEndTime());
+        long duration = endTime - startTime;
+        return (duration > 0 ? 1000. * counter.sampleCount() / duration : 0);
+    }
+
+    @Override
+    public double getAverageLatency() {
+        Histogram histogram = counter.getHistogram();
+        long count = histogram.getTotalCount();
+        return (count > 0 ? (double) histogram.getTotalValue() / count : 0);
+    }
+
+    @Override
+    public long getMaxLatency() {
+        return counter.maxLatency();
+    }
+
+    @Override
+    public Map<String, Long> getPercentiles() {
+        Histogram histogram = counter.getHistogram();
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (double percentile : percentiles) {
+            result.put(ContiPerfUtil.formatPercentage(percentile),
+                    histogram.getTotalCount() > 0 ? histogram.valueAtPercentile(percentile) : 0);
+        }
+        return result;
+    }
+
+}
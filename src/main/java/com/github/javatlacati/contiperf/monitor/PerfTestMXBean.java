@@ -0,0 +1,55 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.monitor;
+
+import com.github.javatlacati.contiperf.PerformanceTracker;
+
+/**
+ * Management interface of a running performance test, which adds the test
+ * setup and progress to the statistics of its main counter and allows for
+ * aborting a test early.<br>
+ * <br>
+ * Created: 18.10.2026 16:49:51
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ * @see PerformanceTracker
+ */
+public interface PerfTestMXBean extends LatencyCounterMXBean {
+
+    int getThreads();
+
+    /** Returns the milliseconds since tracking started. */
+    long getElapsedTime();
+
+    /** Returns the number of completed invocations, including failed ones. */
+    long getInvocations();
+
+    double getErrorRate();
+
+    /**
+     * Makes the test fail with the next invocation of each of its threads.
+     */
+    void abort();
+
+}
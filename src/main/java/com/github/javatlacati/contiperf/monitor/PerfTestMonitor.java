@@ -0,0 +1,101 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.monitor;
+
+import com.github.javatlacati.contiperf.PercentileRequirement;
+import com.github.javatlacati.contiperf.PerformanceRequirement;
+import com.github.javatlacati.contiperf.PerformanceTracker;
+import com.github.javatlacati.stat.LatencyCounter;
+
+/**
+ * {@link PerfTestMXBean} implementation which monitors a
+ * {@link PerformanceTracker} and its main counter. It exposes the
+ * percentiles of the test's requirements, or the
+ * {@link LatencyCounterMonitor#DEFAULT_PERCENTILES default percentiles} if
+ * the test has no percentile requirements.<br>
+ * <br>
+ * Created: 18.10.2026 16:49:51
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class PerfTestMonitor extends LatencyCounterMonitor implements PerfTestMXBean {
+
+    private final PerformanceTracker tracker;
+
+    public PerfTestMonitor(PerformanceTracker tracker) {
+        super(tracker.getCounters()[0], percentiles(tracker.getRequirement()));
+        this.tracker = tracker;
+    }
+
+    @Override
+    public int getThreads() {
+        return tracker.getThreads();
+    }
+
+    @Override
+    public long getElapsedTime() {
+        LatencyCounter counter = counter();
+        long endTime = (counter.isRunning() ? System.currentTimeMillis()
+                : counter.getEndTime());
+        return endTime - counter.getStartTime();
+    }
+
+    @Override
+    public long getInvocations() {
+        return counter().totalInvocations();
+    }
+
+    @Override
+    public double getErrorRate() {
+        long invocations = getInvocations();
+        return (invocations > 0 ? (double) getErrorCount() / invocations : 0);
+    }
+
+    @Override
+    public void abort() {
+        tracker.abort();
+    }
+
+    // helpers
+    // ---------------------------------------------------------------------------------------------------------
+
+    private LatencyCounter counter() {
+        return tracker.getCounters()[0];
+    }
+
+    private static double[] percentiles(PerformanceRequirement requirement) {
+        if (requirement == null
+                || requirement.getPercentileRequirements().length == 0) {
+            return DEFAULT_PERCENTILES;
+        }
+        PercentileRequirement[] requirements = requirement
+                .getPercentileRequirements();
+        double[] result = new double[requirements.length];
+        for (int i = 0; i < requirements.length; i++) {
+            result[i] = requirements[i].getPercentage();
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,309 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.monitor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.github.javatlacati.contiperf.PerformanceTracker;
+import com.github.javatlacati.stat.CounterKey;
+import com.github.javatlacati.stat.CounterRepository;
+import com.github.javatlacati.stat.Histogram;
+import com.github.javatlacati.stat.LatencyCounter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP endpoint which serves the counters of a
+ * {@link CounterRepository} and of the {@link PerformanceTracker#activeTrackers()
+ * running performance tests} in the Prometheus text exposition format at
+ * <code>/metrics</code>. Each counter is rendered as a histogram in seconds
+ * labeled with the counter name and its {@link CounterKey tags}. The histogram
+ * has a fixed set of bucket boundaries, {@link #DEFAULT_BUCKETS} unless
+ * configured otherwise, which are all exposed by every scrape, so that
+ * <code>rate()</code> and <code>histogram_quantile()</code> work across
+ * scrapes. The cumulative count of a boundary is taken from the counter's
+ * {@link Histogram} at the histogram's precision. Tag keys which are not
+ * valid label names are sanitized, and suffixed if they collide. Rendering
+ * works on merged snapshots. The thread count is only exposed for closed
+ * model tests, since an open model test's load is determined by its rate.
+ * 
+ * <pre>
+ * PrometheusEndpoint endpoint = new PrometheusEndpoint(9404);
+ * endpoint.start();
+ * ...
+ * endpoint.stop();
+ * </pre>
+ * 
+ * <br>
+ * Created: 18.10.2026 16:53:46
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class PrometheusEndpoint {
+
+    public static final String PATH = "/metrics";
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String LATENCY = "contiperf_latency_seconds";
+    private static final String ERRORS = "contiperf_errors_total";
+    private static final String TEST_LATENCY = "contiperf_test_latency_seconds";
+    private static final String TEST_ERRORS = "contiperf_test_errors_total";
+    private static final String TEST_THREADS = "contiperf_test_threads";
+    private static final String TEST_ELAPSED = "contiperf_test_elapsed_seconds";
+
+    /** The default bucket boundaries in seconds, from 100 microseconds to 10 seconds. */
+    public static final double[] DEFAULT_BUCKETS = { 0.0001, 0.00025, 0.0005,
+            0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+
+    private final InetSocketAddress address;
+    private final CounterRepository repository;
+    private final double[] buckets;
+    private final String[] bucketLabels;
+    private HttpServer server;
+
+    public PrometheusEndpoint(int port) {
+        this(new InetSocketAddress(port), CounterRepository.getInstance());
+    }
+
+    public PrometheusEndpoint(InetSocketAddress address,
+            CounterRepository repository) {
+        this(address, repository, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * @param buckets the upper bounds of the histogram buckets in seconds, in
+     *            ascending order
+     */
+    public PrometheusEndpoint(InetSocketAddress address,
+            CounterRepository repository, double... buckets) {
+        for (int i = 1; i < buckets.length; i++) {
+            if (buckets[i] <= buckets[i - 1]) {
+                throw new IllegalArgumentException(
+                        "Bucket boundaries must be ascending: " + Arrays.toString(buckets));
+            }
+        }
+        this.address = address;
+        this.repository = repository;
+        this.buckets = buckets.clone();
+        this.bucketLabels = new String[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            bucketLabels[i] = ",le=\"" + BigDecimal.valueOf(buckets[i])
+                    .stripTrailingZeros().toPlainString() + "\"";
+        }
+    }
+
+    /** Returns the port the endpoint listens to, which is useful with port 0. */
+    public int getPort() {
+        return (server != null ? server.getAddress().getPort() : address.getPort());
+    }
+
+    // interface
+    // -------------------------------------------------------------------------------------------------------
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException(this + " has already been started");
+        }
+        server = HttpServer.create(address, 0);
+        server.createContext(PATH, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] body = render().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream out = exchange.getResponseBody();
+                try {
+                    out.write(body);
+                } finally {
+                    out.close();
+                }
+            }
+        });
+        server.start();
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    /** Renders all metrics in the Prometheus text format. */
+    public String render() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP ").append(LATENCY)
+                .append(" Latency of successful invocations.\n");
+        out.append("# TYPE ").append(LATENCY).append(" histogram\n");
+        for (Map.Entry<String, LatencyCounter> entry : repository.getCounters()) {
+            LatencyCounter counter = entry.getValue();
+            appendHistogram(LATENCY, counterLabels(counter.getKey()), counter, out);
+        }
+        out.append("# HELP ").append(ERRORS).append(" Number of failed invocations.\n");
+        out.append("# TYPE ").append(ERRORS).append(" counter\n");
+        for (Map.Entry<String, LatencyCounter> entry : repository.getCounters()) {
+            LatencyCounter counter = entry.getValue();
+            appendSample(ERRORS, counterLabels(counter.getKey()),
+                    String.valueOf(counter.errorCount()), out);
+        }
+        appendTests(out);
+        return out.toString();
+    }
+
+    // helpers
+    // ---------------------------------------------------------------------------------------------------------
+
+    private void appendTests(StringBuilder out) {
+        out.append("# HELP ").append(TEST_LATENCY)
+                .append(" Latency of successful invocations of running tests.\n");
+        out.append("# TYPE ").append(TEST_LATENCY).append(" histogram\n");
+        StringBuilder errors = new StringBuilder();
+        StringBuilder threads = new StringBuilder();
+        StringBuilder elapsed = new StringBuilder();
+        for (PerformanceTracker tracker : PerformanceTracker.activeTrackers()) {
+            LatencyCounter[] counters = tracker.getCounters();
+            if (counters == null) {
+                continue;
+            }
+            LatencyCounter counter = counters[0];
+            String labels = "test=\"" + escape(tracker.getId()) + "\"";
+            appendHistogram(TEST_LATENCY, labels, counter, out);
+            appendSample(TEST_ERRORS, labels, String.valueOf(counter.errorCount()), errors);
+            if (!tracker.getExecutionConfig().isOpenModel()) {
+                appendSample(TEST_THREADS, labels, String.valueOf(tracker.getThreads()), threads);
+            }
+            long endTime = (counter.isRunning() ? System.currentTimeMillis()
+                    : counter.getEndTime());
+            appendSample(TEST_ELAPSED, labels,
+                    String.valueOf((endTime - counter.getStartTime()) / 1000.), elapsed);
+        }
+        out.append("# HELP ").append(TEST_ERRORS)
+                .append(" Number of failed invocations of running tests.\n");
+        out.append("# TYPE ").append(TEST_ERRORS).append(" counter\n");
+        out.append(errors);
+        out.append("# HELP ").append(TEST_THREADS)
+                .append(" Number of threads of running closed model tests.\n");
+        out.append("# TYPE ").append(TEST_THREADS).append(" gauge\n");
+        out.append(threads);
+        out.append("# HELP ").append(TEST_ELAPSED)
+                .append(" Time since running tests started tracking.\n");
+        out.append("# TYPE ").append(TEST_ELAPSED).append(" gauge\n");
+        out.append(elapsed);
+    }
+
+    private void appendHistogram(String metric, String labels,
+            LatencyCounter counter, StringBuilder out) {
+        Histogram histogram = counter.getHistogram();
+        double unitsPerSecond = unitsPerSecond(counter.getTimeUnit());
+        long count = histogram.getTotalCount();
+        int bucket = (count > 0 ? histogram.bucketIndex(histogram.getMinValue()) : 0);
+        int maxBucket = (count > 0 ? histogram.bucketIndex(histogram.getMaxValue()) : -1);
+        long cumulated = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            // the epsilon compensates rounding errors like 0.29 * 100 = 28.999...
+            long limit = (long) Math.floor(buckets[i] * unitsPerSecond + 1e-6);
+            // samples in the histogram bucket of the limit count as not exceeding it
+            int limitBucket = (limit >= 0 ? histogram.bucketIndex(limit) : -1);
+            while (bucket <= maxBucket && bucket <= limitBucket) {
+                cumulated += histogram.bucketSamples(bucket++);
+            }
+            appendSample(metric + "_bucket", labels + bucketLabels[i],
+                    String.valueOf(cumulated), out);
+        }
+        appendSample(metric + "_bucket", labels + ",le=\"+Inf\"",
+                String.valueOf(count), out);
+        appendSample(metric + "_sum", labels,
+                String.valueOf(histogram.getTotalValue() / unitsPerSecond), out);
+        appendSample(metric + "_count", labels, String.valueOf(count), out);
+    }
+
+    private static void appendSample(String metric, String labels,
+            String value, StringBuilder out) {
+        out.append(metric).append('{').append(labels).append("} ")
+                .append(value).append('\n');
+    }
+
+    static String counterLabels(CounterKey key) {
+        StringBuilder labels = new StringBuilder("counter=\"")
+                .append(escape(key.getName())).append('"');
+        Set<String> used = new HashSet<>();
+        for (Map.Entry<String, String> tag : key.getTags().entrySet()) {
+            String name = labelName(tag.getKey());
+            // tag keys like a-b and a_b sanitize to the same label name
+            String unique = name;
+            for (int i = 2; !used.add(unique); i++) {
+                unique = name + "_" + i;
+            }
+            labels.append(',').append(unique).append("=\"")
+                    .append(escape(tag.getValue())).append('"');
+        }
+        return labels.toString();
+    }
+
+    /** Replaces characters which are not allowed in label names. */
+    static String labelName(String tagKey) {
+        StringBuilder builder = new StringBuilder(tagKey.length());
+        for (int i = 0; i < tagKey.length(); i++) {
+            char c = tagKey.charAt(i);
+            boolean legal = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || c == '_' || (i > 0 && c >= '0' && c <= '9');
+            builder.append(legal ? c : '_');
+        }
+        String result = builder.toString();
+        // label names starting with __ are reserved, so are le and counter
+        if (result.startsWith("__") || "le".equals(result)
+                || "counter".equals(result)) {
+            result = "tag_" + result;
+        }
+        return result;
+    }
+
+    static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"")
+                .replace("\n", "\\n");
+    }
+
+    private static double unitsPerSecond(TimeUnit unit) {
+        return 1e9 / unit.toNanos(1);
+    }
+
+    // java.lang.Object overrides
+    // --------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + address + "]";
+    }
+
+}
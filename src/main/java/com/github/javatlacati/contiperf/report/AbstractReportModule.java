@@ -24,6 +24,7 @@ package com.github.javatlacati.contiperf.report;
 
 import com.github.javatlacati.contiperf.ExecutionConfig;
 import com.github.javatlacati.contiperf.PerformanceRequirement;
+import com.github.javatlacati.stat.IntervalSnapshot;
 import com.github.javatlacati.stat.LatencyCounter;
 
 /**
@@ -56,10 +57,27 @@ public abstract class AbstractReportModule implements ReportModule {
 	// ignored
     }
 
+    /**
+     * implements backwards-compatibility of inheritors of older versions of
+     * this class which only implement the int variant of this method
+     */
+    public void invoked(String serviceId, long latency, long startTime) {
+	invoked(serviceId, (int) Math.min(latency, Integer.MAX_VALUE), startTime);
+    }
+
+    /**
+     * Implements a method which has been replaced in the interface by a
+     * variant with long latency, but may be implemented by children of this
+     * class, probably using the Override annotation.
+     */
     public void invoked(String serviceId, int latency, long startTime) {
 	// ignored
     }
 
+    public void intervalCompleted(String serviceId, IntervalSnapshot[] snapshots) {
+	// ignored
+    }
+
     public void error(String serviceId) {
 	// ignored
     }
@@ -69,7 +87,7 @@ public abstract class AbstractReportModule implements ReportModule {
      * this class
      */
     public void completed(String serviceId, LatencyCounter[] counters,
-                          ExecutionConfig executionConfig, PerformanceRequirement requirement) {
+			  ExecutionConfig executionConfig, PerformanceRequirement requirement) {
 	completed(serviceId, counters, requirement);
     }
 
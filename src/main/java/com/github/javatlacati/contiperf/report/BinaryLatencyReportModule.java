@@ -0,0 +1,84 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.report;
+
+import com.github.javatlacati.contiperf.ExecutionConfig;
+import com.github.javatlacati.contiperf.PerformanceRequirement;
+import com.github.javatlacati.stat.LatencyCounter;
+import com.github.javatlacati.stat.LatencyCounterCodec;
+import com.github.javatlacati.stat.LatencyCounterMerger;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link ReportModule} which saves the {@link LatencyCounter}s of each test in
+ * the binary format of the {@link LatencyCounterCodec}. The files are a
+ * compact alternative to invocation CSV files and can be combined across runs
+ * and machines using the {@link LatencyCounterMerger}.<br>
+ * <br>
+ * Created: 18.10.2026 16:30:00
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public class BinaryLatencyReportModule extends AbstractReportModule {
+
+    // ReportModule interface implementation
+    // ---------------------------------------------------------------------------
+
+    @Override
+    public String getReportReferenceLabel(String serviceId) {
+        return serviceId == null ? null : "Latency counters (binary)";
+    }
+
+    @Override
+    public String getReportReference(String serviceId) {
+        return serviceId == null ? null : filename(serviceId);
+    }
+
+    @Override
+    public void completed(String serviceId, LatencyCounter[] counters,
+                          ExecutionConfig executionConfig, PerformanceRequirement requirement) {
+        File file = new File(context.getReportFolder(), filename(serviceId));
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            LatencyCounterCodec.writeHeader(out);
+            for (LatencyCounter counter : counters) {
+                LatencyCounterCodec.write(counter, out);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing " + file, e);
+        }
+    }
+
+    // helper methods
+    // --------------------------------------------------------------------------------------------------
+
+    private String filename(String serviceId) {
+        return serviceId + ".lcb";
+    }
+
+}
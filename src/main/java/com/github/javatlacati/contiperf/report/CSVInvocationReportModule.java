@@ -64,7 +64,7 @@ public class CSVInvocationReportModule extends AbstractReportModule {
     }
 
     @Override
-    public synchronized void invoked(String serviceId, int latency, long startTime) {
+    public synchronized void invoked(String serviceId, long latency, long startTime) {
         out.print(latency);
         out.print(DELIMITER);
         out.println(startTime);
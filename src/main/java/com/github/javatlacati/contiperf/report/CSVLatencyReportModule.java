@@ -24,6 +24,7 @@ package com.github.javatlacati.contiperf.report;
 
 import com.github.javatlacati.contiperf.ExecutionConfig;
 import com.github.javatlacati.contiperf.PerformanceRequirement;
+import com.github.javatlacati.stat.Histogram;
 import com.github.javatlacati.stat.LatencyCounter;
 
 import java.io.BufferedOutputStream;
@@ -35,7 +36,8 @@ import java.io.OutputStream;
 
 /**
  * {@link ReportModule} which creates a CSV file that reports how often (2nd
- * column) which latency (1st column) was measured.<br>
+ * column) which latency (1st column) was measured. Each line represents one
+ * {@link Histogram} bucket, starting at the latency in the first column.<br>
  * <br>
  * Created: 16.01.2011 19:22:23
  *
@@ -103,10 +105,14 @@ public class CSVLatencyReportModule extends AbstractReportModule {
 
     private void writeStats(String serviceId, LatencyCounter[] counters) {
         try {
-            LatencyCounter counter = counters[0];
-            for (long i = counter.minLatency(); i <= counter.maxLatency(); i++) {
-                String line = i + "," + counter.getLatencyCount(i)
-                        + LINE_SEPARATOR;
+            Histogram histogram = counters[0].getHistogram();
+            if (histogram.getTotalCount() == 0) {
+                return;
+            }
+            int maxBucket = histogram.bucketIndex(histogram.getMaxValue());
+            for (int bucket = histogram.bucketIndex(histogram.getMinValue()); bucket <= maxBucket; bucket++) {
+                String line = histogram.bucketValue(bucket) + ","
+                        + histogram.bucketSamples(bucket) + LINE_SEPARATOR;
                 out.write(line.getBytes());
             }
         } catch (IOException e) {
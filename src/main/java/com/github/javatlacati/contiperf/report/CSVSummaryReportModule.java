@@ -25,6 +25,7 @@ package com.github.javatlacati.contiperf.report;
 import com.github.javatlacati.contiperf.ExecutionConfig;
 import com.github.javatlacati.contiperf.PerformanceRequirement;
 import com.github.javatlacati.contiperf.util.ContiPerfUtil;
+import com.github.javatlacati.stat.ConfidenceInterval;
 import com.github.javatlacati.stat.LatencyCounter;
 
 import java.io.File;
@@ -103,7 +104,7 @@ public class CSVSummaryReportModule extends AbstractReportModule {
         OutputStream out = null;
         try {
             out = new FileOutputStream(file, true);
-            String line = "serviceId,startTime,duration,invocations,min,average,median,90%,95%,99%,max"
+            String line = "serviceId,startTime,duration,invocations,min,average,median,90%,95%,99%,max,unit,correctedAverage,corrected90%,corrected99%,stdDev,averageLow95%,averageHigh95%,throughputLow95%,throughputHigh95%"
                     + LINE_SEPARATOR;
             out.write(line.getBytes());
         } catch (IOException e) {
@@ -123,7 +124,7 @@ public class CSVSummaryReportModule extends AbstractReportModule {
             LatencyCounter mainCounter = counters[0];
             String avg = decForm.format(mainCounter.averageLatency());
             String message = new StringBuilder()
-                    .append(serviceId).append(SEPARATOR)
+                    .append(ContiPerfUtil.csvText(serviceId)).append(SEPARATOR)
                     .append(mainCounter.getStartTime()).append(SEPARATOR)
                     .append(mainCounter.duration()).append(SEPARATOR)
                     .append(mainCounter.sampleCount()).append(SEPARATOR)
@@ -133,7 +134,10 @@ public class CSVSummaryReportModule extends AbstractReportModule {
                     .append(mainCounter.percentileLatency(90)).append(SEPARATOR)
                     .append(mainCounter.percentileLatency(95)).append(SEPARATOR)
                     .append(mainCounter.percentileLatency(99)).append(SEPARATOR)
-                    .append(mainCounter.maxLatency()).append(LINE_SEPARATOR)
+                    .append(mainCounter.maxLatency()).append(SEPARATOR)
+                    .append(mainCounter.getTimeUnit()).append(SEPARATOR)
+                    .append(correctedStats(mainCounter, decForm)).append(SEPARATOR)
+                    .append(confidenceStats(mainCounter, decForm)).append(LINE_SEPARATOR)
                     .toString();
             out.write(message.getBytes());
         } catch (IOException e) {
@@ -143,6 +147,27 @@ public class CSVSummaryReportModule extends AbstractReportModule {
         }
     }
 
+    private String correctedStats(LatencyCounter counter, DecimalFormat decForm) {
+        if (!counter.isCorrected()) {
+            return String.valueOf(SEPARATOR) + SEPARATOR;
+        }
+        return decForm.format(counter.correctedAverageLatency()) + SEPARATOR
+                + counter.correctedPercentileLatency(90) + SEPARATOR
+                + counter.correctedPercentileLatency(99);
+    }
+
+    private String confidenceStats(LatencyCounter counter, DecimalFormat decForm) {
+        ConfidenceInterval average = counter
+                .averageConfidenceInterval(ConfidenceInterval.DEFAULT_LEVEL);
+        ConfidenceInterval throughput = counter
+                .throughputConfidenceInterval(ConfidenceInterval.DEFAULT_LEVEL);
+        return decForm.format(counter.standardDeviation()) + SEPARATOR
+                + decForm.format(average.getLower()) + SEPARATOR
+                + decForm.format(average.getUpper()) + SEPARATOR
+                + decForm.format(throughput.getLower()) + SEPARATOR
+                + decForm.format(throughput.getUpper());
+    }
+
     private String filename() {
         return "summary.csv";
     }
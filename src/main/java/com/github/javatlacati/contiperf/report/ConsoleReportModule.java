@@ -38,13 +38,13 @@ import com.github.javatlacati.stat.LatencyCounter;
 public class ConsoleReportModule extends AbstractReportModule {
 
     @Override
-    public void invoked(String serviceId, int latency, long startTime) {
+    public void invoked(String serviceId, long latency, long startTime) {
 	System.out.println(serviceId + ',' + latency + ',' + startTime);
     }
 
     @Override
     public void completed(String serviceId, LatencyCounter[] counters,
-                          ExecutionConfig executionConfig, PerformanceRequirement requirement) {
+			  ExecutionConfig executionConfig, PerformanceRequirement requirement) {
 	System.out.println(serviceId + ',' + counters[0].duration() + ','
 		+ counters[0].sampleCount() + ',' + counters[0].getStartTime());
     }
@@ -0,0 +1,137 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.report;
+
+import com.github.javatlacati.profile.Profile;
+import com.github.javatlacati.profile.Profiler;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Renders a {@link Profile} tree as a flame graph in an inline SVG element,
+ * which needs no network access for display. Each profile is drawn as a box
+ * on top of its parent with a width proportional to its total latency, so the
+ * part of a box which is not covered by boxes above it shows its self time.
+ * Hovering a box displays its latencies.<br>
+ * <br>
+ * Created: 18.10.2026 16:59:41
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public class FlameGraphRenderer {
+
+    private static final int FRAME_HEIGHT = 16;
+    private static final double CHAR_WIDTH = 6.5;
+
+    public String render(Profile root, int width) {
+        int height = (depth(root) + 1) * FRAME_HEIGHT;
+        long total = Math.max(root.getTotalLatency(), root.getChildTime());
+        StringBuilder builder = new StringBuilder();
+        builder.append("<svg xmlns='http://www.w3.org/2000/svg' width='")
+                .append(width).append("' height='").append(height)
+                .append("' style='font-family:Verdana; font-size:10px'>\n");
+        if (total > 0) {
+            double scale = (double) width / total;
+            renderFrame(root, total, 0, 0, height, scale, builder);
+        }
+        builder.append("</svg>");
+        return builder.toString();
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static void renderFrame(Profile profile, long total, double x,
+                                    int level, int height, double scale,
+                                    StringBuilder builder) {
+        double width = profile.getTotalLatency() * scale;
+        if (width < 0.1) {
+            return;
+        }
+        int y = height - (level + 1) * FRAME_HEIGHT;
+        String unit = " " + profile.getCounter().getUnitSymbol();
+        builder.append("<g><title>").append(escape(profile.getName()))
+                .append(" (total: ").append(profile.getTotalLatency()).append(unit)
+                .append(", ").append(percent(profile.getTotalLatency(), total))
+                .append(", self: ").append(profile.getSelfTime()).append(unit)
+                .append(", ").append(profile.getInvocationCount())
+                .append(" inv.)</title>");
+        builder.append("<rect x='").append(format(x)).append("' y='").append(y)
+                .append("' width='").append(format(width)).append("' height='")
+                .append(FRAME_HEIGHT - 1).append("' fill='")
+                .append(color(profile.getName())).append("' rx='2'/>");
+        int chars = (int) ((width - 6) / CHAR_WIDTH);
+        if (chars >= 3) {
+            builder.append("<text x='").append(format(x + 3)).append("' y='")
+                    .append(y + FRAME_HEIGHT - 4).append("'>")
+                    .append(escape(abbreviate(profile.getName(), chars)))
+                    .append("</text>");
+        }
+        builder.append("</g>\n");
+        double childX = x;
+        for (Profile subProfile : Profiler.sortedSubProfiles(profile)) {
+            renderFrame(subProfile, total, childX, level + 1, height, scale, builder);
+            childX += subProfile.getTotalLatency() * scale;
+        }
+    }
+
+    private static int depth(Profile profile) {
+        int result = 0;
+        for (Profile subProfile : profile.getSubProfiles()) {
+            result = Math.max(result, depth(subProfile) + 1);
+        }
+        return result;
+    }
+
+    /** Derives a warm color from the name, so that a profile keeps its color across reports. */
+    static String color(String name) {
+        int hash = name.hashCode() & 0x7fffffff;
+        int red = 205 + hash % 50;
+        int green = 80 + (hash / 50) % 150;
+        int blue = (hash / 7500) % 55;
+        return "rgb(" + red + "," + green + "," + blue + ")";
+    }
+
+    private static String abbreviate(String text, int chars) {
+        return (text.length() <= chars ? text : text.substring(0, chars - 2) + "..");
+    }
+
+    private static String percent(long value, long total) {
+        return new DecimalFormat("0.0", DecimalFormatSymbols.getInstance(Locale.US))
+                .format(value * 100. / total) + "%";
+    }
+
+    private static String format(double value) {
+        return new DecimalFormat("0.##", DecimalFormatSymbols.getInstance(Locale.US))
+                .format(value);
+    }
+
+    static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;")
+                .replace(">", "&gt;").replace("'", "&apos;");
+    }
+
+}
@@ -23,14 +23,19 @@
 package com.github.javatlacati.contiperf.report;
 
 import com.github.javatlacati.contiperf.report.LatencyDataSet.LabelInfo;
+import com.github.javatlacati.stat.Histogram;
 import com.github.javatlacati.stat.LatencyCounter;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
 
 /**
  * Formats the latency distribution of a {@link LatencyCounter} using the Google
- * charts API.<br>
+ * charts API. Since the buckets of a {@link Histogram} may differ in width, the
+ * chart shows the number of samples per unit of latency.<br>
  * <br>
  * Created: 14.01.2011 11:54:18
  *
@@ -41,15 +46,20 @@ public class GoogleLatencyRenderer {
 
     public String render(LatencyCounter counter, String title, int width,
                          int height) {
-        LatencyDataSet dataset = new LatencyDataSet((int) (counter.maxLatency()
-                - counter.minLatency() + 3));
-        for (int i = (int) counter.minLatency(); i <= counter.maxLatency(); i++) {
-            dataset.addPoint(i, (int) counter.getLatencyCount(i));
+        Histogram histogram = counter.getHistogram();
+        int minBucket = histogram.bucketIndex(counter.minLatency());
+        int maxBucket = histogram.bucketIndex(counter.maxLatency());
+        LatencyDataSet dataset = new LatencyDataSet(maxBucket - minBucket + 3);
+        for (int bucket = minBucket; bucket <= maxBucket; bucket++) {
+            long lowerBound = histogram.bucketValue(bucket);
+            long bucketWidth = Math.max(histogram.bucketValue(bucket + 1) - lowerBound, 1);
+            dataset.addPoint(lowerBound,
+                    (double) histogram.bucketSamples(bucket) / bucketWidth);
         }
         dataset = dataset.reduce(50);
-        dataset.addLabel("avg", (int) counter.averageLatency());
-        dataset.addLabel("med", (int) counter.percentileLatency(50));
-        dataset.addLabel("90%", (int) counter.percentileLatency(90));
+        dataset.addLabel("avg", Math.round(counter.averageLatency()));
+        dataset.addLabel("med", counter.percentileLatency(50));
+        dataset.addLabel("90%", counter.percentileLatency(90));
         return renderDataset(dataset, title, width, height);
     }
 
@@ -109,11 +119,13 @@ public class GoogleLatencyRenderer {
             builder.append(dataset.getX(i));
         }
         builder.append('|');
+        DecimalFormat yFormat = new DecimalFormat("0.#",
+                DecimalFormatSymbols.getInstance(Locale.US));
         for (int i = 0; i < dataset.pointCount(); i++) {
             if (i > 0) {
                 builder.append(',');
             }
-            builder.append(dataset.getY(i));
+            builder.append(yFormat.format(dataset.getY(i)));
         }
     }
 
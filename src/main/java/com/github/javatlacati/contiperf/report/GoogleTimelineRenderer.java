@@ -0,0 +1,105 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.report;
+
+import com.github.javatlacati.stat.IntervalSnapshot;
+import com.github.javatlacati.stat.LatencyCounter;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.List;
+
+/**
+ * Formats the {@link IntervalSnapshot}s of a {@link LatencyCounter} as a
+ * timeline of throughput, median and 99% latency using the Google charts
+ * API. Latencies are scaled on the left axis, throughput on the right one.<br>
+ * <br>
+ * Created: 18.10.2026 16:26:44
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public class GoogleTimelineRenderer {
+
+    public String render(LatencyCounter counter, String title, int width,
+                         int height) {
+        List<IntervalSnapshot> intervals = counter.getIntervals();
+        int count = intervals.size();
+        long[] throughput = new long[count];
+        long[] median = new long[count];
+        long[] percentile99 = new long[count];
+        long maxThroughput = 1;
+        long maxLatency = 1;
+        for (int i = 0; i < count; i++) {
+            IntervalSnapshot interval = intervals.get(i);
+            throughput[i] = (long) interval.throughput();
+            median[i] = interval.percentileLatency(50);
+            percentile99[i] = interval.percentileLatency(99);
+            maxThroughput = Math.max(maxThroughput, throughput[i]);
+            maxLatency = Math.max(maxLatency, percentile99[i]);
+        }
+        long seconds = (count > 0
+                ? (intervals.get(count - 1).getEndTime() - counter.getStartTime()) / 1000 : 0);
+        try {
+            String unit = URLEncoder.encode(" (" + counter.getUnitSymbol() + ")", "UTF-8");
+            StringBuilder builder = new StringBuilder(
+                    "https://chart.apis.google.com/chart?cht=lc") // line chart
+                    .append("&chs=").append(width).append('x').append(height); // image size
+            builder.append("&chd=t:"); // data definition
+            appendSeries(throughput, builder);
+            builder.append('|');
+            appendSeries(median, builder);
+            builder.append('|');
+            appendSeries(percentile99, builder);
+            builder.append("&chds=0,").append(maxThroughput) // data scale per series
+                    .append(",0,").append(maxLatency)
+                    .append(",0,").append(maxLatency);
+            builder.append("&chco=3366CC,FF9900,DC3912"); // series colors
+            builder.append("&chdl=throughput").append(URLEncoder.encode(" (/ s)", "UTF-8"))
+                    .append("|median").append(unit)
+                    .append("|99").append(URLEncoder.encode("%", "UTF-8")).append(unit)
+                    .append("&chdlp=b"); // legend at the bottom
+            builder.append("&chxt=x,y,r") // time, latency and throughput axes
+                    .append("&chxr=0,0,").append(seconds)
+                    .append("|1,0,").append(maxLatency)
+                    .append("|2,0,").append(maxThroughput);
+            builder.append("&chf=c,lg,0,FFFFFF,0,FFFF88,1");
+            if (title != null) {
+                builder.append("&chtt=").append(URLEncoder.encode(title, "UTF-8")); // title
+            }
+            return builder.toString();
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException("Error encoding title: " + title, e);
+        }
+    }
+
+    private void appendSeries(long[] values, StringBuilder builder) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(values[i]);
+        }
+    }
+
+}
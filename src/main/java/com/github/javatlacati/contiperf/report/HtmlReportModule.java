@@ -24,19 +24,33 @@ package com.github.javatlacati.contiperf.report;
 
 import com.github.javatlacati.contiperf.Config;
 import com.github.javatlacati.contiperf.ExecutionConfig;
+import com.github.javatlacati.contiperf.PerfTestExecutionError;
 import com.github.javatlacati.contiperf.PercentileRequirement;
 import com.github.javatlacati.contiperf.PerformanceRequirement;
+import com.github.javatlacati.contiperf.util.ContiPerfUtil;
+import com.github.javatlacati.profile.Profile;
+import com.github.javatlacati.profile.ProfileCodec;
+import com.github.javatlacati.profile.ProfileDiff;
+import com.github.javatlacati.profile.Profiler;
+import com.github.javatlacati.profile.Profiling;
+import com.github.javatlacati.stat.ConfidenceInterval;
 import com.github.javatlacati.stat.LatencyCounter;
 
 import java.io.*;
 import java.text.DateFormat;
 import java.text.DecimalFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * {@link ReportModule} implementation that creates an HTML report of the
  * performance tests, their requirements, measurements and latency distribution
- * chart.<br>
+ * chart. If {@link Profiling} is enabled, the profiles which the tested code
+ * entered are shown as a flame graph and saved to a file. If a
+ * {@link Config#profileBaselineFolder() baseline} report folder is configured,
+ * the changes from the baseline's profile are listed.<br>
  * <br>
  * Created: 14.01.2011 16:29:50
  *
@@ -50,6 +64,10 @@ public class HtmlReportModule extends AbstractReportModule {
     private static final int WIDTH = 320;
     private static final int HEIGHT = 240;
 
+    private static final String PROFILE_SUFFIX = ".profile";
+    private static final String PROFILE_DIFF_SUFFIX = ".profile-diff.txt";
+    private static final int MAX_PROFILE_DIFF_ROWS = 20;
+
     private static final String CPF_MARKER_1 = "<!-- !!__cpf-marker1__!! -->";
     private static final String CPF_MARKER_2 = "<!-- !!__cpf-marker2__!! -->";
 
@@ -231,8 +249,7 @@ public class HtmlReportModule extends AbstractReportModule {
                 + "</th><td align='center'>");
         switch (functionalTestVerdic) {
             case FAILURE:
-                out.print(format(counters[0].getAssertionErrors().get(0)
-                        .getMessage(), functionalTestVerdic));
+                out.print(format(errorMessage(counters[0]), functionalTestVerdic));
                 break;
             case IGNORED:
             case SUCCESS:
@@ -254,6 +271,9 @@ public class HtmlReportModule extends AbstractReportModule {
         out.println("</table>");
         out.println("<br>");
 
+        // render flame graph and profile changes
+        renderProfile(serviceId, out);
+
         // render ReportModule links
         boolean first = true;
         for (ReportModule module : context.getReportModules()) {
@@ -270,6 +290,20 @@ public class HtmlReportModule extends AbstractReportModule {
         out.println("<br><br><br>");
     }
 
+    private static String errorMessage(LatencyCounter counter) {
+        List<PerfTestExecutionError> samples = counter.getAssertionErrors();
+        if (samples.isEmpty()) {
+            return counter.errorCount() + " errors";
+        }
+        StringBuilder builder = new StringBuilder(String.valueOf(samples.get(0).getMessage()));
+        for (Map.Entry<String, Long> entry : counter.getErrorStatistics()
+                .getCountsByType().entrySet()) {
+            builder.append("<br>").append(entry.getKey()).append(": ")
+                    .append(entry.getValue());
+        }
+        return builder.toString();
+    }
+
     private static void appendRef(String ref, String label, PrintWriter out) {
         out.print("<a href='" + ref + "'>" + label + "</a>");
     }
@@ -280,6 +314,46 @@ public class HtmlReportModule extends AbstractReportModule {
                 WIDTH, HEIGHT);
         out.println("			<img src='" + chartUrl + "' width='" + WIDTH
                 + "', height='" + HEIGHT + "'/>");
+        if (!counter.getIntervals().isEmpty()) {
+            String timelineUrl = new GoogleTimelineRenderer().render(counter,
+                    null, WIDTH, HEIGHT);
+            out.println("			<br><img src='" + timelineUrl + "' width='" + WIDTH
+                    + "', height='" + HEIGHT + "'/>");
+        }
+    }
+
+    /**
+     * Renders the flame graph of the test's profile, saves the profile and
+     * compares it with the one of the baseline run if there is one.
+     */
+    private static void renderProfile(String id, PrintWriter out) {
+        if (!Profiling.isEnabled()) {
+            return;
+        }
+        Profile profile = Profiler.defaultInstance().getRootProfile().getSubProfile(id);
+        if (profile == null || profile.getSubProfiles().isEmpty()) {
+            return;
+        }
+        out.println("<h3 style='color:#EE6600'>Flame Graph</h3>");
+        out.println(new FlameGraphRenderer().render(profile, 800));
+        out.println("<br>");
+        File reportFolder = Config.instance().getReportFolder();
+        File baselineFolder = Config.instance().profileBaselineFolder();
+        try {
+            ProfileCodec.write(profile, new File(reportFolder, id + PROFILE_SUFFIX));
+            File baselineFile = (baselineFolder != null ? new File(baselineFolder, id + PROFILE_SUFFIX) : null);
+            if (baselineFile != null && baselineFile.exists()) {
+                ProfileDiff diff = ProfileDiff.compare(ProfileCodec.read(baselineFile), profile);
+                try (PrintWriter diffOut = new PrintWriter(new File(reportFolder, id + PROFILE_DIFF_SUFFIX))) {
+                    diff.writeText(diffOut, Integer.MAX_VALUE);
+                }
+                out.println("<h3 style='color:#EE6600'>Profile Changes</h3>");
+                out.println(new ProfileDiffRenderer().render(diff, MAX_PROFILE_DIFF_ROWS));
+                out.println("<br>");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     private static void printStats(String id, LatencyCounter[] counters,
@@ -307,6 +381,10 @@ public class HtmlReportModule extends AbstractReportModule {
             printStatLine("Thread Count:", executionConfig.getThreads(), null,
                     null, null, null, out);
         }
+        if (executionConfig.getRate() > 0) {
+            printStatLine("Target rate:", Math.round(executionConfig.getRate()),
+                    "/ s", null, null, null, out);
+        }
         if (executionConfig.getWarmUp() > 0) {
             printStatLine("Warm up:", executionConfig.getWarmUp(), "ms", null,
                     null, null, out);
@@ -326,11 +404,18 @@ public class HtmlReportModule extends AbstractReportModule {
             out.println("		<th>Measured<br>(" + counters[i].getClockName()
                     + ")</th>");
         }
+        if (counters[0].isCorrected()) {
+            out.println("		<th>Corrected<br>(" + counters[0].getClockName()
+                    + ")</th>");
+        }
         out.println("	</tr>");
         printDurationStats(counters, requirement, out);
         printThroughputStats(counters, requirement, out);
+        printThroughputConfidenceStats(counters, requirement, out);
         printMinStats(counters, requirement, out);
         printAverageStats(counters, requirement, out);
+        printStandardDeviationStats(counters, out);
+        printAverageConfidenceStats(counters, requirement, out);
         printPercentileStats(counters, requirement, out);
         printMaxStats(counters, requirement, out);
         out.println("			</table>");
@@ -348,7 +433,9 @@ public class HtmlReportModule extends AbstractReportModule {
                 secondaryValues[i - 1] = counters[i].duration();
             }
         }
-        printStatMsLine("Execution time:", counters[0].duration(), required,
+        secondaryValues = withCorrected(secondaryValues, counters[0],
+                counters[0].duration());
+        printStatLine("Execution time:", counters[0].duration(), "ms", required,
                 secondaryValues, verdict, out);
     }
 
@@ -366,6 +453,8 @@ public class HtmlReportModule extends AbstractReportModule {
                 secondaryValues[i - 1] = (long) counters[i].throughput();
             }
         }
+        secondaryValues = withCorrected(secondaryValues, counters[0],
+                (long) counters[0].throughput());
         printStatLine("Throughput:", (long) counters[0].throughput(), "/ s",
                 required, secondaryValues, verdict, out);
     }
@@ -380,15 +469,17 @@ public class HtmlReportModule extends AbstractReportModule {
                 secondaryValues[i - 1] = counters[i].minLatency();
             }
         }
-        printStatMsLine("Min. latency:", counters[0].minLatency(), null,
-                secondaryValues, Verdict.IGNORED, out);
+        secondaryValues = withCorrected(secondaryValues, counters[0],
+                counters[0].getCorrectedHistogram().getMinValue());
+        printLatencyLine("Min. latency:", counters[0].minLatency(), null,
+                secondaryValues, Verdict.IGNORED, counters[0], out);
     }
 
     private static void printAverageStats(LatencyCounter[] counters,
                                           PerformanceRequirement requirement, PrintWriter out) {
         Verdict verdict = ReportUtil.averageVerdict(counters[0], requirement);
-        Long required = requirement != null && requirement.getAverage() > 0 ? (long) requirement
-                .getAverage() : null;
+        Long required = requirement != null && requirement.getAverage() > 0 ? requirement
+                .convert(requirement.getAverage(), counters[0].getTimeUnit()) : null;
         long[] secondaryValues = null;
         int length = counters.length;
         if (length > 1) {
@@ -397,9 +488,66 @@ public class HtmlReportModule extends AbstractReportModule {
                 secondaryValues[i - 1] = (long) counters[i].averageLatency();
             }
         }
-        printStatMsLine("Average latency:",
+        secondaryValues = withCorrected(secondaryValues, counters[0],
+                (long) counters[0].correctedAverageLatency());
+        printLatencyLine("Average latency:",
                 (long) counters[0].averageLatency(), required, secondaryValues,
-                verdict, out);
+                verdict, counters[0], out);
+    }
+
+    private static void printStandardDeviationStats(LatencyCounter[] counters,
+                                                    PrintWriter out) {
+        long[] secondaryValues = null;
+        int length = counters.length;
+        if (length > 1) {
+            secondaryValues = new long[length - 1];
+            for (int i = 1; i < length; i++) {
+                secondaryValues[i - 1] = Math.round(counters[i].standardDeviation());
+            }
+        }
+        printLatencyLine("Std. deviation:",
+                Math.round(counters[0].standardDeviation()), null,
+                secondaryValues, Verdict.IGNORED, counters[0], out);
+    }
+
+    private static void printAverageConfidenceStats(LatencyCounter[] counters,
+                                                    PerformanceRequirement requirement, PrintWriter out) {
+        double level = confidenceLevel(requirement);
+        Verdict verdict = ReportUtil.averageMarginVerdict(counters[0], requirement);
+        String required = null;
+        if (requirement != null && requirement.getMaxAverageMargin() > 0) {
+            required = "&plusmn;" + ContiPerfUtil.formatPercentage(
+                    requirement.getMaxAverageMargin() * 100) + "%";
+        }
+        printRangeLine("Average " + ContiPerfUtil.formatPercentage(level * 100)
+                        + "% CI:", counters[0].averageConfidenceInterval(level),
+                unit(counters[0]), required, verdict, out);
+    }
+
+    private static void printThroughputConfidenceStats(LatencyCounter[] counters,
+                                                       PerformanceRequirement requirement, PrintWriter out) {
+        double level = confidenceLevel(requirement);
+        printRangeLine("Throughput " + ContiPerfUtil.formatPercentage(level * 100)
+                        + "% CI:", counters[0].throughputConfidenceInterval(level),
+                "/ s", null, Verdict.IGNORED, out);
+    }
+
+    private static double confidenceLevel(PerformanceRequirement requirement) {
+        return (requirement != null ? requirement.effectiveConfidenceLevel()
+                : ConfidenceInterval.DEFAULT_LEVEL);
+    }
+
+    private static void printRangeLine(String label, ConfidenceInterval interval,
+                                       String unit, String requirement, Verdict verdict, PrintWriter out) {
+        out.println("				<tr>");
+        out.println("					<th align='right' valign='top'>"
+                + format(label, verdict) + "</th>");
+        out.println("					<td align='right'>" + format(lf.format(interval.getLower())
+                + " - " + lf.format(interval.getUpper()) + ' ' + unit, verdict)
+                + "</td>");
+        out.println("					<td align='right'>"
+                + (requirement != null ? format(requirement, verdict) : "") + "</td>");
+        out.println("				</tr>");
     }
 
     private static void printPercentileStats(LatencyCounter[] counters,
@@ -413,16 +561,18 @@ public class HtmlReportModule extends AbstractReportModule {
                     .getPercentileRequirements()) {
                 printPercentileStats(counters,
                         percentileRequirement.getPercentage(),
-                        (long) percentileRequirement.getMillis(), out);
+                        requirement.convert(percentileRequirement.getMillis(),
+                                counters[0].getTimeUnit()), out);
             }
         }
     }
 
     private static void printPercentileStats(LatencyCounter[] counters,
-                                             int percentage, Long requiredMillis, PrintWriter out) {
-        String label = percentage == 50 ? "Median:" : percentage + "%:";
+                                             double percentage, Long requiredLatency, PrintWriter out) {
+        String label = percentage == 50 ? "Median:"
+                : ContiPerfUtil.formatPercentage(percentage) + "%:";
         Verdict verdict = ReportUtil.percentileVerdict(counters[0], percentage,
-                requiredMillis);
+                requiredLatency);
         long[] secondaryValues = null;
         int length = counters.length;
         if (length > 1) {
@@ -432,15 +582,17 @@ public class HtmlReportModule extends AbstractReportModule {
                         .percentileLatency(percentage);
             }
         }
-        printStatMsLine(label, counters[0].percentileLatency(percentage),
-                requiredMillis, secondaryValues, verdict, out);
+        secondaryValues = withCorrected(secondaryValues, counters[0],
+                counters[0].correctedPercentileLatency(percentage));
+        printLatencyLine(label, counters[0].percentileLatency(percentage),
+                requiredLatency, secondaryValues, verdict, counters[0], out);
     }
 
     private static void printMaxStats(LatencyCounter[] counters,
                                       PerformanceRequirement requirement, PrintWriter out) {
         Verdict verdict = ReportUtil.maxVerdict(counters[0], requirement);
-        Long required = requirement != null && requirement.getMax() > 0 ? (long) requirement
-                .getMax() : null;
+        Long required = requirement != null && requirement.getMax() > 0 ? requirement
+                .convert(requirement.getMax(), counters[0].getTimeUnit()) : null;
         long[] secondaryValues = null;
         int length = counters.length;
         if (length > 1) {
@@ -449,8 +601,10 @@ public class HtmlReportModule extends AbstractReportModule {
                 secondaryValues[i - 1] = counters[i].maxLatency();
             }
         }
-        printStatMsLine("Max latency:", counters[0].maxLatency(), required,
-                secondaryValues, verdict, out);
+        secondaryValues = withCorrected(secondaryValues, counters[0],
+                counters[0].getCorrectedHistogram().getMaxValue());
+        printLatencyLine("Max latency:", counters[0].maxLatency(), required,
+                secondaryValues, verdict, counters[0], out);
     }
 
     private static void printErrorsStats(LatencyCounter[] counters,
@@ -458,7 +612,7 @@ public class HtmlReportModule extends AbstractReportModule {
 
         Verdict verdict = ReportUtil.allowedErrorsVerdict(counters[0],
                 requirement);
-        long errors = counters[0].getAssertionErrors().size();
+        long errors = counters[0].errorCount();
         double errorsPercent = counters[0].errorsRate() * 100.;
 
         out.println("				<tr>");
@@ -471,13 +625,36 @@ public class HtmlReportModule extends AbstractReportModule {
         out.println("				</tr>");
     }
 
-    private static void printStatMsLine(String label, long mainValue,
-                                        Long requirement, long[] secondaryValues, Verdict verdict,
-                                        PrintWriter out) {
-        printStatLine(label, mainValue, "ms", requirement, secondaryValues,
+    /**
+     * Appends the value corrected for coordinated omission as last column if
+     * the counter applies correction.
+     */
+    private static long[] withCorrected(long[] secondaryValues,
+                                        LatencyCounter counter, long correctedValue) {
+        if (!counter.isCorrected()) {
+            return secondaryValues;
+        }
+        int length = (secondaryValues != null ? secondaryValues.length : 0);
+        long[] result = new long[length + 1];
+        if (secondaryValues != null) {
+            System.arraycopy(secondaryValues, 0, result, 0, length);
+        }
+        result[length] = correctedValue;
+        return result;
+    }
+
+    private static void printLatencyLine(String label, long mainValue,
+                                         Long requirement, long[] secondaryValues, Verdict verdict,
+                                         LatencyCounter counter, PrintWriter out) {
+        printStatLine(label, mainValue, unit(counter), requirement, secondaryValues,
                 verdict, out);
     }
 
+    private static String unit(LatencyCounter counter) {
+        return (counter.getTimeUnit() == TimeUnit.MICROSECONDS ? "&micro;s"
+                : counter.getUnitSymbol());
+    }
+
     private static void printStatLine(String label, long value, String unit,
                                       Long requirement, long[] secondaryValues, Verdict verdict,
                                       PrintWriter out) {
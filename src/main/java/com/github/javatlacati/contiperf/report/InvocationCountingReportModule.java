@@ -37,7 +37,7 @@ public class InvocationCountingReportModule extends AbstractReportModule {
     AtomicLong invocationCount = new AtomicLong();
 
     @Override
-    public void invoked(String serviceId, int latency, long startTime) {
+    public void invoked(String serviceId, long latency, long startTime) {
 	invocationCount.incrementAndGet();
     }
 
@@ -33,10 +33,10 @@ package com.github.javatlacati.contiperf.report;
 public class InvocationLog {
 
     public final String id;
-    public final int latency;
+    public final long latency;
     public final long startTime;
 
-    public InvocationLog(String id, int latency, long startTime) {
+    public InvocationLog(String id, long latency, long startTime) {
 	this.id = id;
 	this.latency = latency;
 	this.startTime = startTime;
@@ -27,7 +27,9 @@ import java.util.List;
 
 /**
  * Helper class for managing and reducing latency distribution counts to
- * dimensions that can pe handled by the {@link GoogleLatencyRenderer}.<br>
+ * dimensions that can pe handled by the {@link GoogleLatencyRenderer}. The x
+ * values are latencies of arbitrary magnitude, e.g. nanoseconds, the y values
+ * may be fractional, e.g. sample densities.<br>
  * <br>
  * Created: 14.01.2011 12:59:40
  *
@@ -36,22 +38,22 @@ import java.util.List;
  */
 public class LatencyDataSet {
 
-    private int[] xx;
-    private int[] yy;
+    private long[] xx;
+    private double[] yy;
     private int pointCount;
     private List<LabelInfo> labels;
 
-    private int maxX;
-    private int maxY;
+    private long maxX;
+    private double maxY;
 
     public LatencyDataSet(int capacity) {
         this.pointCount = 0;
-        this.xx = new int[capacity];
-        this.yy = new int[capacity];
+        this.xx = new long[capacity];
+        this.yy = new double[capacity];
         this.labels = new ArrayList<>();
     }
 
-    public void addPoint(int x, int y) {
+    public void addPoint(long x, double y) {
         if (pointCount == 0 && y > 0 && x > 0) {
             addPoint(x - 1, 0);
         }
@@ -74,11 +76,11 @@ public class LatencyDataSet {
         pointCount++;
     }
 
-    public int getMaxX() {
+    public long getMaxX() {
         return maxX;
     }
 
-    public int getMaxY() {
+    public double getMaxY() {
         return maxY;
     }
 
@@ -86,26 +88,26 @@ public class LatencyDataSet {
         return pointCount;
     }
 
-    public int getX(int i) {
+    public long getX(int i) {
         return xx[i];
     }
 
-    public int getY(int i) {
+    public double getY(int i) {
         return yy[i];
     }
 
     public void scaleY(int newMax) {
         double scale = (double) newMax / maxY;
         for (int i = 0; i < pointCount; i++) {
-            yy[i] = (int) (yy[i] * scale);
+            yy[i] = yy[i] * scale;
         }
     }
 
-    public void addLabel(String text, int x) {
+    public void addLabel(String text, long x) {
         labels.add(new LabelInfo(text, indexForX(x)));
     }
 
-    private int indexForX(int x) {
+    private int indexForX(long x) {
         int i = 0;
         while (i < xx.length && xx[i] < x) {
             i++;
@@ -135,7 +137,7 @@ public class LatencyDataSet {
             return this;
         }
         LatencyDataSet result = new LatencyDataSet(newSize * 2);
-        int sum = 0;
+        double sum = 0;
         int nonZeroIndex = -1;
         for (int i = 0; i < pointCount; i++) {
             if (yy[i] > 0 && nonZeroIndex == -1) {
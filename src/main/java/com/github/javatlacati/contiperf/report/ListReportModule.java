@@ -48,13 +48,13 @@ public class ListReportModule extends AbstractReportModule {
     }
 
     @Override
-    public void invoked(String id, int latency, long startTime) {
+    public void invoked(String id, long latency, long startTime) {
 	invocations.add(new InvocationLog(id, latency, startTime));
     }
 
     @Override
     public void completed(String id, LatencyCounter[] counters,
-                          ExecutionConfig executionConfig, PerformanceRequirement requirement) {
+			  ExecutionConfig executionConfig, PerformanceRequirement requirement) {
 	summaries.add(new InvocationSummary(id, counters[0].duration(),
 		counters[0].sampleCount(), counters[0].getStartTime()));
     }
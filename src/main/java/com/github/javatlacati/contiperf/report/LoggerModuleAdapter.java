@@ -76,13 +76,14 @@ public class LoggerModuleAdapter extends AbstractReportModule {
     }
 
     @Override
-    public void invoked(String serviceId, int latency, long startTime) {
-	logger.logInvocation(serviceId, latency, startTime);
+    public void invoked(String serviceId, long latency, long startTime) {
+	logger.logInvocation(serviceId, (int) Math.min(latency, Integer.MAX_VALUE),
+		startTime);
     }
 
     @Override
     public void completed(String serviceId, LatencyCounter[] counters,
-                          ExecutionConfig executionConfig, PerformanceRequirement requirement) {
+			  ExecutionConfig executionConfig, PerformanceRequirement requirement) {
 	logger.logSummary(serviceId, counters[0].duration(),
 		counters[0].sampleCount(), counters[0].getStartTime());
     }
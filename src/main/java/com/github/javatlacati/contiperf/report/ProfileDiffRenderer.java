@@ -0,0 +1,99 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.report;
+
+import com.github.javatlacati.profile.ProfileDiff;
+import com.github.javatlacati.stat.LatencyCounter;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders a {@link ProfileDiff} as an HTML table with the entries of the
+ * highest impact, showing mean times per invocation. Profiles which got
+ * slower are highlighted in red, the ones which got faster in green.<br>
+ * <br>
+ * Created: 18.10.2026 17:07:31
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public class ProfileDiffRenderer {
+
+    public String render(ProfileDiff diff, int maxRows) {
+        String unit = LatencyCounter.unitSymbol(diff.getTimeUnit());
+        StringBuilder builder = new StringBuilder();
+        builder.append("<table border='1' cellspacing='0' cellpadding='3px' style='border-color:#eee'>\n");
+        builder.append("	<tr><th>Profile</th><th>Self time/inv.</th><th>Change</th>"
+                + "<th>Total time/inv.</th><th>Change</th><th>Impact</th><th>Invocations</th><th>Change</th></tr>\n");
+        List<ProfileDiff.Entry> entries = diff.getEntries();
+        DecimalFormat format = new DecimalFormat("0.##", DecimalFormatSymbols.getInstance(Locale.US));
+        for (int i = 0; i < Math.min(maxRows, entries.size()); i++) {
+            ProfileDiff.Entry entry = entries.get(i);
+            builder.append("	<tr><td>").append(path(entry)).append("</td>")
+                    .append(cell(format.format(entry.getCurrentMeanSelfTime()) + " " + unit, 0))
+                    .append(cell(signed(entry.getMeanSelfTimeDelta(), format) + " " + unit,
+                            entry.getMeanSelfTimeDelta()))
+                    .append(cell(format.format(entry.getCurrentMeanTotalTime()) + " " + unit, 0))
+                    .append(cell(signed(entry.getMeanTotalTimeDelta(), format) + " " + unit,
+                            entry.getMeanTotalTimeDelta()))
+                    .append(cell(signed(Math.round(entry.getImpact()), format) + " " + unit, entry.getImpact()))
+                    .append(cell(String.valueOf(entry.getCurrentInvocations()), 0))
+                    .append(cell(signed(entry.getInvocationDelta(), format), 0))
+                    .append("</tr>\n");
+        }
+        builder.append("</table>");
+        return builder.toString();
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static String path(ProfileDiff.Entry entry) {
+        StringBuilder builder = new StringBuilder();
+        for (String name : entry.getPath().split(ProfileDiff.PATH_SEPARATOR)) {
+            if (builder.length() > 0) {
+                builder.append(" &gt; ");
+            }
+            builder.append(FlameGraphRenderer.escape(name));
+        }
+        return builder.toString();
+    }
+
+    private static String cell(String text, double timeDelta) {
+        String style = "";
+        if (timeDelta > 0) {
+            style = " style='color:RED'";
+        } else if (timeDelta < 0) {
+            style = " style='color:#00BB00'";
+        }
+        return "<td align='right'" + style + ">" + text + "</td>";
+    }
+
+    private static String signed(double value, DecimalFormat format) {
+        return (value > 0 ? "+" : "") + format.format(value);
+    }
+
+}
@@ -25,6 +25,7 @@ package com.github.javatlacati.contiperf.report;
 import com.github.javatlacati.contiperf.ExecutionConfig;
 import com.github.javatlacati.contiperf.ExecutionLogger;
 import com.github.javatlacati.contiperf.PerformanceRequirement;
+import com.github.javatlacati.stat.IntervalSnapshot;
 import com.github.javatlacati.stat.LatencyCounter;
 
 /**
@@ -45,7 +46,13 @@ public interface ReportModule {
 
     void starting(String serviceId);
 
-    void invoked(String serviceId, int latency, long startTime);
+    void invoked(String serviceId, long latency, long startTime);
+
+    /**
+     * Is called when a timeline interval of a test has passed, providing one
+     * {@link IntervalSnapshot} for each clock of the test.
+     */
+    void intervalCompleted(String serviceId, IntervalSnapshot[] snapshots);
 
     void completed(String serviceId, LatencyCounter[] counters,
                    ExecutionConfig executionConfig, PerformanceRequirement requirement);
@@ -42,17 +42,18 @@ public class ReportUtil {
         success &= maxVerdict(counter, requirement) != Verdict.FAILURE;
         success &= throughputVerdict(counter, requirement) != Verdict.FAILURE;
         success &= totalTimeVerdict(counter, requirement) != Verdict.FAILURE;
+        success &= averageMarginVerdict(counter, requirement) != Verdict.FAILURE;
         if (requirement != null && requirement.isAllowedError()) {
             success &= allowedErrorsVerdict(counter, requirement) != Verdict.FAILURE;
         } else {
-            success &= counter.getAssertionErrors().size() == 0;
+            success &= counter.errorCount() == 0;
         }
 
         if (requirement != null) {
             PercentileRequirement[] percentileRequirements = requirement
                     .getPercentileRequirements();
             for (PercentileRequirement percentileRequirement : percentileRequirements) {
-                success &= percentileVerdict(counter, percentileRequirement) != Verdict.FAILURE;
+                success &= percentileVerdict(counter, requirement, percentileRequirement) != Verdict.FAILURE;
             }
         }
 
@@ -62,7 +63,7 @@ public class ReportUtil {
     public static Verdict totalTimeVerdict(LatencyCounter counter,
                                            PerformanceRequirement requirement) {
         if (requirement == null || requirement.getTotalTime() < 0
-                || counter.getAssertionErrors().size() > 0) {
+                || counter.errorCount() > 0) {
             return Verdict.IGNORED;
         }
         return counter.duration() <= requirement.getTotalTime() ? Verdict.SUCCESS
@@ -72,50 +73,122 @@ public class ReportUtil {
     public static Verdict maxVerdict(LatencyCounter counter,
                                      PerformanceRequirement requirement) {
         if (requirement == null || requirement.getMax() < 0
-                || counter.getAssertionErrors().size() > 0) {
+                || counter.errorCount() > 0) {
             return Verdict.IGNORED;
         }
-        return counter.maxLatency() <= requirement.getMax() ? Verdict.SUCCESS
+        return counter.maxLatency() <= requirement.convert(requirement.getMax(),
+                counter.getTimeUnit()) ? Verdict.SUCCESS
                 : Verdict.FAILURE;
     }
 
     public static Verdict throughputVerdict(LatencyCounter counter,
                                             PerformanceRequirement requirement) {
         if (requirement == null || requirement.getThroughput() < 0
-                || counter.getAssertionErrors().size() > 0) {
+                || counter.errorCount() > 0) {
             return Verdict.IGNORED;
         }
-        return counter.throughput() >= requirement.getThroughput() ? Verdict.SUCCESS
+        return evaluatedThroughput(counter, requirement) >= requirement.getThroughput() ? Verdict.SUCCESS
                 : Verdict.FAILURE;
     }
 
+    /**
+     * Returns the throughput which is compared with the required one: the
+     * measured throughput, or the upper bound of its confidence interval if
+     * the requirement specifies a {@link PerformanceRequirement#getConfidenceLevel()
+     * confidence level}.
+     */
+    public static double evaluatedThroughput(LatencyCounter counter,
+                                             PerformanceRequirement requirement) {
+        if (requirement != null && requirement.isConfidenceLevelSet()) {
+            return counter.throughputConfidenceInterval(
+                    requirement.getConfidenceLevel()).getUpper();
+        }
+        return counter.throughput();
+    }
+
     public static Verdict averageVerdict(LatencyCounter counter,
                                          PerformanceRequirement requirement) {
         if (requirement == null || requirement.getAverage() < 0
-                || counter.getAssertionErrors().size() > 0) {
+                || counter.errorCount() > 0) {
+            return Verdict.IGNORED;
+        }
+        return evaluatedAverage(counter, requirement) <= requirement.convert(requirement.getAverage(),
+                counter.getTimeUnit()) ? Verdict.SUCCESS
+                : Verdict.FAILURE;
+    }
+
+    /**
+     * Returns the average latency which is compared with the required one:
+     * the corrected average, or the lower bound of its
+     * {@link LatencyCounter#correctedAverageConfidenceInterval(double)
+     * confidence interval} if the requirement specifies a
+     * {@link PerformanceRequirement#getConfidenceLevel() confidence level}.
+     */
+    public static double evaluatedAverage(LatencyCounter counter,
+                                          PerformanceRequirement requirement) {
+        if (requirement != null && requirement.isConfidenceLevelSet()) {
+            return counter.correctedAverageConfidenceInterval(
+                    requirement.getConfidenceLevel()).getLower();
+        }
+        return counter.correctedAverageLatency();
+    }
+
+    public static Verdict averageMarginVerdict(LatencyCounter counter,
+                                               PerformanceRequirement requirement) {
+        if (requirement == null || requirement.getMaxAverageMargin() <= 0
+                || counter.errorCount() > 0) {
             return Verdict.IGNORED;
         }
-        return counter.averageLatency() <= requirement.getAverage() ? Verdict.SUCCESS
+        return averageMargin(counter, requirement) <= requirement.getMaxAverageMargin() ? Verdict.SUCCESS
                 : Verdict.FAILURE;
     }
 
+    /**
+     * Returns the half width of the confidence interval of the average latency
+     * relative to the average.
+     */
+    public static double averageMargin(LatencyCounter counter,
+                                       PerformanceRequirement requirement) {
+        return counter.averageConfidenceInterval(
+                requirement.effectiveConfidenceLevel()).getRelativeMargin();
+    }
+
+    /**
+     * Evaluates a percentile requirement which is expressed in milliseconds.
+     */
     public static Verdict percentileVerdict(LatencyCounter counter,
                                             PercentileRequirement requirement) {
-        if (requirement == null || requirement.getMillis() < 0
-                || counter.getAssertionErrors().size() > 0) {
+        return percentileVerdict(counter, new PerformanceRequirement(), requirement);
+    }
+
+    /**
+     * Evaluates a percentile requirement which is expressed in the time unit
+     * of the enclosing {@link PerformanceRequirement}.
+     */
+    public static Verdict percentileVerdict(LatencyCounter counter,
+                                            PerformanceRequirement requirement,
+                                            PercentileRequirement percentileRequirement) {
+        if (percentileRequirement == null || percentileRequirement.getMillis() < 0
+                || counter.errorCount() > 0) {
             return Verdict.IGNORED;
         }
-        return percentileVerdict(counter, requirement.getPercentage(),
-                (long) requirement.getMillis());
+        return percentileVerdict(counter, percentileRequirement.getPercentage(),
+                requirement.convert(percentileRequirement.getMillis(), counter.getTimeUnit()));
     }
 
+    /**
+     * Evaluates a percentile requirement. The required latency must be
+     * expressed in the {@link LatencyCounter#getTimeUnit() time unit} of the
+     * counter. If the counter corrects coordinated omission, the corrected
+     * percentile is evaluated.
+     */
     public static Verdict percentileVerdict(LatencyCounter counter,
-                                            int percentage, Long requiredMillis) {
-        if (requiredMillis == null || requiredMillis < 0
-                || counter.getAssertionErrors().size() > 0) {
+                                            double percentage, Long requiredLatency) {
+        if (requiredLatency == null || requiredLatency < 0
+                || counter.errorCount() > 0) {
             return Verdict.IGNORED;
         }
-        return counter.percentileLatency(percentage) <= requiredMillis ? Verdict.SUCCESS
+        return counter.correctedPercentileLatency(percentage) <= requiredLatency ? Verdict.SUCCESS
                 : Verdict.FAILURE;
     }
 
@@ -125,7 +198,7 @@ public class ReportUtil {
         if (requirement != null && requirement.isAllowedError()) {
             return allowedErrorsVerdict(counter, requirement);
         } else {
-            return counter.getAssertionErrors().size() == 0 ? Verdict.SUCCESS
+            return counter.errorCount() == 0 ? Verdict.SUCCESS
                     : Verdict.FAILURE;
         }
     }
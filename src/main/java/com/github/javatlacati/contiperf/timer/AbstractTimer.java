@@ -34,6 +34,14 @@ import com.github.javatlacati.contiperf.WaitTimer;
  */
 public abstract class AbstractTimer implements WaitTimer {
 
+    /**
+     * Returns the average wait time in milliseconds, or -1 if it is unknown.
+     * It serves as expected interval for coordinated omission correction.
+     */
+    public double getAverageWaitTime() {
+	return -1;
+    }
+
     protected void checkParamCount(int expectedParamCount, double[] actualParams) {
 	if (actualParams.length != expectedParamCount) {
 	    System.out.println("WARN: " + getClass().getSimpleName()
@@ -47,4 +47,9 @@ public class ConstantTimer extends AbstractTimer {
 	return wait;
     }
 
+    @Override
+    public double getAverageWaitTime() {
+	return wait;
+    }
+
 }
@@ -58,4 +58,9 @@ public class CumulatedTimer extends AbstractTimer {
 			.nextInt(range)) / 3;
     }
 
+    @Override
+    public double getAverageWaitTime() {
+	return min + (range - 1) / 2.;
+    }
+
 }
@@ -42,4 +42,9 @@ public class None extends AbstractTimer {
 	return 0;
     }
 
+    @Override
+    public double getAverageWaitTime() {
+	return 0;
+    }
+
 }
@@ -0,0 +1,94 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.timer;
+
+import com.github.javatlacati.contiperf.WaitTimer;
+
+/**
+ * {@link WaitTimer} implementation which makes each thread invoke the test at
+ * a fixed rate. Instead of waiting for a time after each invocation, it
+ * schedules the invocations of a thread at absolute deadlines one interval
+ * apart, so the time spent in the invocations does not reduce the rate and
+ * rounding errors do not drift. If an invocation takes longer than the
+ * interval, the thread catches up by starting the next ones right away. The
+ * parameter is the number of invocations per second and thread, e.g.
+ * {@code @PerfTest(timer = PacingTimer.class, timerParams = 5000)}.<br>
+ * <br>
+ * Created: 18.10.2026 17:34:28
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public class PacingTimer extends AbstractTimer {
+
+    private long interval = 1000000000L;
+
+    public void init(double[] params) {
+	checkParamCount(1, params);
+	if (params.length > 0) {
+	    if (params[0] <= 0) {
+		throw new IllegalArgumentException(
+			"Pacing rate must be positive: " + params[0]);
+	    }
+	    interval = Math.round(1000000000. / params[0]);
+	}
+    }
+
+    public long getInterval() {
+	return interval;
+    }
+
+    /** Returns the interval rounded to milliseconds. */
+    public int getWaitTime() {
+	return (int) Math.round(interval / 1000000.);
+    }
+
+    @Override
+    public long getWaitTimeNanos() {
+	return interval;
+    }
+
+    /**
+     * Returns the interval, since it is the expected time between two
+     * invocations of a thread regardless of their latency.
+     */
+    @Override
+    public double getAverageWaitTime() {
+	return interval / 1000000.;
+    }
+
+    /** Returns true, since the intervals may be shorter than a millisecond. */
+    @Override
+    public boolean isPrecise() {
+	return true;
+    }
+
+    @Override
+    public long nextDeadline(long previousDeadline, long now) {
+	if (previousDeadline == NO_DEADLINE) {
+	    return now + interval;
+	}
+	return previousDeadline + interval;
+    }
+
+}
@@ -53,4 +53,9 @@ public class RandomTimer extends AbstractTimer {
 	return min + random.nextInt(range);
     }
 
+    @Override
+    public double getAverageWaitTime() {
+	return min + (range - 1) / 2.;
+    }
+
 }
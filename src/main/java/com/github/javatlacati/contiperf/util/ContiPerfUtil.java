@@ -25,12 +25,14 @@ package com.github.javatlacati.contiperf.util;
 import java.io.Closeable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import com.github.javatlacati.contiperf.Clock;
 import com.github.javatlacati.contiperf.ExecutionConfig;
+import com.github.javatlacati.contiperf.LoadStage;
 import com.github.javatlacati.contiperf.PercentileRequirement;
 import com.github.javatlacati.contiperf.PerfTest;
 import com.github.javatlacati.contiperf.PerfTestConfigurationError;
@@ -38,6 +40,7 @@ import com.github.javatlacati.contiperf.PerfTestException;
 import com.github.javatlacati.contiperf.PerfTestExecutionError;
 import com.github.javatlacati.contiperf.PerformanceRequirement;
 import com.github.javatlacati.contiperf.Required;
+import com.github.javatlacati.contiperf.Stage;
 import com.github.javatlacati.contiperf.clock.SystemClock;
 import org.junit.runners.model.FrameworkMethod;
 
@@ -75,20 +78,41 @@ public class ContiPerfUtil {
 
     public static ExecutionConfig mapPerfTestAnnotation(PerfTest annotation) {
 	if (annotation != null) {
-	    return new ExecutionConfig(annotation.invocations(),
-		    annotation.threads(), annotation.duration(),
-		    clocks(annotation), annotation.rampUp(),
-		    annotation.warmUp(), annotation.cancelOnViolation(),
-		    annotation.timer(), annotation.timerParams() /*
-								  * ,
-								  * annotation.
-								  * timeout()
-								  */);
+	    ExecutionConfig config = new ExecutionConfig(
+		    annotation.invocations(), annotation.threads(),
+		    annotation.duration(), clocks(annotation),
+		    annotation.rampUp(), annotation.warmUp(),
+		    annotation.cancelOnViolation(), annotation.timer(),
+		    annotation.timerParams() /* , annotation.timeout() */);
+	    config.setHistogramType(annotation.histogram());
+	    config.setTimeUnit(annotation.timeUnit());
+	    config.setCorrectCoordinatedOmission(annotation
+		    .correctCoordinatedOmission());
+	    config.setExpectedInterval(annotation.expectedInterval());
+	    config.setTimelineInterval(annotation.timelineInterval());
+	    config.setVirtualThreads(annotation.virtualThreads());
+	    config.setRate(annotation.rate());
+	    config.setPoissonArrivals(annotation.poissonArrivals());
+	    config.setStages(stages(annotation));
+	    return config;
 	} else {
 	    return null;
 	}
     }
 
+    private static LoadStage[] stages(PerfTest annotation) {
+	Stage[] stages = annotation.stages();
+	LoadStage[] result = new LoadStage[stages.length];
+	for (int i = 0; i < stages.length; i++) {
+	    Stage stage = stages[i];
+	    String name = (stage.name().length() > 0 ? stage.name() : "stage"
+		    + (i + 1));
+	    result[i] = new LoadStage(name, stage.duration(), stage.threads(),
+		    stage.rate(), stage.ramp(), stage.verify());
+	}
+	return result;
+    }
+
     private static Clock[] clocks(PerfTest annotation) {
 	Class<? extends Clock>[] clockClasses = annotation.clocks();
 	if (clockClasses.length == 0) {
@@ -144,8 +168,14 @@ public class ContiPerfUtil {
 	PercentileRequirement[] percs = new PercentileRequirement[percTmp
 		.size()];
 	percTmp.toArray(percs);
-	return new PerformanceRequirement(average, max, totalTime, percs,
-		throughput, annotation.allowedErrorsRate());
+	PerformanceRequirement requirement = new PerformanceRequirement(average,
+		max, totalTime, percs, throughput, annotation.allowedErrorsRate());
+	requirement.setTimeUnit(annotation.timeUnit());
+	if (annotation.confidenceLevel() != -1) {
+	    requirement.setConfidenceLevel(annotation.confidenceLevel());
+	}
+	requirement.setMaxAverageMargin(annotation.maxAverageMargin());
+	return requirement;
     }
 
     public static PercentileRequirement[] parsePercentiles(
@@ -190,9 +220,33 @@ public class ContiPerfUtil {
 	    throw new PerfTestConfigurationError("Ilegal percentile syntax: "
 		    + assignment);
 	}
-	int base = Integer.parseInt(parts[0].trim());
+	double base = Double.parseDouble(parts[0].trim());
 	int limit = Integer.parseInt(parts[1].trim());
+	if (base <= 0 || base > 100) {
+	    throw new PerfTestConfigurationError("Percentile out of range: "
+		    + assignment);
+	}
 	return new PercentileRequirement(base, limit);
     }
 
+    /**
+     * Formats a percentage without trailing zeros, e.g. 90.0 as "90" and 99.90
+     * as "99.9".
+     */
+    public static String formatPercentage(double percentage) {
+	return BigDecimal.valueOf(percentage).stripTrailingZeros()
+		.toPlainString();
+    }
+
+    /**
+     * Quotes a CSV field if it contains commas or quotes, e.g. a counter id
+     * like <code>db.query{shard=3,table=users}</code>.
+     */
+    public static String csvText(String text) {
+	if (text.indexOf(',') < 0 && text.indexOf('"') < 0) {
+	    return text;
+	}
+	return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
 }
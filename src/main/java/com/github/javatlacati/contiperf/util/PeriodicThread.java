@@ -0,0 +1,79 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.util;
+
+/**
+ * Daemon thread which runs a task periodically until it is
+ * {@link #cancel() canceled}. The period is the pause between the end of one
+ * run and the start of the next one.<br>
+ * <br>
+ * Created: 18.10.2026 21:12:40
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public class PeriodicThread extends Thread {
+
+    private final long period;
+    private final Runnable task;
+
+    public PeriodicThread(String name, long periodMillis, Runnable task) {
+        super(name);
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Illegal period: " + periodMillis);
+        }
+        this.period = periodMillis;
+        this.task = task;
+        setDaemon(true);
+    }
+
+    public long getPeriod() {
+        return period;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(period);
+                task.run();
+            }
+        } catch (InterruptedException e) {
+            // makes the thread leave the loop and finish
+        }
+    }
+
+    /**
+     * Stops the thread and waits until it has finished, so that the task does
+     * not run any more when the method returns.
+     */
+    public void cancel() {
+        interrupt();
+        try {
+            join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
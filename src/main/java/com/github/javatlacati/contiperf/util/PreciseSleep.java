@@ -0,0 +1,83 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits with a precision of microseconds, which {@link Thread#sleep(long)}
+ * cannot provide: Longer waits park the thread with
+ * {@link LockSupport#parkNanos(long)} until shortly before the deadline, and
+ * the rest of the wait spins while yielding the processor, since parking
+ * overshoots its time by some ten microseconds.<br>
+ * <br>
+ * Created: 18.10.2026 17:34:28
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public class PreciseSleep {
+
+    /** The remaining number of nanoseconds below which the thread spins instead of parking. */
+    public static final long SPIN_THRESHOLD = 100000;
+
+    private PreciseSleep() {
+        // utility class
+    }
+
+    /** Waits for the given number of nanoseconds. */
+    public static void nanos(long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            until(System.nanoTime() + nanos);
+        }
+    }
+
+    /**
+     * Waits until {@link System#nanoTime()} reaches the given deadline. It
+     * returns at once if the deadline has passed.
+     */
+    public static void until(long deadline) throws InterruptedException {
+        until(deadline, true);
+    }
+
+    /**
+     * Waits until {@link System#nanoTime()} reaches the given deadline. Unless
+     * <code>spin</code> is set, the thread parks for the whole wait, which
+     * saves processor time at the cost of the wait's precision.
+     */
+    public static void until(long deadline, boolean spin) throws InterruptedException {
+        long threshold = (spin ? SPIN_THRESHOLD : 0);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > threshold) {
+                LockSupport.parkNanos(remaining - threshold);
+            } else {
+                Thread.yield();
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.util;
+
+import com.github.javatlacati.contiperf.PerfTestConfigurationError;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Creates virtual threads on Java 21 and newer. Since ContiPerf is compiled
+ * for older Java versions, the thread builder API is accessed by reflection.
+ * The lookup happens once, so creating a thread costs two reflective calls.<br>
+ * <br>
+ * Created: 18.10.2026 17:09:53
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            name = builderClass.getMethod("name", String.class);
+            unstarted = builderClass.getMethod("unstarted", Runnable.class);
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            // fails on Java 19 and 20 if preview features are not enabled
+            ofVirtual.invoke(null);
+        } catch (Exception e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /** Tells if the running JVM supports virtual threads. */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * @throws PerfTestConfigurationError if the JVM does not support virtual
+     *             threads
+     */
+    public static void checkSupported() {
+        if (!isSupported()) {
+            throw new PerfTestConfigurationError("Virtual threads require Java 21 or newer, "
+                    + "running on Java " + System.getProperty("java.version"));
+        }
+    }
+
+    /**
+     * Creates a virtual thread which has not been started yet.
+     * 
+     * @throws PerfTestConfigurationError if the JVM does not support virtual
+     *             threads
+     */
+    public static Thread newThread(String name, Runnable task) {
+        checkSupported();
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name);
+            return (Thread) UNSTARTED.invoke(builder, task);
+        } catch (InvocationTargetException e) {
+            throw new PerfTestConfigurationError("Error creating virtual thread", e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new PerfTestConfigurationError("Error creating virtual thread", e);
+        }
+    }
+
+}
@@ -22,16 +22,22 @@
 
 package com.github.javatlacati.profile;
 
+import com.github.javatlacati.contiperf.clock.SystemClock;
 import com.github.javatlacati.stat.LatencyCounter;
+import com.github.javatlacati.stat.LogLinearHistogram;
 
 import java.text.DecimalFormat;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Uses a {@link LatencyCounter} to collect profile information and manages sub
- * profiles.<br>
+ * profiles. Profiles are thread-safe: sub profiles are created without locking
+ * and the latency counter records each thread's samples in a histogram of its
+ * own. The time which a profile spends in itself and in its sub profiles is
+ * reported by {@link #getSelfTime()} and {@link #getChildTime()}.<br>
  * <br>
  * Created: 19.05.2011 09:08:27
  *
@@ -42,16 +48,36 @@ public class Profile {
 
     private String name;
     private Profile parent;
-    private Map<String, Profile> subProfiles;
-    private LatencyCounter counter;
-    private DecimalFormat nf = new DecimalFormat("0");
-    private DecimalFormat df = new DecimalFormat("0.0");
+    private final ConcurrentMap<String, Profile> subProfiles;
+    private final LatencyCounter counter;
 
+    /**
+     * Creates a profile which measures in the time unit of its parent, or in
+     * milliseconds if it has no parent.
+     */
     public Profile(String name, Profile parent) {
+	this(name, parent, parent != null ? parent.getTimeUnit()
+		: TimeUnit.MILLISECONDS);
+    }
+
+    public Profile(String name, Profile parent, TimeUnit timeUnit) {
 	this.parent = parent;
 	this.name = name;
-	this.counter = new LatencyCounter(name);
-	this.subProfiles = new HashMap<>();
+	this.counter = new LatencyCounter(name, SystemClock.NAME, timeUnit,
+		new LogLinearHistogram());
+	this.subProfiles = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates a profile which continues recording to the given counter, e.g.
+     * one that has been {@link ProfileCodec#read(java.io.InputStream) read}
+     * from a file.
+     */
+    Profile(Profile parent, LatencyCounter counter) {
+	this.parent = parent;
+	this.name = counter.getName();
+	this.counter = counter;
+	this.subProfiles = new ConcurrentHashMap<>();
     }
 
     public String getName() {
@@ -62,28 +88,56 @@ public class Profile {
 	return parent;
     }
 
+    public TimeUnit getTimeUnit() {
+	return counter.getTimeUnit();
+    }
+
     public Collection<Profile> getSubProfiles() {
 	return subProfiles.values();
     }
 
+    /** Returns the sub profile of the given name, or null if it does not exist. */
+    public Profile getSubProfile(String name) {
+	return subProfiles.get(name);
+    }
+
     public Profile getOrCreateSubProfile(String name) {
+	return getOrCreateSubProfile(name, getTimeUnit());
+    }
+
+    /**
+     * Returns the sub profile of the given name, creating it with the given
+     * time unit if it does not exist yet. Its own sub profiles inherit the
+     * time unit.
+     */
+    public Profile getOrCreateSubProfile(String name, TimeUnit timeUnit) {
 	Profile result = subProfiles.get(name);
 	if (result == null) {
-	    result = createSubProfile(name);
+	    Profile newProfile = new Profile(name, this, timeUnit);
+	    result = subProfiles.putIfAbsent(name, newProfile);
+	    if (result == null) {
+		result = newProfile;
+	    }
 	}
 	return result;
     }
 
-    private Profile createSubProfile(String name) {
-	Profile result = new Profile(name, this);
-	subProfiles.put(name, result);
-	return result;
+    void addSubProfile(Profile subProfile) {
+	subProfiles.put(subProfile.getName(), subProfile);
     }
 
     public void addSample(int duration) {
+	addSample((long) duration);
+    }
+
+    public void addSample(long duration) {
 	counter.addSample(duration, null);
     }
 
+    public LatencyCounter getCounter() {
+	return counter;
+    }
+
     public long getInvocationCount() {
 	return counter.sampleCount();
     }
@@ -96,11 +150,32 @@ public class Profile {
 	return counter.averageLatency();
     }
 
+    /** Returns the total latency of the sub profiles. */
+    public long getChildTime() {
+	long result = 0;
+	for (Profile subProfile : subProfiles.values()) {
+	    result += subProfile.getTotalLatency();
+	}
+	return result;
+    }
+
+    /**
+     * Returns the part of the total latency which is not spent in sub
+     * profiles. Since sub profiles may be sampled while the profile itself is
+     * still running, the result is never negative.
+     */
+    public long getSelfTime() {
+	return Math.max(0, getTotalLatency() - getChildTime());
+    }
+
     @Override
     public String toString() {
+	DecimalFormat nf = new DecimalFormat("0");
+	DecimalFormat df = new DecimalFormat("0.0");
 	return "[" + nf.format(getInvocationCount()) + " inv., " + "avg: "
 		+ df.format(getAverageLatency()) + ", " + "total: "
-		+ nf.format(getTotalLatency()) + "]: " + name;
+		+ nf.format(getTotalLatency()) + ", " + "self: "
+		+ nf.format(getSelfTime()) + "]: " + name;
     }
 
     @Override
@@ -0,0 +1,122 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.profile;
+
+import com.github.javatlacati.stat.LatencyCounter;
+import com.github.javatlacati.stat.LatencyCounterCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Persists {@link Profile} trees in a compact binary format, e.g. for
+ * comparing the profiles of a baseline build with the current ones in a
+ * {@link ProfileDiff}. A stream starts with the magic bytes <code>CPPF</code>
+ * and a format version byte, followed by the profiles in depth-first order.
+ * Each profile is stored as a record of the {@link LatencyCounterCodec}
+ * followed by the number of its sub profiles, so the full latency
+ * distribution of each profile is retained.<br>
+ * <br>
+ * Created: 18.10.2026 17:07:31
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public final class ProfileCodec {
+
+    private static final byte[] MAGIC = { 'C', 'P', 'P', 'F' };
+    public static final int VERSION = 2;
+
+    private ProfileCodec() {
+    }
+
+    public static void write(Profile profile, File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            write(profile, out);
+        }
+    }
+
+    public static void write(Profile profile, OutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeProfile(profile, out);
+    }
+
+    public static Profile read(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a profile tree.
+     * 
+     * @throws IOException if the stream does not start with a supported
+     *             header or ends prematurely
+     */
+    public static Profile read(InputStream in) throws IOException {
+        for (byte expected : MAGIC) {
+            if (in.read() != expected) {
+                throw new IOException("Not a profile stream");
+            }
+        }
+        int version = in.read();
+        if (version != VERSION) {
+            throw new IOException("Unsupported profile format version: " + version);
+        }
+        return readProfile(null, in);
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static void writeProfile(Profile profile, OutputStream out) throws IOException {
+        LatencyCounterCodec.write(profile.getCounter(), out);
+        List<Profile> subProfiles = Profiler.sortedSubProfiles(profile);
+        LatencyCounterCodec.writeVarLong(subProfiles.size(), out);
+        for (Profile subProfile : subProfiles) {
+            writeProfile(subProfile, out);
+        }
+    }
+
+    private static Profile readProfile(Profile parent, InputStream in) throws IOException {
+        LatencyCounter counter = LatencyCounterCodec.read(in);
+        if (counter == null) {
+            throw new IOException("Unexpected end of profile stream");
+        }
+        Profile profile = new Profile(parent, counter);
+        long subProfileCount = LatencyCounterCodec.readVarLong(in);
+        for (long i = 0; i < subProfileCount; i++) {
+            profile.addSubProfile(readProfile(profile, in));
+        }
+        return profile;
+    }
+
+}
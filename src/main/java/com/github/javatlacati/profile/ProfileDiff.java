@@ -0,0 +1,232 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.profile;
+
+import com.github.javatlacati.stat.LatencyCounter;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a {@link Profile} tree with a baseline, e.g. the profiles of the
+ * current build with the ones of the last release. Profiles are matched by
+ * their path below the root, and each pair becomes an {@link Entry} with the
+ * changes in mean self time and mean total time per invocation, so that runs
+ * with different invocation counts or durations remain comparable. The change
+ * in the invocation count is reported separately. Entries are sorted by
+ * impact, which is the change in mean self time weighted by the current
+ * invocations, so that the method which got slower comes first. Times are
+ * reported in the time unit of the current profile.<br>
+ * <br>
+ * Created: 18.10.2026 17:07:31
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class ProfileDiff {
+
+    public static final String PATH_SEPARATOR = ";";
+
+    private final String name;
+    private final TimeUnit timeUnit;
+    private final List<Entry> entries;
+
+    private ProfileDiff(String name, TimeUnit timeUnit, List<Entry> entries) {
+        this.name = name;
+        this.timeUnit = timeUnit;
+        this.entries = entries;
+    }
+
+    public static ProfileDiff compare(Profile baseline, Profile current) {
+        List<Entry> entries = new ArrayList<>();
+        compareSubProfiles(baseline, current, "", current.getTimeUnit(), entries);
+        Collections.sort(entries, new Comparator<Entry>() {
+            public int compare(Entry e1, Entry e2) {
+                int result = Double.compare(Math.abs(e2.getImpact()), Math.abs(e1.getImpact()));
+                if (result == 0) {
+                    result = Double.compare(Math.abs(e2.getMeanTotalTimeDelta()),
+                            Math.abs(e1.getMeanTotalTimeDelta()));
+                }
+                return (result != 0 ? result : e1.getPath().compareTo(e2.getPath()));
+            }
+        });
+        return new ProfileDiff(current.getName(), current.getTimeUnit(), entries);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    /** Returns the entries ordered by impact, the largest first. */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public void writeText(PrintWriter out, int maxEntries) {
+        String unit = LatencyCounter.unitSymbol(timeUnit);
+        out.println("Profile diff of " + name + " (times in " + unit + " per invocation, sorted by impact)");
+        out.println(String.format(Locale.US, "%10s %10s %10s %10s %12s %8s %8s  %s", "self", "delta",
+                "total", "delta", "impact", "inv.", "delta", "path"));
+        for (int i = 0; i < Math.min(maxEntries, entries.size()); i++) {
+            Entry entry = entries.get(i);
+            out.println(String.format(Locale.US, "%10.2f %+10.2f %10.2f %+10.2f %+12.0f %8d %+8d  %s",
+                    entry.getCurrentMeanSelfTime(), entry.getMeanSelfTimeDelta(),
+                    entry.getCurrentMeanTotalTime(), entry.getMeanTotalTimeDelta(),
+                    entry.getImpact(), entry.getCurrentInvocations(), entry.getInvocationDelta(),
+                    entry.getPath()));
+        }
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static void compareSubProfiles(Profile baseline, Profile current, String path,
+                                           TimeUnit timeUnit, List<Entry> entries) {
+        List<String> names = new ArrayList<>();
+        if (current != null) {
+            for (Profile subProfile : current.getSubProfiles()) {
+                names.add(subProfile.getName());
+            }
+        }
+        if (baseline != null) {
+            for (Profile subProfile : baseline.getSubProfiles()) {
+                if (current == null || current.getSubProfile(subProfile.getName()) == null) {
+                    names.add(subProfile.getName());
+                }
+            }
+        }
+        for (String subName : names) {
+            Profile baselineSub = (baseline != null ? baseline.getSubProfile(subName) : null);
+            Profile currentSub = (current != null ? current.getSubProfile(subName) : null);
+            String subPath = (path.length() > 0 ? path + PATH_SEPARATOR : "") + subName;
+            entries.add(new Entry(subPath, baselineSub, currentSub, timeUnit));
+            compareSubProfiles(baselineSub, currentSub, subPath, timeUnit, entries);
+        }
+    }
+
+    /** The comparison of a profile with its baseline. */
+    public static final class Entry {
+
+        private final String path;
+        private final double baselineMeanSelfTime;
+        private final double currentMeanSelfTime;
+        private final double baselineMeanTotalTime;
+        private final double currentMeanTotalTime;
+        private final long baselineInvocations;
+        private final long currentInvocations;
+
+        Entry(String path, Profile baseline, Profile current, TimeUnit timeUnit) {
+            this.path = path;
+            this.baselineInvocations = (baseline != null ? baseline.getInvocationCount() : 0);
+            this.currentInvocations = (current != null ? current.getInvocationCount() : 0);
+            double factor = (baseline != null ? (double) baseline.getTimeUnit().toNanos(1) / timeUnit.toNanos(1) : 0);
+            this.baselineMeanSelfTime = mean(baselineInvocations > 0 ? baseline.getSelfTime() * factor : 0,
+                    baselineInvocations);
+            this.currentMeanSelfTime = mean(current != null ? current.getSelfTime() : 0, currentInvocations);
+            this.baselineMeanTotalTime = mean(baselineInvocations > 0 ? baseline.getTotalLatency() * factor : 0,
+                    baselineInvocations);
+            this.currentMeanTotalTime = mean(current != null ? current.getTotalLatency() : 0, currentInvocations);
+        }
+
+        /** Returns the names of the profile and its ancestors below the root, separated by semicolons. */
+        public String getPath() {
+            return path;
+        }
+
+        public double getBaselineMeanSelfTime() {
+            return baselineMeanSelfTime;
+        }
+
+        public double getCurrentMeanSelfTime() {
+            return currentMeanSelfTime;
+        }
+
+        public double getMeanSelfTimeDelta() {
+            return currentMeanSelfTime - baselineMeanSelfTime;
+        }
+
+        public double getBaselineMeanTotalTime() {
+            return baselineMeanTotalTime;
+        }
+
+        public double getCurrentMeanTotalTime() {
+            return currentMeanTotalTime;
+        }
+
+        public double getMeanTotalTimeDelta() {
+            return currentMeanTotalTime - baselineMeanTotalTime;
+        }
+
+        /**
+         * Returns the change in mean self time weighted by the current
+         * invocations, or by the baseline invocations for a profile which is
+         * no longer invoked. It estimates how much of the current run's time
+         * the change has cost or saved.
+         */
+        public double getImpact() {
+            long invocations = (currentInvocations > 0 ? currentInvocations : baselineInvocations);
+            return getMeanSelfTimeDelta() * invocations;
+        }
+
+        public long getBaselineInvocations() {
+            return baselineInvocations;
+        }
+
+        public long getCurrentInvocations() {
+            return currentInvocations;
+        }
+
+        public long getInvocationDelta() {
+            return currentInvocations - baselineInvocations;
+        }
+
+        private static double mean(double time, long invocations) {
+            return (invocations > 0 ? time / invocations : 0);
+        }
+
+        @Override
+        public String toString() {
+            return path + ": self/inv. " + String.format(Locale.US, "%+.2f", getMeanSelfTimeDelta())
+                    + ", total/inv. " + String.format(Locale.US, "%+.2f", getMeanTotalTimeDelta())
+                    + ", inv. " + (getInvocationDelta() >= 0 ? "+" : "") + getInvocationDelta();
+        }
+    }
+
+    // java.lang.Object overrides
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + name + ", " + entries.size() + " entries]";
+    }
+
+}
@@ -22,10 +22,36 @@
 
 package com.github.javatlacati.profile;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.github.javatlacati.stat.LatencyCounter;
 
 /**
- * Organizes {@link Profile}s in a tree structure.<br>
+ * Organizes {@link Profile}s in a tree structure. Samples can be added
+ * concurrently from any number of threads, either with their full path or
+ * by wrapping the profiled code in {@link #enter(String)} and {@link #exit()}
+ * calls, which build the path from the nesting of the calls:
+ * 
+ * <pre>
+ * private static final Profiler PROFILER = new Profiler(&quot;app&quot;, TimeUnit.NANOSECONDS);
+ * ...
+ * try (Profiler.Scope scope = PROFILER.enter(&quot;parse&quot;)) {
+ *     ...
+ * }
+ * </pre>
+ * 
+ * Each thread keeps its position in the tree in a cursor of its own, which is
+ * reused for all of its calls, so entering and exiting a known profile does not
+ * allocate objects. Latencies are measured with {@link System#nanoTime()} and
+ * recorded in the time unit of the profiles. The profile tree can be exported
+ * in the folded stack format of flame graph tools with
+ * {@link #writeFoldedStacks(Writer)}.<br>
  * <br>
  * Created: 19.05.2011 09:01:32
  *
@@ -40,11 +66,28 @@ public class Profiler {
     private long granularity;
     private String unit;
     private Profile rootProfile;
+    private final ThreadLocal<Scope> scope;
 
     public Profiler(String name, long granularity, String unit) {
+        this(name, granularity, unit, TimeUnit.MILLISECONDS);
+    }
+
+    /** Creates a profiler whose profiles record in the given time unit. */
+    public Profiler(String name, TimeUnit timeUnit) {
+        this(name, 1, LatencyCounter.unitSymbol(timeUnit), timeUnit);
+    }
+
+    private Profiler(String name, long granularity, String unit,
+            TimeUnit timeUnit) {
         this.granularity = granularity;
         this.unit = unit;
-        this.rootProfile = new Profile(name, null);
+        this.rootProfile = new Profile(name, null, timeUnit);
+        this.scope = new ThreadLocal<Scope>() {
+            @Override
+            protected Scope initialValue() {
+                return new Scope(rootProfile);
+            }
+        };
     }
 
     public static Profiler defaultInstance() {
@@ -56,18 +99,93 @@ public class Profiler {
     }
 
     public void addSample(List<String> path, long duration) {
-        int depth = path.size();
         Profile profile = rootProfile;
         for (String aPath : path) {
             profile = profile.getOrCreateSubProfile(aPath);
         }
-        profile.addSample((int) (duration / granularity));
+        profile.addSample(duration / granularity);
+    }
+
+    /**
+     * Starts measuring the sub profile of the given name below the profile
+     * which the current thread has entered last, or below the root profile.
+     * 
+     * @return the thread's scope, closing it is equivalent to {@link #exit()}
+     */
+    public Scope enter(String name) {
+        Scope result = scope.get();
+        result.push(result.current().getOrCreateSubProfile(name),
+                System.nanoTime());
+        return result;
+    }
+
+    /**
+     * Works like {@link #enter(String)}, but creates a missing sub profile
+     * with the given time unit instead of the one of its parent. This way a
+     * profiler which records milliseconds can measure fast code in
+     * nanoseconds.
+     */
+    public Scope enter(String name, TimeUnit timeUnit) {
+        Scope result = scope.get();
+        result.push(result.current().getOrCreateSubProfile(name, timeUnit),
+                System.nanoTime());
+        return result;
+    }
+
+    /**
+     * Stops the measurement of the profile which the current thread has
+     * entered last and records its latency.
+     * 
+     * @return the latency in the time unit of the profile
+     * @throws IllegalStateException if the thread has not entered a profile
+     */
+    public long exit() {
+        return scope.get().pop(System.nanoTime());
     }
 
     public void printSummary() {
         printRecursively(rootProfile, "");
     }
 
+    /**
+     * Writes the profile tree in the folded stack format which is read by
+     * flame graph tools: One line per profile with a self time, consisting of
+     * the names on its path separated by semicolons, a space and the self time.
+     */
+    public void writeFoldedStacks(Writer out) throws IOException {
+        writeFoldedStacks(rootProfile, rootProfile, new StringBuilder(), out);
+    }
+
+    private static void writeFoldedStacks(Profile profile, Profile root,
+            StringBuilder path, Writer out) throws IOException {
+        int length = path.length();
+        if (profile != root) {
+            if (length > 0) {
+                path.append(';');
+            }
+            path.append(profile.getName().replace(';', ':'));
+            long selfTime = profile.getSelfTime();
+            if (selfTime > 0) {
+                out.write(path + " " + selfTime + "\n");
+            }
+        }
+        for (Profile subProfile : sortedSubProfiles(profile)) {
+            writeFoldedStacks(subProfile, root, path, out);
+        }
+        path.setLength(length);
+    }
+
+    /** Returns the sub profiles of a profile, ordered by name. */
+    public static List<Profile> sortedSubProfiles(Profile profile) {
+        List<Profile> result = new ArrayList<>(profile.getSubProfiles());
+        Collections.sort(result, new Comparator<Profile>() {
+            public int compare(Profile p1, Profile p2) {
+                return p1.getName().compareTo(p2.getName());
+            }
+        });
+        return result;
+    }
+
     private void printRecursively(Profile profile, String indent) {
         System.out.println(indent + profile.toString());
         for (Profile subProfile : profile.getSubProfiles()) {
@@ -75,4 +193,65 @@ public class Profiler {
         }
     }
 
+    /**
+     * A thread's position in the profile tree. Closing the scope exits the
+     * profile which has been entered last.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Profile root;
+        private Profile[] profiles;
+        private long[] startTimes;
+        private int depth;
+
+        Scope(Profile root) {
+            this.root = root;
+            this.profiles = new Profile[8];
+            this.startTimes = new long[8];
+            this.depth = 0;
+        }
+
+        /** Returns the profile which has been entered last. */
+        public Profile current() {
+            return (depth > 0 ? profiles[depth - 1] : root);
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        void push(Profile profile, long startTime) {
+            if (depth == profiles.length) {
+                Profile[] newProfiles = new Profile[depth * 2];
+                System.arraycopy(profiles, 0, newProfiles, 0, depth);
+                profiles = newProfiles;
+                long[] newStartTimes = new long[depth * 2];
+                System.arraycopy(startTimes, 0, newStartTimes, 0, depth);
+                startTimes = newStartTimes;
+            }
+            profiles[depth] = profile;
+            startTimes[depth] = startTime;
+            depth++;
+        }
+
+        long pop(long endTime) {
+            if (depth == 0) {
+                throw new IllegalStateException(
+                        "Called exit() without a matching enter()");
+            }
+            depth--;
+            Profile profile = profiles[depth];
+            profiles[depth] = null;
+            long latency = profile.getTimeUnit().convert(
+                    endTime - startTimes[depth], TimeUnit.NANOSECONDS);
+            profile.addSample(latency);
+            return latency;
+        }
+
+        @Override
+        public void close() {
+            pop(System.nanoTime());
+        }
+    }
+
 }
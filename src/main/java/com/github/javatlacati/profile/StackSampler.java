@@ -0,0 +1,270 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.profile;
+
+import com.github.javatlacati.contiperf.util.PeriodicThread;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically samples the call stacks of a set of threads and aggregates them
+ * in a {@link Profile} tree. Each sample adds the sampling period to each
+ * method on the sampled stack, so the total latency of a profile estimates the
+ * time spent in a method and its callees and its self time the time spent in
+ * the method itself. Only samples which a thread takes while it is invoking
+ * a test through a {@code PerformanceTracker} are counted, and the frames of
+ * ContiPerf, JUnit and reflection between the invocation and the tested code
+ * are cut off.
+ * The stacks of all threads are taken in one {@link ThreadMXBean} call.<br>
+ * <br>
+ * Created: 18.10.2026 17:02:24
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+public class StackSampler {
+
+    private static final String INVOCATION_CLASS = "com.github.javatlacati.contiperf.PerformanceTracker";
+
+    private static final String[] INFRASTRUCTURE_PREFIXES = {
+            "java.lang.reflect.", "jdk.internal.reflect.",
+            "sun.reflect.", "org.junit.", "com.github.javatlacati.contiperf."
+    };
+
+    private static final int DEFAULT_HOTSPOT_COUNT = 20;
+
+    private final long period;
+    private final Profiler profiler;
+    private final Set<Thread> threads;
+    private final ThreadMXBean threadBean;
+    private PeriodicThread thread;
+
+    /**
+     * @param name the name of the root profile
+     * @param period the sampling period in milliseconds
+     */
+    public StackSampler(String name, long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Sampling period must be positive: " + period);
+        }
+        this.period = period;
+        this.profiler = new Profiler(name, TimeUnit.MILLISECONDS);
+        this.threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        this.threadBean = ManagementFactory.getThreadMXBean();
+    }
+
+    public long getPeriod() {
+        return period;
+    }
+
+    /** Returns the profile tree which aggregates the samples. */
+    public Profiler getProfiler() {
+        return profiler;
+    }
+
+    /** Includes a thread in sampling. Threads which have terminated are removed. */
+    public void addThread(Thread thread) {
+        if (!threads.contains(thread)) {
+            threads.add(thread);
+        }
+    }
+
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException(this + " has already been started");
+        }
+        thread = new PeriodicThread("ContiPerf stack sampler", period, new Runnable() {
+            @Override
+            public void run() {
+                sample();
+            }
+        });
+        thread.start();
+    }
+
+    public void stop() {
+        PeriodicThread samplerThread;
+        synchronized (this) {
+            if (thread == null) {
+                throw new IllegalStateException("Stopping " + this
+                        + " which is not running");
+            }
+            samplerThread = thread;
+            thread = null;
+        }
+        samplerThread.cancel();
+    }
+
+    /** Takes one sample of the stacks of all threads. */
+    public void sample() {
+        List<Thread> sampledThreads = new ArrayList<>(threads.size());
+        for (Thread candidate : threads) {
+            if (candidate.isAlive()) {
+                sampledThreads.add(candidate);
+            } else {
+                threads.remove(candidate);
+            }
+        }
+        if (sampledThreads.isEmpty()) {
+            return;
+        }
+        long[] ids = new long[sampledThreads.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = sampledThreads.get(i).getId();
+        }
+        for (ThreadInfo info : threadBean.getThreadInfo(ids, Integer.MAX_VALUE)) {
+            if (info != null) {
+                addStack(info.getStackTrace());
+            }
+        }
+    }
+
+    /**
+     * Adds a call stack as one sample, with the innermost frame first like
+     * {@link Thread#getStackTrace()} returns it.
+     */
+    public void addStack(StackTraceElement[] stack) {
+        int first = invocationFrame(stack) - 1;
+        while (first >= 0 && isInfrastructure(frameName(stack[first]))) {
+            first--;
+        }
+        if (first < 0) {
+            return;
+        }
+        Profile profile = profiler.getRootProfile();
+        profile.addSample(period);
+        for (int i = first; i >= 0; i--) {
+            profile = profile.getOrCreateSubProfile(frameName(stack[i]));
+            profile.addSample(period);
+        }
+    }
+
+    /**
+     * Returns the methods with the highest self time, summed up over all
+     * paths on which they were called, in descending order.
+     */
+    public List<Map.Entry<String, Long>> hotspots(int count) {
+        Map<String, Long> selfTimes = new HashMap<>();
+        collectSelfTimes(profiler.getRootProfile(), selfTimes);
+        List<Map.Entry<String, Long>> result = new ArrayList<>(selfTimes.entrySet());
+        Collections.sort(result, new Comparator<Map.Entry<String, Long>>() {
+            public int compare(Map.Entry<String, Long> e1, Map.Entry<String, Long> e2) {
+                return -e1.getValue().compareTo(e2.getValue());
+            }
+        });
+        return result.subList(0, Math.min(count, result.size()));
+    }
+
+    /**
+     * Writes the hotspots to a text file and the profile tree in the folded
+     * stack format to a second file with the suffix '.folded', both in the
+     * given folder and named after the root profile.
+     */
+    public void writeReport(File folder) throws IOException {
+        String name = profiler.getRootProfile().getName();
+        try (PrintWriter out = new PrintWriter(new FileWriter(new File(folder, name + ".hotspots.txt")))) {
+            writeHotspots(out);
+        }
+        try (Writer out = new FileWriter(new File(folder, name + ".folded"))) {
+            profiler.writeFoldedStacks(out);
+        }
+    }
+
+    public void writeHotspots(PrintWriter out) {
+        Profile root = profiler.getRootProfile();
+        long total = root.getTotalLatency();
+        out.println("Hotspots of " + root.getName() + ": " + root.getInvocationCount()
+                + " samples taken every " + period + " ms");
+        if (total == 0) {
+            return;
+        }
+        out.println(" self%   self ms  method");
+        for (Map.Entry<String, Long> hotspot : hotspots(DEFAULT_HOTSPOT_COUNT)) {
+            out.println(String.format("%5.1f%% %9d  %s", hotspot.getValue() * 100. / total,
+                    hotspot.getValue(), hotspot.getKey()));
+        }
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static void collectSelfTimes(Profile profile, Map<String, Long> selfTimes) {
+        for (Profile subProfile : profile.getSubProfiles()) {
+            long selfTime = subProfile.getSelfTime();
+            if (selfTime > 0) {
+                Long sum = selfTimes.get(subProfile.getName());
+                selfTimes.put(subProfile.getName(), (sum != null ? sum : 0) + selfTime);
+            }
+            collectSelfTimes(subProfile, selfTimes);
+        }
+    }
+
+    /** Returns the index of the innermost test invocation frame, or -1. */
+    private static int invocationFrame(StackTraceElement[] stack) {
+        for (int i = 0; i < stack.length; i++) {
+            if (INVOCATION_CLASS.equals(stack[i].getClassName())
+                    && "invoke".equals(stack[i].getMethodName())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String frameName(StackTraceElement frame) {
+        return frame.getClassName() + "." + frame.getMethodName();
+    }
+
+    private static boolean isInfrastructure(String frameName) {
+        for (String prefix : INFRASTRUCTURE_PREFIXES) {
+            if (frameName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // java.lang.Object overrides
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + profiler.getRootProfile().getName() + "]";
+    }
+
+}
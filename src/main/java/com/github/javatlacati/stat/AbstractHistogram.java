@@ -0,0 +1,275 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+/**
+ * Abstract implementation of the {@link Histogram} interface which manages the
+ * bucket array and the summary values. Child classes only define how values
+ * are mapped to buckets. Inherit custom {@link Histogram} implementations from
+ * this class in order to have a better future compatibility.
+ * Percentile and rank queries use an index of cumulative bucket counts which
+ * is built on the first query after a change, so that repeated queries take
+ * logarithmic time.<br>
+ * <br>
+ * Created: 18.10.2026 16:12:13
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public abstract class AbstractHistogram implements Histogram {
+
+    protected long[] counts;
+
+    private long totalCount;
+    private long totalValue;
+    private long minValue;
+    private long maxValue;
+
+    private volatile long[] cumulativeCounts;
+
+    protected AbstractHistogram(int initialBucketCount) {
+        this.counts = new long[Math.max(1, initialBucketCount)];
+        this.totalCount = 0;
+        this.totalValue = 0;
+        this.minValue = -1;
+        this.maxValue = -1;
+    }
+
+    // Histogram interface implementation
+    // ------------------------------------------------------------------------------
+
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        int bucket = bucketIndex(value);
+        if (bucket >= counts.length) {
+            grow(bucket);
+        }
+        counts[bucket]++;
+        if (cumulativeCounts != null) {
+            cumulativeCounts = null;
+        }
+        totalCount++;
+        totalValue += value;
+        if (minValue == -1 || value < minValue) {
+            minValue = value;
+        }
+        if (value > maxValue) {
+            maxValue = value;
+        }
+    }
+
+    /**
+     * Records a value several times at once, e.g. when restoring a histogram
+     * bucket by bucket.
+     */
+    public void record(long value, long count) {
+        if (value < 0 || count < 0) {
+            throw new IllegalArgumentException("Negative value or count: "
+                    + value + " x " + count);
+        }
+        if (count == 0) {
+            return;
+        }
+        int bucket = bucketIndex(value);
+        if (bucket >= counts.length) {
+            grow(bucket);
+        }
+        counts[bucket] += count;
+        cumulativeCounts = null;
+        totalCount += count;
+        totalValue += value * count;
+        if (minValue == -1 || value < minValue) {
+            minValue = value;
+        }
+        if (value > maxValue) {
+            maxValue = value;
+        }
+    }
+
+    public long getCount(long value) {
+        if (value < 0) {
+            return 0;
+        }
+        int bucket = bucketIndex(value);
+        return (bucket < counts.length ? counts[bucket] : 0);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getTotalValue() {
+        return totalValue;
+    }
+
+    public long getMinValue() {
+        return minValue;
+    }
+
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return maxValue;
+        }
+        long targetCount = (long) Math.floor(percentile * totalCount / 100. + 1e-9);
+        long[] cumulative = cumulativeCounts();
+        // binary search for the first bucket which reaches the target count
+        int low = bucketIndex(minValue);
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] >= targetCount) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return highestEquivalentValue(low);
+    }
+
+    public long countAbove(long value) {
+        if (totalCount == 0 || value >= maxValue) {
+            return 0;
+        }
+        long[] cumulative = cumulativeCounts();
+        return cumulative[cumulative.length - 1]
+                - cumulative[bucketIndex(Math.max(value, 0))];
+    }
+
+    public int bucketCount() {
+        return (maxValue >= 0 ? bucketIndex(maxValue) + 1 : 0);
+    }
+
+    public long bucketSamples(int bucket) {
+        return (bucket < counts.length ? counts[bucket] : 0);
+    }
+
+    /**
+     * Adds the samples of another histogram bucket by bucket. The other
+     * histogram may be written concurrently by its owner thread: The count is
+     * summed up from the buckets actually read and minimum and maximum are
+     * widened to these buckets, so the result is always consistent in itself.
+     */
+    public void add(Histogram other) {
+        int otherBuckets = other.bucketCount();
+        long addedCount = 0;
+        int lowestBucket = -1;
+        int highestBucket = -1;
+        for (int otherBucket = 0; otherBucket < otherBuckets; otherBucket++) {
+            long count = other.bucketSamples(otherBucket);
+            if (count > 0) {
+                int bucket = bucketIndex(other.bucketValue(otherBucket));
+                if (bucket >= counts.length) {
+                    grow(bucket);
+                }
+                counts[bucket] += count;
+                addedCount += count;
+                if (lowestBucket == -1) {
+                    lowestBucket = bucket;
+                }
+                highestBucket = bucket;
+            }
+        }
+        if (addedCount == 0) {
+            return;
+        }
+        cumulativeCounts = null;
+        totalCount += addedCount;
+        totalValue += other.getTotalValue();
+        long otherMin = other.getMinValue();
+        if (otherMin < 0 || bucketIndex(otherMin) > lowestBucket) {
+            otherMin = bucketValue(lowestBucket);
+        }
+        if (minValue == -1 || otherMin < minValue) {
+            minValue = otherMin;
+        }
+        long otherMax = Math.max(other.getMaxValue(), bucketValue(highestBucket));
+        if (otherMax > maxValue) {
+            maxValue = otherMax;
+        }
+    }
+
+    // helpers
+    // ---------------------------------------------------------------------------------------------------------
+
+    /**
+     * Replaces the total value, minimum and maximum with exact values, e.g.
+     * of a histogram which has been restored from the lowest values of its
+     * buckets.
+     */
+    void restoreSummary(long totalValue, long minValue, long maxValue) {
+        this.totalValue = totalValue;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.cumulativeCounts = null;
+    }
+
+    /**
+     * Returns the largest value that maps to the given bucket, limited to the
+     * range of values that have actually been recorded.
+     */
+    protected long highestEquivalentValue(int bucket) {
+        long value = bucketValue(bucket + 1) - 1;
+        return Math.max(minValue, Math.min(value, maxValue));
+    }
+
+    /**
+     * Returns the number of samples up to and including each bucket, from
+     * bucket 0 to the bucket of the maximum value.
+     */
+    protected long[] cumulativeCounts() {
+        long[] result = cumulativeCounts;
+        if (result == null) {
+            result = new long[bucketIndex(maxValue) + 1];
+            long sum = 0;
+            for (int bucket = 0; bucket < result.length; bucket++) {
+                sum += counts[bucket];
+                result[bucket] = sum;
+            }
+            cumulativeCounts = result;
+        }
+        return result;
+    }
+
+    protected void grow(int requestedBucket) {
+        int sizingFactor = (requestedBucket + counts.length) / counts.length;
+        long[] newCounts = new long[sizingFactor * counts.length];
+        System.arraycopy(counts, 0, newCounts, 0, counts.length);
+        counts = newCounts;
+    }
+
+    // java.lang.Object overrides
+    // --------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + totalCount + " samples, "
+                + counts.length + " buckets]";
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+/**
+ * Range which contains the true value of an estimated quantity with a given
+ * probability, the confidence level. Intervals are calculated using the normal
+ * approximation, which is appropriate for the large sample counts of
+ * performance tests.<br>
+ * <br>
+ * Created: 18.10.2026 16:36:48
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class ConfidenceInterval {
+
+    public static final double DEFAULT_LEVEL = 0.95;
+
+    private final double lower;
+    private final double upper;
+    private final double level;
+
+    public ConfidenceInterval(double lower, double upper, double level) {
+        this.lower = lower;
+        this.upper = upper;
+        this.level = level;
+    }
+
+    /** Calculates the confidence interval of the mean of the values. */
+    public static ConfidenceInterval ofMean(Moments moments, double level) {
+        double halfWidth = 0;
+        if (moments.getCount() > 1) {
+            halfWidth = criticalValue(level) * moments.getStandardDeviation()
+                    / Math.sqrt((double) moments.getCount());
+        }
+        return new ConfidenceInterval(moments.getMean() - halfWidth,
+                moments.getMean() + halfWidth, level);
+    }
+
+    /**
+     * Calculates the confidence interval of an event rate per second, treating
+     * the number of events in the given time as Poisson-distributed.
+     */
+    public static ConfidenceInterval ofRate(long count, long durationMillis,
+            double level) {
+        if (durationMillis <= 0) {
+            return new ConfidenceInterval(0, 0, level);
+        }
+        double halfWidth = criticalValue(level) * Math.sqrt((double) count);
+        double seconds = durationMillis / 1000.;
+        return new ConfidenceInterval(Math.max(0, count - halfWidth) / seconds,
+                (count + halfWidth) / seconds, level);
+    }
+
+    public double getLower() {
+        return lower;
+    }
+
+    public double getUpper() {
+        return upper;
+    }
+
+    public double getLevel() {
+        return level;
+    }
+
+    public double getHalfWidth() {
+        return (upper - lower) / 2;
+    }
+
+    public double getCenter() {
+        return (upper + lower) / 2;
+    }
+
+    /** Returns the half width relative to the center of the interval. */
+    public double getRelativeMargin() {
+        double center = getCenter();
+        return (center != 0 ? getHalfWidth() / Math.abs(center) : 0);
+    }
+
+    /**
+     * Returns the z value which is exceeded by the absolute value of a
+     * standard normal variable with a probability of <code>1 - level</code>.
+     */
+    public static double criticalValue(double level) {
+        if (level <= 0 || level >= 1) {
+            throw new IllegalArgumentException(
+                    "Confidence level must be between 0 and 1, but was " + level);
+        }
+        return normalQuantile(1 - (1 - level) / 2);
+    }
+
+    /**
+     * Calculates the inverse of the standard normal distribution function
+     * with a relative error below 1.2e-9, using the rational approximation by
+     * Peter J. Acklam.
+     */
+    public static double normalQuantile(double p) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("Probability out of range: " + p);
+        }
+        final double[] a = { -3.969683028665376e+01, 2.209460984245205e+02,
+                -2.759285104469687e+02, 1.383577518672690e+02,
+                -3.066479806614716e+01, 2.506628277459239e+00 };
+        final double[] b = { -5.447609879822406e+01, 1.615858368580409e+02,
+                -1.556989798598866e+02, 6.680131188771972e+01,
+                -1.328068155288572e+01 };
+        final double[] c = { -7.784894002430293e-03, -3.223964580411365e-01,
+                -2.400758277161838e+00, -2.549732539343734e+00,
+                4.374664141464968e+00, 2.938163982698783e+00 };
+        final double[] d = { 7.784695709041462e-03, 3.224671290700398e-01,
+                2.445134137142996e+00, 3.754408661907416e+00 };
+        double pLow = 0.02425;
+        if (p < pLow) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        } else if (p <= 1 - pLow) {
+            double q = p - 0.5;
+            double r = q * q;
+            return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                    / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+        } else {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+    }
+
+    // java.lang.Object overrides
+    // --------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "[" + lower + ", " + upper + "] (" + (level * 100) + "%)";
+    }
+
+}
@@ -0,0 +1,289 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Identity of a {@link LatencyCounter}, consisting of a name and optional
+ * tags, e.g. the name <code>db.query</code> with the tags
+ * <code>table=users</code> and <code>shard=3</code>. Keys are immutable and
+ * meant to be created once and kept, e.g. in a constant. Keys whose tag
+ * values are only known at runtime are looked up by a {@link Template},
+ * which creates each key once:
+ * 
+ * <pre>
+ * private static final CounterKey.Template QUERY = CounterKey.template(&quot;db.query&quot;, &quot;shard&quot;);
+ * ...
+ * repository.addSample(QUERY.with(shardId), latency);
+ * </pre>
+ * 
+ * Keys are rendered
+ * into a stable {@link #getId() id} like
+ * <code>db.query{shard=3,table=users}</code> with the tags in alphabetical
+ * order, which serves as counter name and can be {@link #parse(String)
+ * parsed} back into a key. Tag keys and values must not contain the
+ * characters <code>{}=,</code>.<br>
+ * <br>
+ * Created: 18.10.2026 16:42:42
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public final class CounterKey {
+
+    private final String name;
+    private final SortedMap<String, String> tags;
+    private final String id;
+
+    private CounterKey(String name, SortedMap<String, String> tags) {
+        this.name = name;
+        this.tags = Collections.unmodifiableSortedMap(tags);
+        this.id = renderId(name, tags);
+    }
+
+    public static CounterKey of(String name) {
+        return new CounterKey(name, new TreeMap<String, String>());
+    }
+
+    /**
+     * Creates a key with tags.
+     * 
+     * @param tagKeysAndValues alternating tag keys and values
+     */
+    public static CounterKey of(String name, String... tagKeysAndValues) {
+        if (tagKeysAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException(
+                    "Tags must be specified as key/value pairs");
+        }
+        SortedMap<String, String> tags = new TreeMap<>();
+        for (int i = 0; i < tagKeysAndValues.length; i += 2) {
+            tags.put(checkTag(tagKeysAndValues[i]),
+                    checkTag(tagKeysAndValues[i + 1]));
+        }
+        return new CounterKey(name, tags);
+    }
+
+    public static CounterKey of(String name, Map<String, String> tags) {
+        SortedMap<String, String> sortedTags = new TreeMap<>();
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            sortedTags.put(checkTag(tag.getKey()), checkTag(tag.getValue()));
+        }
+        return new CounterKey(name, sortedTags);
+    }
+
+    /**
+     * Resolves a name and tag keys once, so that the keys for their tag values
+     * can be looked up without rendering them again.
+     */
+    public static Template template(String name, String... tagKeys) {
+        return new Template(name, tagKeys);
+    }
+
+    /**
+     * Creates a key from an {@link #getId() id}. Text which is not in id
+     * format is treated as the name of a key without tags.
+     */
+    public static CounterKey parse(String id) {
+        int open = id.indexOf('{');
+        if (open <= 0 || !id.endsWith("}")) {
+            return of(id);
+        }
+        SortedMap<String, String> tags = new TreeMap<>();
+        String tagSpec = id.substring(open + 1, id.length() - 1);
+        if (tagSpec.length() > 0) {
+            for (String assignment : tagSpec.split(",")) {
+                int separator = assignment.indexOf('=');
+                if (separator < 0) {
+                    return of(id);
+                }
+                tags.put(assignment.substring(0, separator),
+                        assignment.substring(separator + 1));
+            }
+        }
+        return new CounterKey(id.substring(0, open), tags);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Returns the tags sorted by tag key. */
+    public SortedMap<String, String> getTags() {
+        return tags;
+    }
+
+    public String getTag(String key) {
+        return tags.get(key);
+    }
+
+    public boolean hasTags() {
+        return !tags.isEmpty();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Tells if this key has the name of the given key and all of its tags,
+     * e.g. <code>db.query{shard=3,table=users}</code> matches
+     * <code>db.query{table=users}</code> and <code>db.query</code>.
+     */
+    public boolean matches(CounterKey filter) {
+        if (!name.equals(filter.name)) {
+            return false;
+        }
+        for (Map.Entry<String, String> tag : filter.tags.entrySet()) {
+            if (!tag.getValue().equals(tags.get(tag.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // helpers
+    // ---------------------------------------------------------------------------------------------------------
+
+    private static String checkTag(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{' || c == '}' || c == '=' || c == ',') {
+                throw new IllegalArgumentException("Illegal character '" + c
+                        + "' in tag: " + text);
+            }
+        }
+        return text;
+    }
+
+    private static String renderId(String name, Map<String, String> tags) {
+        if (tags.isEmpty()) {
+            return name;
+        }
+        StringBuilder builder = new StringBuilder(name).append('{');
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (builder.charAt(builder.length() - 1) != '{') {
+                builder.append(',');
+            }
+            builder.append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Provides the {@link CounterKey}s of a name and a fixed set of tag keys
+     * by their tag values. Each key is created on its first lookup and kept,
+     * so later lookups allocate nothing but the varargs array, which is
+     * usually eliminated by the JIT. Since the keys are never released, the
+     * tag values should be of bounded cardinality, like shard ids.
+     */
+    public static final class Template {
+
+        private final String name;
+        private final String[] tagKeys;
+        /** Maps the first tag value to a map of the second one and so on, the last level to the keys. */
+        private final ConcurrentMap<String, Object> keys;
+
+        private Template(String name, String[] tagKeys) {
+            if (tagKeys.length == 0) {
+                throw new IllegalArgumentException("A template needs at least one tag key");
+            }
+            for (String tagKey : tagKeys) {
+                checkTag(tagKey);
+            }
+            this.name = name;
+            this.tagKeys = tagKeys.clone();
+            this.keys = new ConcurrentHashMap<>();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the key with the given tag values.
+         * 
+         * @param tagValues the values in the order of the template's tag keys
+         */
+        @SuppressWarnings("unchecked")
+        public CounterKey with(String... tagValues) {
+            if (tagValues.length != tagKeys.length) {
+                throw new IllegalArgumentException("Expected " + tagKeys.length
+                        + " tag values, but got " + tagValues.length);
+            }
+            ConcurrentMap<String, Object> level = keys;
+            int last = tagValues.length - 1;
+            for (int i = 0; i < last; i++) {
+                Object next = level.get(tagValues[i]);
+                if (next == null) {
+                    ConcurrentMap<String, Object> newLevel = new ConcurrentHashMap<>();
+                    next = level.putIfAbsent(checkTag(tagValues[i]), newLevel);
+                    if (next == null) {
+                        next = newLevel;
+                    }
+                }
+                level = (ConcurrentMap<String, Object>) next;
+            }
+            CounterKey result = (CounterKey) level.get(tagValues[last]);
+            if (result == null) {
+                SortedMap<String, String> tags = new TreeMap<>();
+                for (int i = 0; i < tagKeys.length; i++) {
+                    tags.put(tagKeys[i], checkTag(tagValues[i]));
+                }
+                CounterKey newKey = new CounterKey(name, tags);
+                result = (CounterKey) level.putIfAbsent(tagValues[last], newKey);
+                if (result == null) {
+                    result = newKey;
+                }
+            }
+            return result;
+        }
+    }
+
+    // java.lang.Object overrides
+    // --------------------------------------------------------------------------------------
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return (obj instanceof CounterKey && id.equals(((CounterKey) obj).id));
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+
+}
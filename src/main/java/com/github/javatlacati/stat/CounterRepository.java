@@ -25,17 +25,29 @@ package com.github.javatlacati.stat;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import com.github.javatlacati.contiperf.clock.SystemClock;
 
 /**
  * Repository that binds {@link LatencyCounter}s to a name and makes them
- * available to clients.<br>
+ * available to clients. The repository is thread-safe and lock-free. Clients
+ * which record at high rates should resolve their counter once with
+ * {@link #getOrCreateCounter(String)} and record to it directly, which
+ * avoids a lookup by name for each sample. Counters may have dimensions:
+ * A {@link CounterKey} adds tags to the name, and the counters which share a
+ * name can be {@link #aggregate(CounterKey) aggregated} across tags.<br>
  * <br>
  * Created: 14.01.2011 11:26:09
  *
@@ -44,15 +56,20 @@ import java.util.Set;
  */
 public class CounterRepository {
 
-    private Map<String, LatencyCounter> counters;
+    private final ConcurrentMap<String, LatencyCounter> counters;
+    private volatile boolean intervalsEnabled;
+    private final List<CounterRepositoryListener> listeners;
 
     // construction and singleton management
     // ---------------------------------------------------------------------------
 
     private static final CounterRepository INSTANCE = new CounterRepository();
 
-    private CounterRepository() {
-        counters = new HashMap<>();
+    /** Creates a repository which is independent of the {@link #getInstance() singleton}, e.g. for tests. */
+    CounterRepository() {
+        counters = new ConcurrentHashMap<>();
+        intervalsEnabled = false;
+        listeners = new CopyOnWriteArrayList<>();
     }
 
     public static CounterRepository getInstance() {
@@ -62,39 +79,175 @@ public class CounterRepository {
     // CounterRepository interface
     // -------------------------------------------------------------------------------------
 
-    public void addSample(String name, int latency) {
+    public void addSample(String name, long latency) {
         LatencyCounter counter = getOrCreateCounter(name);
         counter.addSample(latency, null);
     }
 
+    /**
+     * Returns the counter of the given name, creating it if necessary. The
+     * counter can be kept as a handle for recording samples. Note that a
+     * handle which is kept across a call to {@link #clear()} records to a
+     * counter which is no longer registered.
+     */
+    public LatencyCounter getOrCreateCounter(String name) {
+        return getOrCreateCounter(name, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the counter of the given name, creating it with the given time
+     * unit if necessary.
+     * 
+     * @throws IllegalArgumentException if the counter exists with a different
+     *             time unit
+     */
+    public LatencyCounter getOrCreateCounter(String name, TimeUnit timeUnit) {
+        return getOrCreateCounter(name, null, timeUnit);
+    }
+
+    public void addSample(CounterKey key, long latency) {
+        getOrCreateCounter(key).addSample(latency, null);
+    }
+
+    public LatencyCounter getOrCreateCounter(CounterKey key) {
+        return getOrCreateCounter(key, TimeUnit.MILLISECONDS);
+    }
+
+    public LatencyCounter getOrCreateCounter(CounterKey key, TimeUnit timeUnit) {
+        return getOrCreateCounter(key.getId(), key, timeUnit);
+    }
+
+    /** @param key the key of the name, or null if it is to be parsed from the name */
+    private LatencyCounter getOrCreateCounter(String name, CounterKey key, TimeUnit timeUnit) {
+        LatencyCounter counter = counters.get(name);
+        if (counter == null) {
+            LatencyCounter newCounter = (key != null
+                    ? new LatencyCounter(key, SystemClock.NAME, timeUnit, new LogLinearHistogram())
+                    : new LatencyCounter(name, SystemClock.NAME, timeUnit, new LogLinearHistogram()));
+            counter = counters.putIfAbsent(name, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+                // checked after publishing the counter, so that a concurrent
+                // enableIntervals() either sees it or is seen here
+                if (intervalsEnabled) {
+                    counter.enableIntervals();
+                }
+                for (CounterRepositoryListener listener : listeners) {
+                    listener.counterCreated(counter);
+                }
+            }
+        }
+        if (counter.getTimeUnit() != timeUnit) {
+            throw new IllegalArgumentException("Counter '" + name
+                    + "' measures in " + counter.getTimeUnit() + ", not in "
+                    + timeUnit);
+        }
+        return counter;
+    }
+
     public LatencyCounter getCounter(String name) {
         return counters.get(name);
     }
 
+    public LatencyCounter getCounter(CounterKey key) {
+        return counters.get(key.getId());
+    }
+
+    /**
+     * Returns all counters whose key {@link CounterKey#matches(CounterKey)
+     * matches} the given filter, e.g. the counters of all shards.
+     */
+    public List<LatencyCounter> getCounters(CounterKey filter) {
+        List<LatencyCounter> result = new ArrayList<>();
+        for (LatencyCounter counter : counters.values()) {
+            if (counter.getKey().matches(filter)) {
+                result.add(counter);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Merges the counters which match the given filter into a new counter,
+     * which is not registered in the repository.
+     * 
+     * @throws IllegalArgumentException if the counters use different time
+     *             units
+     */
+    public LatencyCounter aggregate(CounterKey filter) {
+        List<LatencyCounter> matches = getCounters(filter);
+        TimeUnit timeUnit = (matches.isEmpty() ? TimeUnit.MILLISECONDS
+                : matches.get(0).getTimeUnit());
+        LatencyCounter result = new LatencyCounter(filter, SystemClock.NAME,
+                timeUnit, new LogLinearHistogram());
+        for (LatencyCounter counter : matches) {
+            result.merge(counter);
+        }
+        return result;
+    }
+
     public Set<Map.Entry<String, LatencyCounter>> getCounters() {
         return counters.entrySet();
     }
 
+    /**
+     * Makes the existing counters and those which are created from now on
+     * {@link LatencyCounter#enableIntervals() record intervals}, e.g. for an
+     * {@link IntervalExporter}. The first interval of a counter which is
+     * already recording starts now.
+     */
+    public void enableIntervals() {
+        this.intervalsEnabled = true;
+        for (LatencyCounter counter : counters.values()) {
+            counter.enableIntervals();
+        }
+    }
+
+    public boolean isIntervalsEnabled() {
+        return intervalsEnabled;
+    }
+
+    public void addListener(CounterRepositoryListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(CounterRepositoryListener listener) {
+        listeners.remove(listener);
+    }
+
     public void clear() {
-        counters.clear();
+        for (String name : counters.keySet()) {
+            LatencyCounter counter = counters.remove(name);
+            if (counter != null) {
+                for (CounterRepositoryListener listener : listeners) {
+                    listener.counterRemoved(counter);
+                }
+            }
+        }
     }
 
     public void printSummary() {
         DecimalFormat df = new DecimalFormat("0.0",
                 DecimalFormatSymbols.getInstance(Locale.US));
-        List<String[]> list = new ArrayList<>(counters.size());
-        List<LatencyCounter> sortedCounters = new ArrayList<>(
-				counters.values());
-        Collections.sort(sortedCounters, new Comparator<LatencyCounter>() {
-            public int compare(LatencyCounter c1, LatencyCounter c2) {
-                return -Long.valueOf(c1.totalLatency()).compareTo(c2.totalLatency());
+        // merge each counter's histogram once, not on every comparison
+        List<SummaryRow> rows = new ArrayList<>(counters.size());
+        for (LatencyCounter counter : withAggregates(counters.values())) {
+            Histogram histogram = counter.getHistogram();
+            long total = histogram.getTotalValue();
+            long count = histogram.getTotalCount();
+            rows.add(new SummaryRow(counter.getTimeUnit().toNanos(total), new String[]{label(counter) + ":",
+                    total + " " + counter.getUnitSymbol() + " total,",
+                    count + " inv,",
+                    df.format((double) total / count) + " " + counter.getUnitSymbol() + "/inv (avg.)"}));
+        }
+        Collections.sort(rows, new Comparator<SummaryRow>() {
+            public int compare(SummaryRow r1, SummaryRow r2) {
+                return -Long.valueOf(r1.totalNanos).compareTo(r2.totalNanos);
             }
         });
-        for (LatencyCounter counter : sortedCounters) {
-            list.add(new String[]{counter.getName() + ":",
-                    counter.totalLatency() + " ms total,",
-                    counter.sampleCount() + " inv,",
-                    df.format(counter.averageLatency()) + " ms/inv (avg.)"});
+        List<String[]> list = new ArrayList<>(rows.size());
+        for (SummaryRow row : rows) {
+            list.add(row.cells);
         }
         printSummaryTable(list);
     }
@@ -102,21 +255,43 @@ public class CounterRepository {
     // helper methods
     // --------------------------------------------------------------------------------------------------
 
-    private LatencyCounter getOrCreateCounter(String name) {
-        LatencyCounter counter = getCounter(name);
-        if (counter == null) {
-            counter = createCounter(name);
+    /** Adds a counter per name which aggregates the name's tagged counters. */
+    private List<LatencyCounter> withAggregates(Collection<LatencyCounter> counters) {
+        Map<String, List<LatencyCounter>> taggedByName = new LinkedHashMap<>();
+        for (LatencyCounter counter : counters) {
+            CounterKey key = counter.getKey();
+            if (key.hasTags()) {
+                List<LatencyCounter> group = taggedByName.get(key.getName());
+                if (group == null) {
+                    group = new ArrayList<>();
+                    taggedByName.put(key.getName(), group);
+                }
+                group.add(counter);
+            }
         }
-        return counter;
+        List<LatencyCounter> result = new ArrayList<>(counters);
+        for (Map.Entry<String, List<LatencyCounter>> group : taggedByName.entrySet()) {
+            if (group.getValue().size() > 1 && sameTimeUnit(group.getValue())) {
+                result.add(aggregate(CounterKey.of(group.getKey())));
+            }
+        }
+        return result;
     }
 
-    private synchronized LatencyCounter createCounter(String name) {
-        LatencyCounter counter = getCounter(name);
-        if (counter == null) {
-            counter = new LatencyCounter(name);
-            counters.put(name, counter);
+    private static boolean sameTimeUnit(List<LatencyCounter> counters) {
+        for (LatencyCounter counter : counters) {
+            if (counter.getTimeUnit() != counters.get(0).getTimeUnit()) {
+                return false;
+            }
         }
-        return counter;
+        return true;
+    }
+
+    private String label(LatencyCounter counter) {
+        if (counters.get(counter.getName()) != counter) {
+            return counter.getName() + "{*}";
+        }
+        return counter.getName();
     }
 
     private void printSummaryTable(List<String[]> list) {
@@ -154,4 +329,15 @@ public class CounterRepository {
         }
     }
 
+    private static final class SummaryRow {
+
+        final long totalNanos;
+        final String[] cells;
+
+        SummaryRow(long totalNanos, String[] cells) {
+            this.totalNanos = totalNanos;
+            this.cells = cells;
+        }
+    }
+
 }
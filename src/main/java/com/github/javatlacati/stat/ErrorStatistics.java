@@ -0,0 +1,134 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.javatlacati.contiperf.PerfTestExecutionError;
+
+/**
+ * Counts failed invocations per exception type and keeps only a bounded
+ * sample of the errors themselves, so that a failing high-volume test does
+ * not retain an error object with stack trace for each invocation. The first
+ * errors are retained, since the first one is usually the most telling.<br>
+ * <br>
+ * Created: 18.10.2026 16:32:31
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class ErrorStatistics {
+
+    public static final int DEFAULT_MAX_SAMPLES = 10;
+
+    private final int maxSamples;
+    private final AtomicLong count;
+    private final ConcurrentMap<String, AtomicLong> countsByType;
+    private final List<PerfTestExecutionError> samples;
+
+    public ErrorStatistics() {
+        this(DEFAULT_MAX_SAMPLES);
+    }
+
+    public ErrorStatistics(int maxSamples) {
+        this.maxSamples = maxSamples;
+        this.count = new AtomicLong();
+        this.countsByType = new ConcurrentHashMap<>();
+        this.samples = new ArrayList<>(0);
+    }
+
+    public void add(PerfTestExecutionError error) {
+        count.incrementAndGet();
+        String type = typeOf(error);
+        AtomicLong typeCount = countsByType.get(type);
+        if (typeCount == null) {
+            AtomicLong newCount = new AtomicLong();
+            typeCount = countsByType.putIfAbsent(type, newCount);
+            if (typeCount == null) {
+                typeCount = newCount;
+            }
+        }
+        typeCount.incrementAndGet();
+        if (samples.size() < maxSamples) {
+            synchronized (samples) {
+                if (samples.size() < maxSamples) {
+                    samples.add(error);
+                }
+            }
+        }
+    }
+
+    /** Adds the counts of errors which have been recorded elsewhere. */
+    public void add(String type, long errorCount) {
+        if (errorCount <= 0) {
+            return;
+        }
+        count.addAndGet(errorCount);
+        AtomicLong typeCount = countsByType.putIfAbsent(type, new AtomicLong(errorCount));
+        if (typeCount != null) {
+            typeCount.addAndGet(errorCount);
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public int getMaxSamples() {
+        return maxSamples;
+    }
+
+    /** Returns the error counts per exception class name, sorted by name. */
+    public Map<String, Long> getCountsByType() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> entry : countsByType.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return result;
+    }
+
+    /** Returns the first {@link #getMaxSamples()} errors. */
+    public List<PerfTestExecutionError> getSamples() {
+        synchronized (samples) {
+            return Collections.unmodifiableList(new ArrayList<>(samples));
+        }
+    }
+
+    /**
+     * Determines the type by which an error is counted: the class of the
+     * exception wrapped by a {@link PerfTestExecutionError}, or the class of
+     * the error itself if it does not wrap an exception.
+     */
+    public static String typeOf(PerfTestExecutionError error) {
+        Throwable cause = error.getCause();
+        return (cause != null ? cause : error).getClass().getName();
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+/**
+ * Extension interface for the storage backend of a {@link LatencyCounter}. A
+ * histogram maps each recorded value to a bucket and counts the samples per
+ * bucket. Buckets are addressed by a zero-based index and cover the value
+ * range from {@link #bucketValue(int)} to {@code bucketValue(index + 1) - 1}.
+ * Implementations need not be thread-safe: a {@link LatencyCounter} records
+ * into one histogram per thread, created by {@link #newInstance()}, and
+ * {@link #add(Histogram) adds} them up for evaluation.<br>
+ * <br>
+ * Created: 18.10.2026 16:12:13
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ * @see LinearHistogram
+ * @see LogLinearHistogram
+ */
+public interface Histogram {
+
+    void record(long value);
+
+    long getCount(long value);
+
+    long getTotalCount();
+
+    long getTotalValue();
+
+    long getMinValue();
+
+    long getMaxValue();
+
+    /**
+     * Returns the latency which is not exceeded by the given percentage of
+     * samples. Fractional percentiles like 99.9 are supported.
+     */
+    long valueAtPercentile(double percentile);
+
+    long countAbove(long value);
+
+    int bucketCount();
+
+    int bucketIndex(long value);
+
+    long bucketValue(int bucket);
+
+    long bucketSamples(int bucket);
+
+    /** Creates an empty histogram with the same configuration as this one. */
+    Histogram newInstance();
+
+    /** Adds all samples of the other histogram to this one. */
+    void add(Histogram other);
+
+}
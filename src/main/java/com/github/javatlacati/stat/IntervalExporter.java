@@ -0,0 +1,294 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Map;
+
+import com.github.javatlacati.contiperf.util.ContiPerfUtil;
+import com.github.javatlacati.contiperf.util.PeriodicThread;
+
+/**
+ * Exports the statistics of all counters of a {@link CounterRepository}
+ * periodically to a local file, providing continuous latency telemetry from
+ * {@link com.github.javatlacati.contiperf.StopWatch} instrumentation in
+ * long-running processes. Every period, a daemon thread swaps each counter's
+ * interval histograms for empty ones, which does not block recording
+ * threads, and appends one line per counter with the number of samples,
+ * throughput, average, percentiles and maximum of the period. Counters
+ * without samples in a period are omitted. Lines are written as CSV or as
+ * JSON objects, one per line. When the file exceeds its
+ * {@link #setMaxFileSize(long) maximum size}, it is renamed by appending
+ * <code>.1</code>, older files are shifted to <code>.2</code> and so on, up
+ * to the {@link #setMaxBackups(int) maximum number of backups}.
+ * <p>
+ * Starting the exporter makes all counters of the repository record
+ * intervals. For counters which are already in use, the first exported
+ * period starts with the exporter.
+ * 
+ * <pre>
+ * IntervalExporter exporter = new IntervalExporter(new File(&quot;latencies.jsonl&quot;),
+ * 	10000, IntervalExporter.Format.JSON);
+ * exporter.start();
+ * </pre>
+ * 
+ * <br>
+ * Created: 18.10.2026 16:46:05
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class IntervalExporter {
+
+    /** The output format. */
+    public enum Format {
+        CSV, JSON
+    }
+
+    public static final long DEFAULT_MAX_FILE_SIZE = 10 * 1024 * 1024;
+    public static final int DEFAULT_MAX_BACKUPS = 3;
+
+    private static final String LINE_SEPARATOR = System
+            .getProperty("line.separator");
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final CounterRepository repository;
+    private final File file;
+    private final long period;
+    private final Format format;
+    private long maxFileSize;
+    private int maxBackups;
+    private final DecimalFormat numberFormat;
+    private PeriodicThread thread;
+
+    public IntervalExporter(File file, long periodMillis, Format format) {
+        this(CounterRepository.getInstance(), file, periodMillis, format);
+    }
+
+    public IntervalExporter(CounterRepository repository, File file,
+            long periodMillis, Format format) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Illegal export period: "
+                    + periodMillis);
+        }
+        this.repository = repository;
+        this.file = file;
+        this.period = periodMillis;
+        this.format = format;
+        this.maxFileSize = DEFAULT_MAX_FILE_SIZE;
+        this.maxBackups = DEFAULT_MAX_BACKUPS;
+        this.numberFormat = new DecimalFormat("0.###",
+                DecimalFormatSymbols.getInstance(Locale.US));
+        this.numberFormat.setGroupingUsed(false);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(long maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public int getMaxBackups() {
+        return maxBackups;
+    }
+
+    public void setMaxBackups(int maxBackups) {
+        this.maxBackups = maxBackups;
+    }
+
+    // interface
+    // -------------------------------------------------------------------------------------------------------
+
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException(this + " has already been started");
+        }
+        repository.enableIntervals();
+        thread = new PeriodicThread("ContiPerf interval exporter", period, new Runnable() {
+            @Override
+            public void run() {
+                export();
+            }
+        });
+        thread.start();
+    }
+
+    /** Stops the periodic export and exports the last, partial period. */
+    public void stop() {
+        PeriodicThread exportThread;
+        synchronized (this) {
+            if (thread == null) {
+                throw new IllegalStateException("Stopping " + this
+                        + " which is not running");
+            }
+            exportThread = thread;
+            thread = null;
+        }
+        // cancel without holding the lock which the thread needs for export()
+        exportThread.cancel();
+        export();
+    }
+
+    /** Exports the samples which have been recorded since the last export. */
+    public synchronized void export() {
+        StringBuilder lines = new StringBuilder();
+        for (Map.Entry<String, LatencyCounter> entry : repository.getCounters()) {
+            LatencyCounter counter = entry.getValue();
+            if (counter.isIntervalsEnabled()) {
+                IntervalSnapshot snapshot = counter.takeInterval();
+                if (snapshot.sampleCount() > 0) {
+                    appendLine(counter.getKey(), snapshot, lines);
+                }
+            }
+        }
+        if (lines.length() > 0) {
+            write(lines.toString());
+        }
+    }
+
+    // helpers
+    // ---------------------------------------------------------------------------------------------------------
+
+    private void write(String lines) {
+        if (file.length() >= maxFileSize) {
+            roll();
+        }
+        OutputStream out = null;
+        try {
+            boolean newFile = (file.length() == 0);
+            out = new FileOutputStream(file, true);
+            if (newFile && format == Format.CSV) {
+                out.write(("time,counter,unit,count,throughput,average,median,90%,99%,99.9%,max"
+                        + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8));
+            }
+            out.write(lines.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            ContiPerfUtil.close(out);
+        }
+    }
+
+    private void roll() {
+        if (maxBackups <= 0) {
+            if (!file.delete()) {
+                System.err.println("Could not delete " + file);
+            }
+            return;
+        }
+        File oldest = backup(maxBackups);
+        if (oldest.exists() && !oldest.delete()) {
+            System.err.println("Could not delete " + oldest);
+        }
+        for (int i = maxBackups - 1; i >= 1; i--) {
+            File backup = backup(i);
+            if (backup.exists() && !backup.renameTo(backup(i + 1))) {
+                System.err.println("Could not rename " + backup);
+            }
+        }
+        if (!file.renameTo(backup(1))) {
+            System.err.println("Could not rename " + file);
+        }
+    }
+
+    private File backup(int index) {
+        return new File(file.getPath() + "." + index);
+    }
+
+    private void appendLine(CounterKey key, IntervalSnapshot snapshot,
+            StringBuilder out) {
+        if (format == Format.CSV) {
+            out.append(snapshot.getEndTime()).append(',')
+                    .append(ContiPerfUtil.csvText(key.getId())).append(',')
+                    .append(snapshot.getTimeUnit()).append(',')
+                    .append(snapshot.sampleCount()).append(',')
+                    .append(numberFormat.format(snapshot.throughput())).append(',')
+                    .append(numberFormat.format(snapshot.averageLatency()));
+            for (double percentile : PERCENTILES) {
+                out.append(',').append(snapshot.percentileLatency(percentile));
+            }
+            out.append(',').append(snapshot.maxLatency());
+        } else {
+            out.append("{\"time\":").append(snapshot.getEndTime())
+                    .append(",\"counter\":").append(jsonText(key.getId()))
+                    .append(",\"name\":").append(jsonText(key.getName()))
+                    .append(",\"tags\":{");
+            boolean first = true;
+            for (Map.Entry<String, String> tag : key.getTags().entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                out.append(jsonText(tag.getKey())).append(':')
+                        .append(jsonText(tag.getValue()));
+                first = false;
+            }
+            out.append("},\"unit\":\"").append(snapshot.getTimeUnit())
+                    .append("\",\"count\":").append(snapshot.sampleCount())
+                    .append(",\"throughput\":").append(numberFormat.format(snapshot.throughput()))
+                    .append(",\"average\":").append(numberFormat.format(snapshot.averageLatency()));
+            for (double percentile : PERCENTILES) {
+                out.append(",\"p").append(ContiPerfUtil.formatPercentage(percentile))
+                        .append("\":").append(snapshot.percentileLatency(percentile));
+            }
+            out.append(",\"max\":").append(snapshot.maxLatency()).append('}');
+        }
+        out.append(LINE_SEPARATOR);
+    }
+
+    private static String jsonText(String text) {
+        StringBuilder builder = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < ' ') {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    // java.lang.Object overrides
+    // --------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + file + "]";
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the latencies which a {@link LatencyCounter} recorded in a time
+ * interval. Snapshots are created by {@link LatencyCounter#rotateInterval()}
+ * and form a timeline of the test run.<br>
+ * <br>
+ * Created: 18.10.2026 16:26:44
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class IntervalSnapshot {
+
+    private final long startTime;
+    private final long endTime;
+    private final TimeUnit timeUnit;
+    private final Histogram histogram;
+
+    public IntervalSnapshot(long startTime, long endTime, TimeUnit timeUnit,
+            Histogram histogram) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.timeUnit = timeUnit;
+        this.histogram = histogram;
+    }
+
+    /** Returns the start of the interval in milliseconds since the epoch. */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /** Returns the end of the interval in milliseconds since the epoch. */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public long duration() {
+        return endTime - startTime;
+    }
+
+    /** Returns the unit of the latency values. */
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    public long sampleCount() {
+        return histogram.getTotalCount();
+    }
+
+    /** Returns the number of samples per second. */
+    public double throughput() {
+        long duration = duration();
+        return (duration > 0 ? 1000. * sampleCount() / duration : 0);
+    }
+
+    public double averageLatency() {
+        long count = sampleCount();
+        return (count > 0 ? (double) histogram.getTotalValue() / count : 0);
+    }
+
+    public long percentileLatency(double percentile) {
+        return Math.max(histogram.valueAtPercentile(percentile), 0);
+    }
+
+    public long maxLatency() {
+        return Math.max(histogram.getMaxValue(), 0);
+    }
+
+    // java.lang.Object overrides
+    // --------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + startTime + "-" + endTime
+                + ", " + sampleCount() + " samples]";
+    }
+
+}
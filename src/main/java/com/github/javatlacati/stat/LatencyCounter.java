@@ -23,14 +23,44 @@
 package com.github.javatlacati.stat;
 
 import java.io.PrintWriter;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.github.javatlacati.contiperf.PerfTestExecutionError;
 import com.github.javatlacati.contiperf.clock.SystemClock;
 
 /**
- * Counts latencies and calculates performance-related statistics.<br>
+ * Counts latencies and calculates performance-related statistics. All latency
+ * values are expressed in the counter's {@link #getTimeUnit() time unit},
+ * which is milliseconds by default. Recording threads are spread by their
+ * thread id over a fixed number of stripes, each of which has a
+ * {@link Histogram} of its own that is guarded by a short lock. So threads
+ * rarely contend, and the memory consumption and the cost of a merge do not
+ * depend on the number of threads which have recorded. The stripes are
+ * merged when statistics are queried and the merge result is cached once the
+ * counter has been stopped. Failed invocations are counted in
+ * {@link ErrorStatistics}, which keep only a bounded sample of the errors, and
+ * their latencies go to a separate {@link #getErrorHistogram() histogram}.
+ * <p>
+ * Besides the histogram, each stripe maintains the exact {@link Moments} of
+ * its latencies, from which the standard deviation and
+ * {@link ConfidenceInterval}s for the average latency and the throughput are
+ * calculated.
+ * <p>
+ * When an {@link #setExpectedInterval(long) expected interval} between
+ * invocations is set, the counter additionally maintains a histogram which is
+ * corrected for coordinated omission: A closed-loop test does not issue
+ * requests while waiting for a slow invocation, so for each interval by which
+ * a sample exceeds the expected interval, a sample is back-filled which the
+ * missed request would have experienced.
+ * <p>
+ * When {@link #enableIntervals() intervals are enabled}, each stripe
+ * additionally records into an interval histogram which is swapped for an
+ * empty one by {@link #rotateInterval()}, yielding a timeline of
+ * {@link IntervalSnapshot}s.<br>
  * <br>
  * Created: Created: 14.12.2006 18:11:58
  * 
@@ -40,33 +70,85 @@ import com.github.javatlacati.contiperf.clock.SystemClock;
 public final class LatencyCounter {
 
     private String name;
+    private final CounterKey key;
     private String clockName;
-
-    private int minLatency;
-    private int maxLatency;
-    private long latencyCounts[];
+    private TimeUnit timeUnit;
+
+    /** The number of stripes which record samples, a power of two. */
+    static final int STRIPES = Integer.highestOneBit(
+	    Math.max(1, 2 * Runtime.getRuntime().availableProcessors() - 1)) << 1;
+
+    private final Histogram prototype;
+    /** The recording stripes followed by one for {@link #merge(LatencyCounter) merged} statistics. */
+    private final AtomicReferenceArray<Stripe> stripes;
+    private volatile Histogram merged;
+    private volatile Histogram mergedCorrected;
+    private volatile Moments mergedMoments;
+    private long expectedInterval;
+    private volatile boolean intervalsEnabled;
+    private long intervalStartTime;
+    private final List<IntervalSnapshot> intervals;
 
     private boolean running;
     private long startTime;
     private long endTime;
-    private long sampleCount;
-    private long totalLatency;
 
-    private List<PerfTestExecutionError> assertionErrors = new ArrayList<>(
-			0);
+    private final ErrorStatistics errors;
 
     public LatencyCounter(String name) {
-	this(name, SystemClock.NAME, 1000);
+	this(name, SystemClock.NAME, new LogLinearHistogram());
     }
 
+    /**
+     * @deprecated the expected maximum latency is not needed any longer,
+     *             since the default {@link LogLinearHistogram} does not
+     *             preallocate per-millisecond slots. Use
+     *             {@link #LatencyCounter(String, String, Histogram)} for
+     *             choosing a different {@link Histogram} implementation.
+     */
+    @Deprecated
     public LatencyCounter(String name, String clockName, int expectedMaxLatency) {
+	this(name, clockName, new LogLinearHistogram());
+    }
+
+    public LatencyCounter(String name, String clockName, Histogram histogram) {
+	this(name, clockName, TimeUnit.MILLISECONDS, histogram);
+    }
+
+    /**
+     * @param histogram serves as a template: each stripe gets an empty
+     *            {@link Histogram#newInstance() copy} of it.
+     */
+    public LatencyCounter(String name, String clockName, TimeUnit timeUnit,
+	    Histogram histogram) {
+	this(name, CounterKey.parse(name), clockName, timeUnit, histogram);
+    }
+
+    /**
+     * Creates a counter which is named by the {@link CounterKey#getId() id}
+     * of the given key.
+     */
+    public LatencyCounter(CounterKey key, String clockName, TimeUnit timeUnit,
+	    Histogram histogram) {
+	this(key.getId(), key, clockName, timeUnit, histogram);
+    }
+
+    private LatencyCounter(String name, CounterKey key, String clockName,
+	    TimeUnit timeUnit, Histogram histogram) {
 	this.name = name;
+	this.key = key;
 	this.clockName = clockName;
-	this.latencyCounts = new long[1 + expectedMaxLatency];
-	this.sampleCount = 0;
-	this.totalLatency = 0;
-	this.minLatency = -1;
-	this.maxLatency = -1;
+	this.timeUnit = timeUnit;
+	this.prototype = histogram;
+	this.stripes = new AtomicReferenceArray<>(STRIPES + 1);
+	this.merged = null;
+	this.mergedCorrected = null;
+	this.mergedMoments = null;
+	this.expectedInterval = -1;
+	this.intervalsEnabled = false;
+	this.intervalStartTime = -1;
+	this.intervals = new CopyOnWriteArrayList<>();
+	this.errors = new ErrorStatistics();
 	this.startTime = -1;
 	this.endTime = -1;
     }
@@ -75,10 +157,87 @@ public final class LatencyCounter {
 	return name;
     }
 
+    /**
+     * Returns the name and tags of the counter, which are parsed from its name
+     * unless it has been created with a key.
+     */
+    public CounterKey getKey() {
+	return key;
+    }
+
     public String getClockName() {
 	return clockName;
     }
 
+    public TimeUnit getTimeUnit() {
+	return timeUnit;
+    }
+
+    public long getExpectedInterval() {
+	return expectedInterval;
+    }
+
+    /**
+     * Activates coordinated omission correction.
+     * 
+     * @param expectedInterval the expected time between two invocations of a
+     *            thread in the counter's {@link #getTimeUnit() time unit}, a
+     *            value of zero or less deactivates correction
+     * @throws IllegalStateException if samples have already been recorded
+     */
+    public void setExpectedInterval(long expectedInterval) {
+	if (stripeCount() > 0) {
+	    throw new IllegalStateException(
+		    "Expected interval must be set before recording samples");
+	}
+	this.expectedInterval = expectedInterval;
+    }
+
+    public boolean isCorrected() {
+	return expectedInterval > 0;
+    }
+
+    /**
+     * Activates recording of interval histograms for
+     * {@link #rotateInterval()}. If the counter is already recording, the
+     * first interval starts now and the samples recorded before do not belong
+     * to any interval. Calling the method again has no effect.
+     */
+    public synchronized void enableIntervals() {
+	if (!intervalsEnabled) {
+	    this.intervalStartTime = System.currentTimeMillis();
+	    this.intervalsEnabled = true;
+	}
+    }
+
+    public boolean isIntervalsEnabled() {
+	return intervalsEnabled;
+    }
+
+    /** Returns the abbreviation of the {@link #getTimeUnit() time unit}. */
+    public String getUnitSymbol() {
+	return unitSymbol(timeUnit);
+    }
+
+    public static String unitSymbol(TimeUnit unit) {
+	switch (unit) {
+	case NANOSECONDS:
+	    return "ns";
+	case MICROSECONDS:
+	    return "\u00b5s";
+	case MILLISECONDS:
+	    return "ms";
+	case SECONDS:
+	    return "s";
+	case MINUTES:
+	    return "min";
+	case HOURS:
+	    return "h";
+	default:
+	    return "d";
+	}
+    }
+
     // interface
     // -------------------------------------------------------------------------------------------------------
 
@@ -87,29 +246,90 @@ public final class LatencyCounter {
 	    throw new IllegalStateException(this + " has already been started");
 	}
 	this.startTime = System.currentTimeMillis();
+	this.intervalStartTime = startTime;
 	this.running = true;
     }
 
-    public synchronized void addSample(int latency,
-	    PerfTestExecutionError assertionError) {
+    public void addSample(long latency, PerfTestExecutionError assertionError) {
 	if (null != assertionError) {
-	    this.assertionErrors.add(assertionError);
-	} else {
-	    if (latency >= latencyCounts.length) {
-		resize(latency);
-	    }
-	    latencyCounts[latency]++;
-	    sampleCount++;
-	    totalLatency += latency;
-	    if (minLatency == -1 || latency < minLatency) {
-		minLatency = latency;
-	    }
-	    if (latency > maxLatency) {
-		maxLatency = latency;
+	    errors.add(assertionError);
+	    if (latency >= 0) {
+		threadStripe().recordError(latency);
 	    }
+	} else {
+	    threadStripe().record(latency);
+	}
+	if (merged != null) {
+	    merged = null;
+	    mergedCorrected = null;
+	    mergedMoments = null;
 	}
     }
 
+    /**
+     * Adds the statistics of another counter, e.g. of a different shard or
+     * JVM. Merging assumes that the counters have recorded concurrently: The
+     * time span is widened to cover both counters, so the throughput is the
+     * combined throughput of all shards. For counters of consecutive runs, the
+     * throughput is averaged over the whole span including pauses between the
+     * runs.
+     * 
+     * @throws IllegalArgumentException if the other counter uses a different
+     *             time unit, or if only one of the counters is corrected for
+     *             coordinated omission
+     */
+    public void merge(LatencyCounter other) {
+	if (other.getTimeUnit() != timeUnit) {
+	    throw new IllegalArgumentException("Cannot merge " + other.getName()
+		    + " measured in " + other.getTimeUnit() + " into a counter of "
+		    + timeUnit);
+	}
+	merge(other.getHistogram(),
+		other.isCorrected() ? other.getCorrectedHistogram() : null,
+		other.getErrorHistogram(), other.getMoments(), other.getStartTime(),
+		other.getEndTime(), other.getErrorStatistics().getCountsByType());
+    }
+
+    /**
+     * Adds statistics which have been recorded elsewhere, e.g. read by a
+     * {@link LatencyCounterCodec}. The merged histograms are accumulated in
+     * one histogram, so merging any number of counters takes constant
+     * memory.
+     * 
+     * @param corrected the histogram corrected for coordinated omission, or
+     *            null if the statistics have not been corrected
+     * @param errorHistogram the latencies of failed invocations
+     * @param moments the moments of the latencies in <code>histogram</code>
+     * @param errorCounts the number of failed invocations per exception type
+     * @throws IllegalArgumentException if <code>corrected</code> is null
+     *             while this counter {@link #isCorrected() is corrected}, or
+     *             the other way round
+     */
+    public synchronized void merge(Histogram histogram, Histogram corrected,
+	    Histogram errorHistogram, Moments moments, long startTime,
+	    long endTime, Map<String, Long> errorCounts) {
+	if ((corrected != null) != isCorrected()) {
+	    // raw samples would understate the corrected latencies
+	    throw new IllegalArgumentException("Cannot merge "
+		    + (corrected != null ? "corrected" : "uncorrected")
+		    + " statistics into " + (isCorrected() ? "corrected" : "uncorrected")
+		    + " counter " + name);
+	}
+	stripe(STRIPES).add(histogram, corrected, errorHistogram, moments);
+	for (Map.Entry<String, Long> entry : errorCounts.entrySet()) {
+	    errors.add(entry.getKey(), entry.getValue());
+	}
+	if (startTime >= 0 && (this.startTime == -1 || startTime < this.startTime)) {
+	    this.startTime = startTime;
+	}
+	if (endTime > this.endTime) {
+	    this.endTime = endTime;
+	}
+	this.merged = null;
+	this.mergedCorrected = null;
+	this.mergedMoments = null;
+    }
+
     public void stop() {
 	if (!running) {
 	    throw new IllegalStateException("Stopping " + this
@@ -117,6 +337,51 @@ public final class LatencyCounter {
 	}
 	this.running = false;
 	this.endTime = System.currentTimeMillis();
+	this.merged = merge(false);
+	if (isCorrected()) {
+	    this.mergedCorrected = merge(true);
+	}
+	this.mergedMoments = mergeMoments();
+    }
+
+    /**
+     * Swaps each stripe's interval histogram for an empty one and combines the
+     * samples recorded since the previous call into an
+     * {@link IntervalSnapshot}, which is also added to the
+     * {@link #getIntervals() timeline}.
+     */
+    public synchronized IntervalSnapshot rotateInterval() {
+	IntervalSnapshot snapshot = takeInterval();
+	intervals.add(snapshot);
+	return snapshot;
+    }
+
+    /**
+     * Works like {@link #rotateInterval()}, but does not add the snapshot to
+     * the timeline, so the counter's memory consumption does not grow when it
+     * is rotated periodically for a long time.
+     */
+    public synchronized IntervalSnapshot takeInterval() {
+	if (!intervalsEnabled) {
+	    throw new IllegalStateException("Intervals are not enabled for " + this);
+	}
+	long now = System.currentTimeMillis();
+	Histogram histogram = prototype.newInstance();
+	for (int i = 0; i < STRIPES; i++) {
+	    Stripe stripe = stripes.get(i);
+	    if (stripe != null) {
+		stripe.takeInterval(histogram);
+	    }
+	}
+	IntervalSnapshot snapshot = new IntervalSnapshot(intervalStartTime, now,
+		timeUnit, histogram);
+	intervalStartTime = now;
+	return snapshot;
+    }
+
+    /** Returns the {@link IntervalSnapshot}s in the order of their creation. */
+    public List<IntervalSnapshot> getIntervals() {
+	return intervals;
     }
 
     public boolean isRunning() {
@@ -127,61 +392,168 @@ public final class LatencyCounter {
 	return startTime;
     }
 
+    /**
+     * Returns the number of samples that were recorded in the
+     * {@link Histogram} bucket which contains the given latency.
+     */
     public long getLatencyCount(long latency) {
-	if (latency < latencyCounts.length) {
-	    return latencyCounts[(int) latency];
-	} else {
-	    return 0;
+	return getHistogram().getCount(latency);
+    }
+
+    /**
+     * Returns a {@link Histogram} with the samples of all stripes. While the
+     * counter is running, the histogram is a snapshot which is not updated by
+     * later samples.
+     */
+    public Histogram getHistogram() {
+	Histogram result = merged;
+	return (result != null ? result : merge(false));
+    }
+
+    /**
+     * Returns the {@link Histogram} which is corrected for coordinated
+     * omission, or the raw {@link #getHistogram() histogram} if correction is
+     * not active.
+     */
+    public Histogram getCorrectedHistogram() {
+	if (!isCorrected()) {
+	    return getHistogram();
 	}
+	Histogram result = mergedCorrected;
+	return (result != null ? result : merge(true));
     }
 
+    /**
+     * Returns a sample of the errors which occurred: the first
+     * {@link ErrorStatistics#getMaxSamples()} ones. Use {@link #errorCount()}
+     * for the number of failed invocations.
+     */
     public List<PerfTestExecutionError> getAssertionErrors() {
-	return assertionErrors;
+	return errors.getSamples();
+    }
+
+    public ErrorStatistics getErrorStatistics() {
+	return errors;
+    }
+
+    /**
+     * Returns the number of failed invocations, including those of
+     * {@link #merge(LatencyCounter) merged} counters.
+     */
+    public long errorCount() {
+	return errors.getCount();
+    }
+
+    /** Returns a {@link Histogram} of the latencies of failed invocations. */
+    public Histogram getErrorHistogram() {
+	Histogram result = prototype.newInstance();
+	for (int i = 0; i <= STRIPES; i++) {
+	    Stripe stripe = stripes.get(i);
+	    if (stripe != null) {
+		stripe.addErrors(result);
+	    }
+	}
+	return result;
+    }
+
+    public long getEndTime() {
+	return endTime;
     }
 
     public long totalLatency() {
-	return totalLatency;
+	return getHistogram().getTotalValue();
     }
 
     public double averageLatency() {
-	return (double) totalLatency / sampleCount;
+	Histogram histogram = getHistogram();
+	return (double) histogram.getTotalValue() / histogram.getTotalCount();
     }
 
     public long minLatency() {
-	return Math.max(minLatency, 0);
+	return Math.max(getHistogram().getMinValue(), 0);
     }
 
     public long maxLatency() {
-	return Math.max(maxLatency, 0);
+	return Math.max(getHistogram().getMaxValue(), 0);
     }
 
     public long sampleCount() {
-	return sampleCount;
+	return getHistogram().getTotalCount();
     }
 
     public long totalInvocations() {
 
-	return sampleCount + assertionErrors.size();
+	return sampleCount() + errorCount();
     }
 
-    public long percentileLatency(int percentile) {
-	long targetCount = percentile * sampleCount / 100;
-	long count = 0;
-	for (long value = minLatency(); value <= maxLatency; value++) {
-	    count += getLatencyCount(value);
-	    if (count >= targetCount) {
-		return value;
-	    }
-	}
-	return maxLatency;
+    /**
+     * Returns the latency which is not exceeded by the given percentage of
+     * samples, e.g. 99.9 for the 99.9th percentile.
+     */
+    public long percentileLatency(double percentile) {
+	return getHistogram().valueAtPercentile(percentile);
+    }
+
+    /**
+     * Returns the percentile of the {@link #getCorrectedHistogram() corrected
+     * histogram}, which equals {@link #percentileLatency(double)} if
+     * correction is not active.
+     */
+    public long correctedPercentileLatency(double percentile) {
+	return getCorrectedHistogram().valueAtPercentile(percentile);
+    }
+
+    public double correctedAverageLatency() {
+	Histogram histogram = getCorrectedHistogram();
+	return (double) histogram.getTotalValue() / histogram.getTotalCount();
+    }
+
+    /**
+     * Returns the exact mean, variance and skewness of the latencies of
+     * successful invocations.
+     */
+    public Moments getMoments() {
+	Moments result = mergedMoments;
+	return (result != null ? result : mergeMoments());
+    }
+
+    public double standardDeviation() {
+	return getMoments().getStandardDeviation();
     }
 
-    public double percentileAboveLatency(int latency) {
-	long count = 0;
-	for (long value = latency + 1; value <= maxLatency; value++) {
-	    count += getLatencyCount(value);
+    /**
+     * Returns the range which contains the true average latency with the
+     * given probability, e.g. 0.95.
+     */
+    public ConfidenceInterval averageConfidenceInterval(double level) {
+	return ConfidenceInterval.ofMean(getMoments(), level);
+    }
+
+    /**
+     * Returns the confidence interval of the {@link #correctedAverageLatency()
+     * corrected average latency}, which equals
+     * {@link #averageConfidenceInterval(double)} if correction is not active.
+     * Since the corrected samples are only available as a histogram, their
+     * variance is calculated at the resolution of its buckets.
+     */
+    public ConfidenceInterval correctedAverageConfidenceInterval(double level) {
+	if (!isCorrected()) {
+	    return averageConfidenceInterval(level);
 	}
-	return (count * 100.) / sampleCount;
+	return ConfidenceInterval.ofMean(moments(getCorrectedHistogram()), level);
+    }
+
+    /**
+     * Returns the range which contains the true throughput in invocations per
+     * second with the given probability, e.g. 0.95.
+     */
+    public ConfidenceInterval throughputConfidenceInterval(double level) {
+	return ConfidenceInterval.ofRate(sampleCount(), duration(), level);
+    }
+
+    public double percentileAboveLatency(long latency) {
+	Histogram histogram = getHistogram();
+	return (histogram.countAbove(latency) * 100.) / histogram.getTotalCount();
     }
 
     public double throughput() {
@@ -189,7 +561,7 @@ public final class LatencyCounter {
 	    throw new IllegalArgumentException(
 		    "Invalid setup: Use start() and stop() to indicate test start and end!");
 	}
-	return 1000. * sampleCount / duration();
+	return 1000. * sampleCount() / duration();
     }
 
     public long duration() {
@@ -198,37 +570,210 @@ public final class LatencyCounter {
 
     public double errorsRate() {
 
-	return ((double) assertionErrors.size()) / totalInvocations();
-    }
-
-    // private helpers
-    // -------------------------------------------------------------------------------------------------
-
-    private void resize(int requestedIndex) {
-	int sizingFactor = (requestedIndex + latencyCounts.length)
-		/ latencyCounts.length;
-	int newLength = sizingFactor * latencyCounts.length;
-	long[] newLatencyCounts = new long[newLength];
-	System.arraycopy(latencyCounts, 0, newLatencyCounts, 0,
-		latencyCounts.length);
-	latencyCounts = newLatencyCounts;
+	return ((double) errorCount()) / totalInvocations();
     }
 
     public void printSummary(PrintWriter out, int... percentiles) {
-	out.println("samples: " + sampleCount);
-	out.println("max:     " + maxLatency());
-	out.println("average: " + averageLatency());
-	out.println("median:  " + percentileLatency(50));
+	String unit = " " + getUnitSymbol();
+	out.println("samples: " + sampleCount());
+	out.println("max:     " + maxLatency() + unit);
+	out.println("average: " + averageLatency() + unit);
+	out.println("std dev: " + standardDeviation() + unit);
+	out.println("skewness: " + getMoments().getSkewness());
+	ConfidenceInterval average = averageConfidenceInterval(ConfidenceInterval.DEFAULT_LEVEL);
+	out.println("average 95% CI: [" + average.getLower() + ", "
+		+ average.getUpper() + "]" + unit);
+	if (startTime != -1 && endTime != -1) {
+	    ConfidenceInterval throughput = throughputConfidenceInterval(ConfidenceInterval.DEFAULT_LEVEL);
+	    out.println("throughput 95% CI: [" + throughput.getLower() + ", "
+		    + throughput.getUpper() + "] / s");
+	}
+	out.println("median:  " + percentileLatency(50) + unit);
 	for (int percentile : percentiles) {
-	    out.println(percentile + "%:     " + percentileLatency(percentile));
+	    out.println(percentile + "%:     " + percentileLatency(percentile) + unit);
+	}
+	if (isCorrected()) {
+	    out.println("corrected for coordinated omission:");
+	    out.println("average: " + correctedAverageLatency() + unit);
+	    out.println("median:  " + correctedPercentileLatency(50) + unit);
+	    for (int percentile : percentiles) {
+		out.println(percentile + "%:     "
+			+ correctedPercentileLatency(percentile) + unit);
+	    }
 	}
-	if (assertionErrors.size() > 0) {
-	    out.println("errors:  " + assertionErrors.size() + " ("
+	if (errorCount() > 0) {
+	    out.println("errors:  " + errorCount() + " ("
 		    + (errorsRate() * 100.) + "%)");
+	    for (Map.Entry<String, Long> entry : errors.getCountsByType().entrySet()) {
+		out.println("  " + entry.getKey() + ": " + entry.getValue());
+	    }
 	}
 	out.flush();
     }
 
+    // helpers
+    // ---------------------------------------------------------------------------------------------------------
+
+    /** Returns the number of stripes which have been used so far. */
+    int stripeCount() {
+	int count = 0;
+	for (int i = 0; i <= STRIPES; i++) {
+	    if (stripes.get(i) != null) {
+		count++;
+	    }
+	}
+	return count;
+    }
+
+    private static Moments moments(Histogram histogram) {
+	long count = histogram.getTotalCount();
+	if (count == 0) {
+	    return new Moments();
+	}
+	double mean = (double) histogram.getTotalValue() / count;
+	double m2 = 0;
+	double m3 = 0;
+	for (int bucket = 0; bucket < histogram.bucketCount(); bucket++) {
+	    long samples = histogram.bucketSamples(bucket);
+	    if (samples > 0) {
+		double deviation = histogram.bucketValue(bucket) - mean;
+		m2 += samples * deviation * deviation;
+		m3 += samples * deviation * deviation * deviation;
+	    }
+	}
+	return new Moments(count, mean, m2, m3);
+    }
+
+    private Stripe threadStripe() {
+	long id = Thread.currentThread().getId();
+	// spread consecutive thread ids evenly over the stripes
+	return stripe((int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1));
+    }
+
+    private Stripe stripe(int index) {
+	Stripe result = stripes.get(index);
+	if (result == null) {
+	    Stripe created = new Stripe();
+	    result = (stripes.compareAndSet(index, null, created) ? created
+		    : stripes.get(index));
+	}
+	return result;
+    }
+
+    private Histogram merge(boolean corrected) {
+	Histogram result = prototype.newInstance();
+	for (int i = 0; i <= STRIPES; i++) {
+	    Stripe stripe = stripes.get(i);
+	    if (stripe != null) {
+		stripe.addSamples(result, corrected);
+	    }
+	}
+	return result;
+    }
+
+    private Moments mergeMoments() {
+	Moments result = new Moments();
+	for (int i = 0; i <= STRIPES; i++) {
+	    Stripe stripe = stripes.get(i);
+	    if (stripe != null) {
+		stripe.addMoments(result);
+	    }
+	}
+	return result;
+    }
+
+    /**
+     * Holds the histograms and moments of the threads which are mapped to one
+     * stripe. The histograms for corrected samples, intervals and errors are
+     * only created when they are needed.
+     */
+    private final class Stripe {
+
+	private final Histogram raw;
+	private final Moments moments;
+	private Histogram corrected;
+	private Histogram interval;
+	private Histogram errors;
+
+	Stripe() {
+	    this.raw = prototype.newInstance();
+	    this.moments = new Moments();
+	}
+
+	synchronized void record(long latency) {
+	    raw.record(latency);
+	    moments.add(latency);
+	    if (intervalsEnabled) {
+		if (interval == null) {
+		    interval = prototype.newInstance();
+		}
+		interval.record(latency);
+	    }
+	    if (isCorrected()) {
+		if (corrected == null) {
+		    corrected = prototype.newInstance();
+		}
+		corrected.record(latency);
+		long missed = latency - expectedInterval;
+		while (missed >= expectedInterval) {
+		    corrected.record(missed);
+		    missed -= expectedInterval;
+		}
+	    }
+	}
+
+	synchronized void recordError(long latency) {
+	    if (errors == null) {
+		errors = prototype.newInstance();
+	    }
+	    errors.record(latency);
+	}
+
+	/** Adds statistics which have been recorded elsewhere. */
+	synchronized void add(Histogram histogram, Histogram correctedHistogram,
+		Histogram errorHistogram, Moments otherMoments) {
+	    raw.add(histogram);
+	    moments.add(otherMoments);
+	    if (errorHistogram.getTotalCount() > 0) {
+		if (errors == null) {
+		    errors = prototype.newInstance();
+		}
+		errors.add(errorHistogram);
+	    }
+	    if (isCorrected()) {
+		if (corrected == null) {
+		    corrected = prototype.newInstance();
+		}
+		corrected.add(correctedHistogram);
+	    }
+	}
+
+	synchronized void addSamples(Histogram result, boolean correctedSamples) {
+	    Histogram source = (correctedSamples ? corrected : raw);
+	    if (source != null) {
+		result.add(source);
+	    }
+	}
+
+	synchronized void addErrors(Histogram result) {
+	    if (errors != null) {
+		result.add(errors);
+	    }
+	}
+
+	synchronized void addMoments(Moments result) {
+	    result.add(moments);
+	}
+
+	/** Moves the samples of the current interval to the given histogram. */
+	synchronized void takeInterval(Histogram result) {
+	    if (interval != null) {
+		result.add(interval);
+		interval = null;
+	    }
+	}
+    }
+
     // java.lang.Object overrides
     // --------------------------------------------------------------------------------------
 
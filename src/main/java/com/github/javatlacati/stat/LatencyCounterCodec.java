@@ -0,0 +1,391 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes the state of {@link LatencyCounter}s in a compact binary
+ * format. A stream starts with the magic bytes <code>CPLC</code> and a format
+ * version byte, followed by any number of counter records, so records can be
+ * appended and read one at a time. A record consists of
+ * <ul>
+ * <li>name, clock name and time unit as strings</li>
+ * <li>the histogram type as class name and parameter, which is the precision
+ * of a {@link LogLinearHistogram} and -1 for other types</li>
+ * <li>start time, end time and expected interval</li>
+ * <li>the number of error types, followed by type name and error count for
+ * each type</li>
+ * <li>the histogram, a flag byte and the corrected histogram if the flag is
+ * set, and the histogram of failed invocations</li>
+ * <li>the {@link Moments} of the latencies as sample count, mean and the
+ * second and third central moment sums, the latter three as 8-byte IEEE 754
+ * doubles</li>
+ * </ul>
+ * A histogram is stored with its sample count, total value, minimum, maximum
+ * and the number of non-empty buckets, followed by the buckets as a sequence
+ * of tokens: A negative token <code>-g</code> sets the gap between the
+ * lowest values of consecutive buckets to <code>g</code>, a positive token is
+ * the sample count of the next bucket at the current gap. Since bucket widths
+ * change rarely, most buckets take a single byte or two. Numbers are written
+ * as variable-length integers with 7 bits per byte, signed numbers in zig-zag
+ * encoding, strings as UTF-8 prefixed by their byte length. Histograms are
+ * decoded into their original type, so the buckets are restored exactly. Only
+ * if that type is not available or does not extend {@link AbstractHistogram},
+ * the samples are re-bucketed into a {@link LogLinearHistogram} of default
+ * precision.<br>
+ * <br>
+ * Created: 18.10.2026 16:30:00
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public final class LatencyCounterCodec {
+
+    private static final byte[] MAGIC = { 'C', 'P', 'L', 'C' };
+    public static final int VERSION = 2;
+
+    /** The maximum length of an encoded string in bytes, which protects against corrupt data. */
+    static final int MAX_STRING_LENGTH = 65536;
+
+    private LatencyCounterCodec() {
+    }
+
+    // stream header
+    // ---------------------------------------------------------------------------------------------------
+
+    public static void writeHeader(OutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    /**
+     * Reads and verifies the stream header.
+     * 
+     * @throws IOException if the stream does not start with a supported
+     *             header
+     */
+    public static void readHeader(InputStream in) throws IOException {
+        for (byte expected : MAGIC) {
+            if (in.read() != expected) {
+                throw new IOException("Not a latency counter stream");
+            }
+        }
+        int version = in.read();
+        if (version != VERSION) {
+            throw new IOException("Unsupported latency counter format version: "
+                    + version);
+        }
+    }
+
+    // counter records
+    // -------------------------------------------------------------------------------------------------
+
+    public static void write(LatencyCounter counter, OutputStream out)
+            throws IOException {
+        writeString(counter.getName(), out);
+        writeString(counter.getClockName(), out);
+        writeString(counter.getTimeUnit().name(), out);
+        writeHistogramType(counter.getHistogram(), out);
+        writeSignedVarLong(counter.getStartTime(), out);
+        writeSignedVarLong(counter.getEndTime(), out);
+        writeSignedVarLong(counter.getExpectedInterval(), out);
+        Map<String, Long> errorCounts = counter.getErrorStatistics().getCountsByType();
+        writeVarLong(errorCounts.size(), out);
+        for (Map.Entry<String, Long> entry : errorCounts.entrySet()) {
+            writeString(entry.getKey(), out);
+            writeVarLong(entry.getValue(), out);
+        }
+        writeHistogram(counter.getHistogram(), out);
+        if (counter.isCorrected()) {
+            out.write(1);
+            writeHistogram(counter.getCorrectedHistogram(), out);
+        } else {
+            out.write(0);
+        }
+        writeHistogram(counter.getErrorHistogram(), out);
+        writeMoments(counter.getMoments(), out);
+    }
+
+    /**
+     * Reads the next counter record.
+     * 
+     * @return a stopped {@link LatencyCounter} with the histogram type of the
+     *         recorded counter that holds the recorded state, or null if the
+     *         end of the stream has been reached
+     */
+    public static LatencyCounter read(InputStream in) throws IOException {
+        int firstByte = in.read();
+        if (firstByte == -1) {
+            return null;
+        }
+        String name = readString(firstByte, in);
+        String clockName = readString(in);
+        TimeUnit timeUnit = TimeUnit.valueOf(readString(in));
+        AbstractHistogram prototype = readHistogramType(in);
+        long startTime = readSignedVarLong(in);
+        long endTime = readSignedVarLong(in);
+        long expectedInterval = readSignedVarLong(in);
+        int errorTypeCount = (int) readVarLong(in);
+        Map<String, Long> errorCounts = new LinkedHashMap<>();
+        for (int i = 0; i < errorTypeCount; i++) {
+            errorCounts.put(readString(in), readVarLong(in));
+        }
+        Histogram histogram = readHistogram(in, prototype);
+        Histogram corrected = (readByte(in) != 0 ? readHistogram(in, prototype) : null);
+        Histogram errorHistogram = readHistogram(in, prototype);
+        Moments moments = readMoments(in);
+        LatencyCounter counter = new LatencyCounter(name, clockName, timeUnit,
+                prototype);
+        counter.setExpectedInterval(corrected != null ? expectedInterval : -1);
+        counter.merge(histogram, corrected, errorHistogram, moments, startTime,
+                endTime, errorCounts);
+        return counter;
+    }
+
+    // moments
+    // ---------------------------------------------------------------------------------------------------------
+
+    private static void writeMoments(Moments moments, OutputStream out)
+            throws IOException {
+        writeVarLong(moments.getCount(), out);
+        writeDouble(moments.getMean(), out);
+        writeDouble(moments.getM2(), out);
+        writeDouble(moments.getM3(), out);
+    }
+
+    private static Moments readMoments(InputStream in) throws IOException {
+        long count = readVarLong(in);
+        return new Moments(count, readDouble(in), readDouble(in), readDouble(in));
+    }
+
+    private static void writeDouble(double value, OutputStream out)
+            throws IOException {
+        long bits = Double.doubleToLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (bits >>> shift));
+        }
+    }
+
+    private static double readDouble(InputStream in) throws IOException {
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | readByte(in);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    // histograms
+    // ------------------------------------------------------------------------------------------------------
+
+    private static void writeHistogram(Histogram histogram, OutputStream out)
+            throws IOException {
+        writeVarLong(histogram.getTotalCount(), out);
+        writeVarLong(histogram.getTotalValue(), out);
+        writeSignedVarLong(histogram.getMinValue(), out);
+        writeSignedVarLong(histogram.getMaxValue(), out);
+        if (histogram.getTotalCount() == 0) {
+            writeVarLong(0, out);
+            return;
+        }
+        int minBucket = histogram.bucketIndex(histogram.getMinValue());
+        int maxBucket = histogram.bucketIndex(histogram.getMaxValue());
+        int bucketCount = 0;
+        for (int bucket = minBucket; bucket <= maxBucket; bucket++) {
+            if (histogram.bucketSamples(bucket) > 0) {
+                bucketCount++;
+            }
+        }
+        writeVarLong(bucketCount, out);
+        long previousValue = -1;
+        long gap = 0;
+        for (int bucket = minBucket; bucket <= maxBucket; bucket++) {
+            long samples = histogram.bucketSamples(bucket);
+            if (samples > 0) {
+                long value = histogram.bucketValue(bucket);
+                if (value - previousValue != gap) {
+                    gap = value - previousValue;
+                    writeSignedVarLong(-gap, out);
+                }
+                writeSignedVarLong(samples, out);
+                previousValue = value;
+            }
+        }
+    }
+
+    private static void writeHistogramType(Histogram histogram, OutputStream out)
+            throws IOException {
+        writeString(histogram.getClass().getName(), out);
+        int parameter = (histogram instanceof LogLinearHistogram
+                ? ((LogLinearHistogram) histogram).getPrecision() : -1);
+        writeSignedVarLong(parameter, out);
+    }
+
+    private static AbstractHistogram readHistogramType(InputStream in)
+            throws IOException {
+        String className = readString(in);
+        long parameter = readSignedVarLong(in);
+        if (LogLinearHistogram.class.getName().equals(className)) {
+            try {
+                return new LogLinearHistogram((int) parameter);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt histogram type", e);
+            }
+        }
+        try {
+            // the class is not initialized before it is known to be a histogram
+            Class<?> type = Class.forName(className, false,
+                    LatencyCounterCodec.class.getClassLoader());
+            if (AbstractHistogram.class.isAssignableFrom(type)) {
+                return (AbstractHistogram) type.newInstance();
+            }
+        } catch (Exception e) {
+            // not available here, the samples are re-bucketed
+        }
+        return new LogLinearHistogram();
+    }
+
+    /** Decodes a histogram into a new instance of the prototype. */
+    private static Histogram readHistogram(InputStream in, AbstractHistogram prototype)
+            throws IOException {
+        long totalCount = readVarLong(in);
+        long totalValue = readVarLong(in);
+        long minValue = readSignedVarLong(in);
+        long maxValue = readSignedVarLong(in);
+        int bucketCount = (int) readVarLong(in);
+        AbstractHistogram histogram = (AbstractHistogram) prototype.newInstance();
+        long previousValue = -1;
+        long gap = 0;
+        long sampleSum = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            long token = readSignedVarLong(in);
+            if (token < 0) {
+                gap = -token;
+                token = readSignedVarLong(in);
+            }
+            if (token <= 0 || gap <= 0) {
+                throw new IOException("Corrupt histogram data");
+            }
+            previousValue += gap;
+            histogram.record(previousValue, token);
+            sampleSum += token;
+        }
+        if (sampleSum != totalCount) {
+            throw new IOException("Corrupt histogram data: expected "
+                    + totalCount + " samples, but found " + sampleSum);
+        }
+        histogram.restoreSummary(totalValue, minValue, maxValue);
+        return histogram;
+    }
+
+    // primitives
+    // ------------------------------------------------------------------------------------------------------
+
+    public static void writeVarLong(long value, OutputStream out) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    public static long readVarLong(InputStream in) throws IOException {
+        return readVarLong(readByte(in), in);
+    }
+
+    private static long readVarLong(int firstByte, InputStream in)
+            throws IOException {
+        long result = 0;
+        int shift = 0;
+        int b = firstByte;
+        while (true) {
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IOException("Malformed variable-length number");
+            }
+            b = readByte(in);
+        }
+    }
+
+    static void writeSignedVarLong(long value, OutputStream out)
+            throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63), out);
+    }
+
+    static long readSignedVarLong(InputStream in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeString(String text, OutputStream out)
+            throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_LENGTH) {
+            throw new IOException("String too long to encode: " + bytes.length + " bytes");
+        }
+        writeVarLong(bytes.length, out);
+        out.write(bytes);
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        return readString(readByte(in), in);
+    }
+
+    private static String readString(int firstByte, InputStream in)
+            throws IOException {
+        long length = readVarLong(firstByte, in);
+        if (length < 0 || length > MAX_STRING_LENGTH) {
+            throw new IOException("Corrupt string length: " + length);
+        }
+        byte[] bytes = new byte[(int) length];
+        int offset = 0;
+        while (offset < bytes.length) {
+            int count = in.read(bytes, offset, bytes.length - offset);
+            if (count < 0) {
+                throw new EOFException("Unexpected end of latency counter stream");
+            }
+            offset += count;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b == -1) {
+            throw new EOFException("Unexpected end of latency counter stream");
+        }
+        return b;
+    }
+
+}
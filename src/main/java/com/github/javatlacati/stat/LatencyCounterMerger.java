@@ -0,0 +1,117 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Merges {@link LatencyCounter}s from streams in the format of the
+ * {@link LatencyCounterCodec}, e.g. the results of several shards or runs.
+ * Counters are combined by name and clock. Streams are processed record by
+ * record, so the memory consumption depends on the number of distinct
+ * counters, not on the number of streams. The inputs are assumed to be shards
+ * which have recorded concurrently, see {@link LatencyCounter#merge(LatencyCounter)}.<br>
+ * <br>
+ * Usage: <code>LatencyCounterMerger &lt;outputFile&gt; &lt;inputFile&gt;...</code><br>
+ * <br>
+ * Created: 18.10.2026 16:30:00
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class LatencyCounterMerger {
+
+    private final Map<String, LatencyCounter> counters;
+
+    public LatencyCounterMerger() {
+        this.counters = new LinkedHashMap<>();
+    }
+
+    public void add(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            add(in);
+        }
+    }
+
+    public void add(InputStream in) throws IOException {
+        LatencyCounterCodec.readHeader(in);
+        LatencyCounter counter;
+        while ((counter = LatencyCounterCodec.read(in)) != null) {
+            add(counter);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if a counter of the same name and clock
+     *             has been added which differs in its time unit or in being
+     *             corrected for coordinated omission
+     */
+    public void add(LatencyCounter counter) {
+        String key = counter.getName() + '@' + counter.getClockName();
+        LatencyCounter target = counters.get(key);
+        if (target == null) {
+            counters.put(key, counter);
+        } else {
+            target.merge(counter);
+        }
+    }
+
+    public Collection<LatencyCounter> getCounters() {
+        return new ArrayList<>(counters.values());
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        LatencyCounterCodec.writeHeader(out);
+        for (LatencyCounter counter : counters.values()) {
+            LatencyCounterCodec.write(counter, out);
+        }
+        out.flush();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: " + LatencyCounterMerger.class.getName()
+                    + " <outputFile> <inputFile>...");
+            return;
+        }
+        LatencyCounterMerger merger = new LatencyCounterMerger();
+        for (int i = 1; i < args.length; i++) {
+            merger.add(new File(args[i]));
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(args[0]))) {
+            merger.writeTo(out);
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+/**
+ * {@link Histogram} implementation which uses one bucket per value. It
+ * provides exact results, but its memory consumption grows linearly with the
+ * largest recorded value.<br>
+ * <br>
+ * Created: 18.10.2026 16:12:13
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class LinearHistogram extends AbstractHistogram {
+
+    public LinearHistogram() {
+        this(1000);
+    }
+
+    public LinearHistogram(int expectedMaxValue) {
+        super(1 + expectedMaxValue);
+    }
+
+    public int bucketIndex(long value) {
+        if (value > Integer.MAX_VALUE - 1) {
+            throw new IllegalArgumentException("Value too large for "
+                    + getClass().getSimpleName() + ": " + value);
+        }
+        return (int) value;
+    }
+
+    public long bucketValue(int bucket) {
+        return bucket;
+    }
+
+    public Histogram newInstance() {
+        return new LinearHistogram(counts.length - 1);
+    }
+
+}
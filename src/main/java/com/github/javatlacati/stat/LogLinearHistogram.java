@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+/**
+ * {@link Histogram} implementation with logarithmically growing bucket
+ * widths. Values below <code>2^(precision + 1)</code> are counted exactly,
+ * larger values share a bucket with neighbours that differ by less than
+ * <code>2^-precision</code> relative to their magnitude. With the default
+ * precision of 7 bits, values up to 255 are exact, the relative error is below
+ * 0.8% and a range of 30 seconds in nanoseconds fits into less than 4000
+ * buckets.<br>
+ * <br>
+ * Created: 18.10.2026 16:12:13
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class LogLinearHistogram extends AbstractHistogram {
+
+    public static final int DEFAULT_PRECISION = 7;
+
+    private final int precision;
+    private final int subBucketCount;
+
+    public LogLinearHistogram() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public LogLinearHistogram(int precision) {
+        super(2 << checkPrecision(precision));
+        this.precision = precision;
+        this.subBucketCount = 1 << precision;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int bucketIndex(long value) {
+        if (value < 2L * subBucketCount) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - precision;
+        return (shift << precision) + (int) (value >>> shift);
+    }
+
+    public long bucketValue(int bucket) {
+        int shift = Math.max(0, (bucket >> precision) - 1);
+        return ((long) bucket - ((long) shift << precision)) << shift;
+    }
+
+    public Histogram newInstance() {
+        return new LogLinearHistogram(precision);
+    }
+
+    @Override
+    protected void grow(int requestedBucket) {
+        long[] newCounts = new long[((requestedBucket >> precision) + 1) << precision];
+        System.arraycopy(counts, 0, newCounts, 0, counts.length);
+        counts = newCounts;
+    }
+
+    private static int checkPrecision(int precision) {
+        if (precision < 1 || precision > 20) {
+            throw new IllegalArgumentException(
+                    "Precision must be between 1 and 20 bits, but was " + precision);
+        }
+        return precision;
+    }
+
+}
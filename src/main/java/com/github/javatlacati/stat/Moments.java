@@ -0,0 +1,137 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+/**
+ * Calculates mean, variance and skewness of a series of values in a single
+ * pass with constant memory. The update follows Welford's method extended to
+ * the third moment, instances for partial series can be
+ * {@link #add(Moments) combined} using the pairwise formulas of Chan et al.
+ * Instances are not thread-safe.<br>
+ * <br>
+ * Created: 18.10.2026 16:36:48
+ *
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class Moments {
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double m3;
+
+    public Moments() {
+        this(0, 0, 0, 0);
+    }
+
+    /**
+     * Restores a state, e.g. a serialized one.
+     * 
+     * @param m2 the sum of squared differences from the mean
+     * @param m3 the sum of cubed differences from the mean
+     */
+    public Moments(long count, double mean, double m2, double m3) {
+        this.count = count;
+        this.mean = mean;
+        this.m2 = m2;
+        this.m3 = m3;
+    }
+
+    public void add(double value) {
+        long previousCount = count;
+        count++;
+        double delta = value - mean;
+        double deltaN = delta / count;
+        double term = delta * deltaN * previousCount;
+        mean += deltaN;
+        m3 += term * deltaN * (count - 2) - 3 * deltaN * m2;
+        m2 += term;
+    }
+
+    public void add(Moments other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            m3 = other.m3;
+            return;
+        }
+        double n1 = count;
+        double n2 = other.count;
+        double n = n1 + n2;
+        double delta = other.mean - mean;
+        double delta2 = delta * delta;
+        m3 = m3 + other.m3 + delta * delta2 * n1 * n2 * (n1 - n2) / (n * n)
+                + 3 * delta * (n1 * other.m2 - n2 * m2) / n;
+        m2 = m2 + other.m2 + delta2 * n1 * n2 / n;
+        mean = mean + delta * n2 / n;
+        count += other.count;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getM2() {
+        return m2;
+    }
+
+    public double getM3() {
+        return m3;
+    }
+
+    /** Returns the sample variance, or 0 for less than two values. */
+    public double getVariance() {
+        return (count > 1 ? m2 / (count - 1) : 0);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Returns the skewness, which is positive if the distribution has a long
+     * tail of high values, or 0 if it is undefined.
+     */
+    public double getSkewness() {
+        return (m2 > 0 ? Math.sqrt((double) count) * m3 / Math.pow(m2, 1.5) : 0);
+    }
+
+    // java.lang.Object overrides
+    // --------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[n=" + count + ", mean=" + mean
+                + ", stdDev=" + getStandardDeviation() + "]";
+    }
+
+}
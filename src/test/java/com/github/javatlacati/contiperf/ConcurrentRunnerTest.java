@@ -0,0 +1,144 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf;
+
+import com.github.javatlacati.contiperf.util.VirtualThreads;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests the {@link ConcurrentRunner}.<br>
+ * <br>
+ * Created: 18.10.2026 17:09:53
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class ConcurrentRunnerTest {
+
+    @Test
+    public void testPlatformThreads() {
+        AtomicInteger invocations = new AtomicInteger();
+        Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        try (ConcurrentRunner runner = new ConcurrentRunner("test", runners(4, invocations, threads, 1), 0)) {
+            runner.run();
+        }
+        assertThat(invocations.get(), is(4));
+        assertThat(threads.size(), is(4));
+    }
+
+    @Test
+    public void testFailureCancelsOtherThreads() {
+        InvocationRunner[] runners = new InvocationRunner[3];
+        runners[0] = new TestRunner() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("failed");
+            }
+        };
+        for (int i = 1; i < runners.length; i++) {
+            runners[i] = new TestRunner() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(60000);
+                    } catch (InterruptedException e) {
+                        // canceled by the failure of the other runner
+                    }
+                }
+            };
+        }
+        final ConcurrentRunner runner = new ConcurrentRunner("test", runners, 0);
+        PerfTestExecutionError error = Assertions.assertThrows(PerfTestExecutionError.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                runner.run();
+            }
+        });
+        assertThat(error.getCause(), instanceOf(IllegalStateException.class));
+    }
+
+    @Test
+    public void testVirtualThreads() {
+        final AtomicInteger invocations = new AtomicInteger();
+        final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        if (!VirtualThreads.isSupported()) {
+            Assertions.assertThrows(PerfTestConfigurationError.class, new Executable() {
+                @Override
+                public void execute() throws Throwable {
+                    new ConcurrentRunner("test", runners(1, invocations, threads, 0), 0, true);
+                }
+            });
+            return;
+        }
+        try (ConcurrentRunner runner = new ConcurrentRunner("test", runners(10000, invocations, threads, 100), 0, true)) {
+            runner.run();
+        }
+        assertThat(invocations.get(), is(10000));
+        assertThat(threads.size(), is(10000));
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /** Creates runners which record their thread and block for the given time. */
+    private static InvocationRunner[] runners(int count, final AtomicInteger invocations,
+                                              final Set<Thread> threads, final long sleepMillis) {
+        InvocationRunner[] result = new InvocationRunner[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new TestRunner() {
+                @Override
+                public void run() {
+                    threads.add(Thread.currentThread());
+                    try {
+                        Thread.sleep(sleepMillis);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    invocations.incrementAndGet();
+                }
+            };
+        }
+        return result;
+    }
+
+    abstract static class TestRunner implements InvocationRunner {
+        @Override
+        public void close() {
+        }
+    }
+
+}
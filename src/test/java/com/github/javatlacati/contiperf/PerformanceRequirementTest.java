@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests the {@link PerformanceRequirement}.<br>
+ * <br>
+ * Created: 18.10.2026 17:51:02
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class PerformanceRequirementTest {
+
+    @Test
+    public void testConvert() {
+        PerformanceRequirement requirement = new PerformanceRequirement();
+        requirement.setTimeUnit(TimeUnit.MICROSECONDS);
+        assertThat(requirement.convert(1500, TimeUnit.MILLISECONDS), is(2L));
+        assertThat(requirement.convert(2000, TimeUnit.MILLISECONDS), is(2L));
+        assertThat(requirement.convert(1, TimeUnit.MILLISECONDS), is(1L));
+        assertThat(requirement.convert(0, TimeUnit.MILLISECONDS), is(0L));
+        assertThat(requirement.convert(1500, TimeUnit.NANOSECONDS), is(1500000L));
+        assertThat(requirement.convert(-1, TimeUnit.MILLISECONDS), is(-1L));
+    }
+
+    @Test
+    public void testConfidenceLevel() {
+        final PerformanceRequirement requirement = new PerformanceRequirement();
+        assertThat(requirement.isConfidenceLevelSet(), is(false));
+        requirement.setConfidenceLevel(0.95);
+        assertThat(requirement.isConfidenceLevelSet(), is(true));
+        for (final double level : new double[] { -0.5, 0, 1 }) {
+            Assertions.assertThrows(PerfTestConfigurationError.class, new Executable() {
+                @Override
+                public void execute() {
+                    requirement.setConfidenceLevel(level);
+                }
+            });
+        }
+        assertThat(requirement.getConfidenceLevel(), is(0.95));
+    }
+
+    @Test
+    public void testDefaultClockTimeUnit() {
+        Clock clock = new Clock() {
+            @Override
+            public String getName() {
+                return "custom";
+            }
+
+            @Override
+            public long getTime() {
+                return 3;
+            }
+        };
+        assertThat(clock.getTime(TimeUnit.MICROSECONDS), is(3000L));
+    }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf;
+
+import com.github.javatlacati.contiperf.clock.AbstractClock;
+import com.github.javatlacati.contiperf.clock.SystemClock;
+import com.github.javatlacati.contiperf.report.ReportContext;
+import com.github.javatlacati.contiperf.timer.None;
+import com.github.javatlacati.stat.LatencyCounter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Tests the {@link RateRunner}.<br>
+ * <br>
+ * Created: 18.10.2026 17:14:46
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class RateRunnerTest {
+
+    @TempDir
+    File folder;
+
+    @Test
+    public void testFixedRate() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        ExecutionConfig config = config(-1, 2, 500, 200);
+        PerformanceTracker tracker = tracker(config, invocations, 0);
+        long start = System.nanoTime();
+        run(tracker);
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        assertThat(invocations.get(), is(100));
+        assertThat(elapsedMillis, greaterThanOrEqualTo(490L));
+        LatencyCounter[] counters = tracker.getCounters();
+        assertThat(counters.length, is(3));
+        assertThat(counters[1].getClockName(), is(PerformanceTracker.SERVICE_TIME));
+        assertThat(counters[2].getClockName(), is(PerformanceTracker.QUEUEING_DELAY));
+        assertThat(counters[2].sampleCount(), is(100L));
+    }
+
+    @Test
+    public void testQueueingDelay() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        // a single worker needs 20 ms per invocation, but one arrives each 10 ms
+        ExecutionConfig config = config(10, 1, -1, 100);
+        final PerformanceTracker tracker = tracker(config, invocations, 20);
+        try (RateRunner runner = new RateRunner("test", tracker, new EmptyArgumentsProvider())) {
+            runner.run();
+        }
+        assertThat(invocations.get(), is(10));
+        LatencyCounter[] counters = tracker.getCounters();
+        LatencyCounter service = counters[1];
+        LatencyCounter queueing = counters[2];
+        assertThat(service.minLatency(), greaterThanOrEqualTo(20L));
+        assertThat(queueing.maxLatency(), greaterThan(50L));
+        assertThat(counters[0].maxLatency(), allOf(greaterThanOrEqualTo(queueing.maxLatency() + 20),
+                lessThanOrEqualTo(queueing.maxLatency() + service.maxLatency())));
+        // the throughput of 50 calls/s is verified against the rate of 100
+        Assertions.assertThrows(PerfTestFailure.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                tracker.stopTracking();
+            }
+        });
+    }
+
+    @Test
+    public void testQueueingDelayOfOtherClocks() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        ExecutionConfig config = new ExecutionConfig(10, 1, -1,
+                new Clock[] { new SystemClock(), new ConstantClock() }, 0, 0, false, None.class, new double[0]);
+        config.setRate(100);
+        final PerformanceTracker tracker = tracker(config, invocations, 20);
+        try (RateRunner runner = new RateRunner("test", tracker, new EmptyArgumentsProvider())) {
+            runner.run();
+        }
+        LatencyCounter[] counters = tracker.getCounters();
+        assertThat(counters.length, is(4));
+        // only the wall clock includes the queueing delay
+        assertThat(counters[0].maxLatency(), greaterThan(50L));
+        assertThat(counters[1].getClockName(), is("constant"));
+        assertThat(counters[1].maxLatency(), is(0L));
+        assertThat(counters[3].maxLatency(), greaterThan(50L));
+        Assertions.assertThrows(PerfTestFailure.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                tracker.stopTracking();
+            }
+        });
+    }
+
+    @Test
+    public void testPoissonArrivals() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        ExecutionConfig config = config(-1, 4, 1000, 100);
+        config.setPoissonArrivals(true);
+        PerformanceTracker tracker = tracker(config, invocations, 0);
+        run(tracker);
+        assertThat(invocations.get(), allOf(greaterThan(50), lessThan(150)));
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        ExecutionConfig config = config(100, 2, -1, 1000);
+        Invoker invoker = new Invoker() {
+            @Override
+            public String getId() {
+                return "RateRunnerTest";
+            }
+
+            @Override
+            public Object invoke(Object[] args) {
+                throw new IllegalStateException("failed");
+            }
+        };
+        PerformanceTracker tracker = new PerformanceTracker(invoker, config, null,
+                new ReportContext(folder, PerfTestFailure.class), config.getClocks());
+        final RateRunner runner = new RateRunner("test", tracker, new EmptyArgumentsProvider());
+        PerfTestExecutionError error = Assertions.assertThrows(PerfTestExecutionError.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                runner.run();
+            }
+        });
+        assertThat(error.getCause() instanceof IllegalStateException, is(true));
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /** A clock which does not advance, like the CPU time of a sleeping thread. */
+    private static class ConstantClock extends AbstractClock {
+
+        ConstantClock() {
+            super("constant");
+        }
+
+        @Override
+        public long getTime() {
+            return 0;
+        }
+    }
+
+    private static ExecutionConfig config(int invocations, int threads, int duration, double rate) {
+        ExecutionConfig config = new ExecutionConfig(invocations, threads, duration,
+                new Clock[] { new SystemClock() }, 0, 0, false, None.class, new double[0]);
+        config.setRate(rate);
+        return config;
+    }
+
+    private PerformanceTracker tracker(ExecutionConfig config, final AtomicInteger invocations,
+                                       final long sleepMillis) {
+        Invoker invoker = new Invoker() {
+            @Override
+            public String getId() {
+                return "RateRunnerTest";
+            }
+
+            @Override
+            public Object invoke(Object[] args) throws Exception {
+                Thread.sleep(sleepMillis);
+                invocations.incrementAndGet();
+                return null;
+            }
+        };
+        return new PerformanceTracker(invoker, config, null,
+                new ReportContext(folder, PerfTestFailure.class), config.getClocks());
+    }
+
+    private static void run(PerformanceTracker tracker) {
+        try (RateRunner runner = new RateRunner("test", tracker, new EmptyArgumentsProvider())) {
+            runner.run();
+        }
+        tracker.stopTracking();
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf;
+
+import com.github.javatlacati.stat.CounterRepository;
+import com.github.javatlacati.stat.LatencyCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests the {@link ScopedStopWatch}.<br>
+ * <br>
+ * Created: 18.10.2026 16:40:16
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@ResourceLock("CounterRepository")
+public class ScopedStopWatchTest {
+
+    private static final String NAME = "ScopedStopWatchTest";
+
+    @AfterEach
+    public void tearDown() {
+        CounterRepository.getInstance().clear();
+    }
+
+    @Test
+    @SuppressWarnings("try") // the scope is only used for closing
+    public void testScope() throws InterruptedException {
+        ScopedStopWatch watch = ScopedStopWatch.of(NAME);
+        try (ScopedStopWatch.Scope scope = watch.start()) {
+            Thread.sleep(20);
+        }
+        LatencyCounter counter = CounterRepository.getInstance().getCounter(NAME);
+        assertThat(counter, is(sameInstance(watch.getCounter())));
+        assertThat(counter.getTimeUnit(), is(TimeUnit.NANOSECONDS));
+        assertThat(counter.sampleCount(), is(1L));
+        assertThat(counter.minLatency(), greaterThanOrEqualTo(19000000L));
+    }
+
+    @Test
+    public void testReuseAndNesting() throws InterruptedException {
+        ScopedStopWatch watch = ScopedStopWatch.of(NAME);
+        ScopedStopWatch.Scope outer = watch.start();
+        for (int i = 0; i < 10; i++) {
+            ScopedStopWatch.Scope inner = watch.start();
+            assertThat(inner, is(sameInstance(outer)));
+            inner.close();
+        }
+        Thread.sleep(10);
+        long outerLatency = watch.stop();
+        LatencyCounter counter = watch.getCounter();
+        assertThat(counter.sampleCount(), is(11L));
+        assertThat(counter.maxLatency(), is(outerLatency));
+        assertThat(counter.percentileLatency(90), lessThan(outerLatency));
+    }
+
+    @Test
+    public void testStopWithoutStart() {
+        final ScopedStopWatch watch = ScopedStopWatch.of(NAME);
+        Assertions.assertThrows(IllegalStateException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                watch.stop();
+            }
+        });
+    }
+
+    @Test
+    public void testUnitMismatch() {
+        CounterRepository.getInstance().getOrCreateCounter(NAME);
+        Assertions.assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                ScopedStopWatch.of(NAME);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,306 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf;
+
+import com.github.javatlacati.contiperf.clock.SystemClock;
+import com.github.javatlacati.contiperf.report.ReportContext;
+import com.github.javatlacati.contiperf.timer.None;
+import com.github.javatlacati.stat.LatencyCounter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Tests the {@link StagedRunner}, the {@link LoadStage}s and the per-stage
+ * tracking of the {@link PerformanceTracker}.<br>
+ * <br>
+ * Created: 18.10.2026 17:27:36
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class StagedRunnerTest {
+
+    @TempDir
+    File folder;
+
+    @Test
+    public void testTargetAt() {
+        LoadStage hold = LoadStage.threads("hold", 1000, 10);
+        assertThat(hold.targetAt(0, 0), is(10.));
+        LoadStage ramp = LoadStage.threadRamp("down", 1000, 0);
+        assertThat(ramp.targetAt(10, 0), is(10.));
+        assertThat(ramp.targetAt(10, 300), closeTo(7, 1e-9));
+        assertThat(ramp.targetAt(10, 2000), is(0.));
+        assertThat(ramp.isVerify(), is(false));
+    }
+
+    @Test
+    public void testInconsistentStages() {
+        final ExecutionConfig config = config();
+        Assertions.assertThrows(PerfTestConfigurationError.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                config.setStages(new LoadStage[] { LoadStage.threads("threads", 100, 2),
+                        LoadStage.rate("rate", 100, 50) });
+            }
+        });
+        Assertions.assertThrows(PerfTestConfigurationError.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                new LoadStage("both", 100, 2, 50, false, true);
+            }
+        });
+        final ExecutionConfig rateConfig = config();
+        rateConfig.setRate(100);
+        Assertions.assertThrows(PerfTestConfigurationError.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                rateConfig.setStages(new LoadStage[] { LoadStage.threads("threads", 100, 10) });
+            }
+        });
+        final ExecutionConfig stagedConfig = config();
+        stagedConfig.setStages(new LoadStage[] { LoadStage.threads("threads", 100, 10) });
+        Assertions.assertThrows(PerfTestConfigurationError.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                stagedConfig.setRate(100);
+            }
+        });
+    }
+
+    @Test
+    public void testThreadStages() {
+        ExecutionConfig config = config();
+        LoadStage hold = LoadStage.threads("hold", 300, 2);
+        LoadStage spike = LoadStage.threads("spike", 300, 4);
+        LoadStage down = LoadStage.threadRamp("down", 300, 0);
+        config.setStages(new LoadStage[] { hold, spike, down });
+        AtomicInteger concurrency = new AtomicInteger();
+        AtomicInteger maxConcurrency = new AtomicInteger();
+        PerformanceTracker tracker = tracker(config, concurrency, maxConcurrency, 5);
+        StagedRunner runner = new StagedRunner("test", tracker, new EmptyArgumentsProvider());
+        runner.run();
+        assertThat(runner.getActiveWorkers(), is(0));
+        assertThat(tracker.getThreads(), is(0));
+        assertThat(concurrency.get(), is(0));
+        assertThat(maxConcurrency.get(), is(4));
+        tracker.stopTracking();
+        for (LoadStage stage : config.getStages()) {
+            LatencyCounter[] counters = tracker.getCounters(stage);
+            assertThat(counters[0].sampleCount(), greaterThan(0L));
+            assertThat(counters[0].sampleCount(), lessThanOrEqualTo(tracker.getCounters()[0].sampleCount()));
+        }
+        assertThat(tracker.getCounters(spike)[0].sampleCount(),
+                greaterThan(tracker.getCounters(hold)[0].sampleCount()));
+        assertThat(tracker.stageId(spike), is("StagedRunnerTest[spike]"));
+    }
+
+    @Test
+    public void testRateStages() {
+        ExecutionConfig config = config(2);
+        LoadStage ramp = LoadStage.rateRamp("ramp", 400, 200);
+        LoadStage hold = LoadStage.rate("hold", 400, 200);
+        config.setStages(new LoadStage[] { ramp, hold });
+        PerformanceTracker tracker = tracker(config, new AtomicInteger(), new AtomicInteger(), 0);
+        try (RateRunner runner = new RateRunner("test", tracker, new EmptyArgumentsProvider())) {
+            runner.run();
+        }
+        tracker.stopTracking();
+        // the ramp issues about half of the invocations of the hold stage
+        assertThat((double) tracker.getCounters(ramp)[0].sampleCount(), closeTo(40, 8));
+        assertThat((double) tracker.getCounters(hold)[0].sampleCount(), closeTo(80, 8));
+        assertThat(tracker.getCounters(hold).length, is(3));
+    }
+
+    @Test
+    public void testStageVerdicts() {
+        // invocations are slow in the first 100 ms of the first stage only
+        LoadStage warm = new LoadStage("warm", 200, 1, -1, false, false);
+        LoadStage hold = LoadStage.threads("hold", 200, 1);
+        ExecutionConfig config = config();
+        config.setStages(new LoadStage[] { warm, hold });
+        PerformanceRequirement requirement = new PerformanceRequirement();
+        requirement.setMax(20);
+        runStaged(config, requirement);
+        // the slow stage is verified as well
+        final ExecutionConfig verified = config();
+        verified.setStages(new LoadStage[] { new LoadStage("warm", 200, 1, -1, false, true), hold });
+        final PerformanceRequirement requirement2 = new PerformanceRequirement();
+        requirement2.setMax(20);
+        Assertions.assertThrows(PerfTestFailure.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                runStaged(verified, requirement2);
+            }
+        });
+    }
+
+    @Test
+    public void testInvocationAcrossStages() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Invoker invoker = new Invoker() {
+            @Override
+            public String getId() {
+                return "StagedRunnerTest";
+            }
+
+            @Override
+            public Object invoke(Object[] args) throws Exception {
+                started.countDown();
+                release.await();
+                return null;
+            }
+        };
+        ExecutionConfig config = config();
+        final PerformanceTracker tracker = new PerformanceTracker(invoker, config, null,
+                new ReportContext(folder, PerfTestFailure.class), config.getClocks());
+        LoadStage first = LoadStage.threads("first", 100, 1);
+        LoadStage second = LoadStage.threads("second", 100, 1);
+        tracker.startTracking();
+        tracker.startStage(first);
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    tracker.invoke(new Object[0]);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        thread.start();
+        started.await();
+        tracker.startStage(second);
+        release.countDown();
+        thread.join();
+        // the invocation is recorded by the stage in which it started
+        assertThat(tracker.getCounters(first)[0].sampleCount(), is(1L));
+        assertThat(tracker.getCounters(second)[0].sampleCount(), is(0L));
+        tracker.stopTracking();
+    }
+
+    @Test
+    public void testFailure() {
+        ExecutionConfig config = config();
+        config.setStages(new LoadStage[] { LoadStage.threads("hold", 10000, 3) });
+        Invoker invoker = new Invoker() {
+            @Override
+            public String getId() {
+                return "StagedRunnerTest";
+            }
+
+            @Override
+            public Object invoke(Object[] args) {
+                throw new IllegalStateException("failed");
+            }
+        };
+        PerformanceTracker tracker = new PerformanceTracker(invoker, config, null,
+                new ReportContext(folder, PerfTestFailure.class), config.getClocks());
+        final StagedRunner runner = new StagedRunner("test", tracker, new EmptyArgumentsProvider());
+        long start = System.currentTimeMillis();
+        PerfTestExecutionError error = Assertions.assertThrows(PerfTestExecutionError.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                runner.run();
+            }
+        });
+        assertThat(error.getCause() instanceof IllegalStateException, is(true));
+        assertThat(System.currentTimeMillis() - start < 5000, is(true));
+        assertThat(runner.getActiveWorkers(), is(0));
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static ExecutionConfig config() {
+        return config(1);
+    }
+
+    private static ExecutionConfig config(int threads) {
+        return new ExecutionConfig(-1, threads, -1, new Clock[] { new SystemClock() }, 0, 0, false,
+                None.class, new double[0]);
+    }
+
+    private void runStaged(ExecutionConfig config, PerformanceRequirement requirement) {
+        final long start = System.currentTimeMillis();
+        Invoker invoker = new Invoker() {
+            @Override
+            public String getId() {
+                return "StagedRunnerTest";
+            }
+
+            @Override
+            public Object invoke(Object[] args) throws Exception {
+                Thread.sleep(System.currentTimeMillis() - start < 100 ? 40 : 1);
+                return null;
+            }
+        };
+        PerformanceTracker tracker = new PerformanceTracker(invoker, config, requirement,
+                new ReportContext(folder, PerfTestFailure.class), config.getClocks());
+        try (StagedRunner runner = new StagedRunner("test", tracker, new EmptyArgumentsProvider())) {
+            runner.run();
+        }
+        tracker.stopTracking();
+    }
+
+    private PerformanceTracker tracker(ExecutionConfig config, final AtomicInteger concurrency,
+                                       final AtomicInteger maxConcurrency, final long sleepMillis) {
+        Invoker invoker = new Invoker() {
+            @Override
+            public String getId() {
+                return "StagedRunnerTest";
+            }
+
+            @Override
+            public Object invoke(Object[] args) throws Exception {
+                int current = concurrency.incrementAndGet();
+                int max;
+                while ((max = maxConcurrency.get()) < current && !maxConcurrency.compareAndSet(max, current)) {
+                    // retry
+                }
+                Thread.sleep(sleepMillis);
+                concurrency.decrementAndGet();
+                return null;
+            }
+        };
+        return new PerformanceTracker(invoker, config, null,
+                new ReportContext(folder, PerfTestFailure.class), config.getClocks());
+    }
+
+}
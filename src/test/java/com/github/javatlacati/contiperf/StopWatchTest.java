@@ -29,9 +29,11 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 
 /**
  * Tests the {@link StopWatch}.<br>
@@ -41,6 +43,7 @@ import static org.hamcrest.Matchers.is;
  * @author Volker Bergmann
  * @since 1.08
  */
+@ResourceLock("CounterRepository")
 public class StopWatchTest {
 
     private static final String NAME = "StopWatchTest";
@@ -117,6 +120,45 @@ public class StopWatchTest {
 
     }
 
+    @Test
+    public void testCounterHandle() throws InterruptedException {
+        LatencyCounter counter = CounterRepository.getInstance().getOrCreateCounter(NAME);
+        StopWatch watch = new StopWatch(counter);
+        Thread.sleep(STANDARD_DELAY);
+        watch.stop();
+        assertThat(getCounter(), is(sameInstance(counter)));
+        assertThat(counter.sampleCount(), is(1L));
+        assertThat(counter.minLatency(), OrderingComparison.greaterThanOrEqualTo(39L));
+    }
+
+    @Test
+    public void testConcurrentCounterCreation() throws InterruptedException {
+        final LatencyCounter[] handles = new LatencyCounter[20];
+        Thread[] threads = new Thread[handles.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    handles[index] = CounterRepository.getInstance().getOrCreateCounter(NAME);
+                    for (int i = 0; i < 1000; i++) {
+                        new StopWatch(handles[index]).stop();
+                    }
+                }
+            };
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (LatencyCounter handle : handles) {
+            assertThat(handle, is(sameInstance(getCounter())));
+        }
+        assertThat(getCounter().sampleCount(), is(20000L));
+    }
+
     private void sleepTimed(int delay) throws InterruptedException {
         StopWatch watch = new StopWatch(NAME);
         Thread.sleep(delay);
@@ -0,0 +1,335 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf;
+
+import com.github.javatlacati.contiperf.timer.None;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+
+/**
+ * Tests the {@link WorkerPool}.<br>
+ * <br>
+ * Created: 18.10.2026 17:31:39
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class WorkerPoolTest {
+
+    @Test
+    public void testReuse() throws Exception {
+        WorkerPool pool = new WorkerPool("test");
+        try {
+            pool.prestart(3);
+            Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+            for (int run = 0; run < 5; run++) {
+                assertThat(pool.execute("run" + run, tasks(3, threads, new AtomicInteger()), 0), is(nullValue()));
+            }
+            assertThat(threads.size(), is(3));
+            assertThat(pool.getSize(), is(3));
+            assertThat(pool.getIdleCount(), is(3));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testThreadNames() throws Exception {
+        WorkerPool pool = new WorkerPool("test");
+        try {
+            final Set<String> names = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    names.add(Thread.currentThread().getName());
+                }
+            };
+            pool.execute("myTest", new Runnable[] { task, task }, 0);
+            assertThat(names.contains("myTest-1"), is(true));
+            assertThat(names.contains("myTest-2"), is(true));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testRampUp() throws Exception {
+        WorkerPool pool = new WorkerPool("test");
+        try {
+            long start = System.nanoTime();
+            pool.execute("test", tasks(3, null, new AtomicInteger()), 50);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), greaterThanOrEqualTo(100L));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailureIsolation() throws Exception {
+        WorkerPool pool = new WorkerPool("test");
+        try {
+            final CountDownLatch started = new CountDownLatch(2);
+            Runnable failing = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        started.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    throw new IllegalStateException("failed");
+                }
+            };
+            final AtomicInteger canceled = new AtomicInteger();
+            Runnable blocking = new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    try {
+                        Thread.sleep(60000);
+                    } catch (InterruptedException e) {
+                        canceled.incrementAndGet();
+                    }
+                }
+            };
+            Throwable throwable = pool.execute("failing", new Runnable[] { failing, blocking, blocking }, 0);
+            assertThat(throwable, instanceOf(IllegalStateException.class));
+            assertThat(canceled.get(), is(2));
+            // the next execution on the same workers is not affected
+            final AtomicBoolean interrupted = new AtomicBoolean();
+            Runnable checking = new Runnable() {
+                @Override
+                public void run() {
+                    if (Thread.currentThread().isInterrupted()) {
+                        interrupted.set(true);
+                    }
+                }
+            };
+            assertThat(pool.execute("next", new Runnable[] { checking, checking, checking }, 0), is(nullValue()));
+            assertThat(interrupted.get(), is(false));
+            assertThat(pool.getSize(), is(3));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentExecutions() throws Exception {
+        final WorkerPool pool = new WorkerPool("test");
+        try {
+            // the tasks of both executions wait for each other, so they need four workers
+            final CountDownLatch latch = new CountDownLatch(4);
+            final Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    latch.countDown();
+                    try {
+                        latch.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            };
+            Thread other = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        pool.execute("other", new Runnable[] { task, task }, 0);
+                    } catch (InterruptedException e) {
+                        // test ends
+                    }
+                }
+            };
+            other.start();
+            assertThat(pool.execute("test", new Runnable[] { task, task }, 0), is(nullValue()));
+            other.join();
+            assertThat(pool.getSize(), is(4));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        final WorkerPool pool = new WorkerPool("test");
+        pool.prestart(2);
+        pool.shutdown();
+        assertThat(pool.getSize(), is(0));
+        Assertions.assertThrows(IllegalStateException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                pool.execute("test", tasks(1, null, new AtomicInteger()), 0);
+            }
+        });
+        assertThat(pool.toString(), startsWith("WorkerPool"));
+    }
+
+    @Test
+    public void testKeepAlive() throws Exception {
+        WorkerPool pool = new WorkerPool("test", 50);
+        try {
+            Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+            assertThat(pool.execute("run", tasks(3, threads, new AtomicInteger()), 0), is(nullValue()));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (pool.getSize() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(pool.getSize(), is(0));
+            assertThat(pool.getIdleCount(), is(0));
+            for (Thread thread : threads) {
+                thread.join(5000);
+                assertThat(thread.isAlive(), is(false));
+            }
+            // the pool creates new workers when it is used again
+            AtomicInteger invocations = new AtomicInteger();
+            assertThat(pool.execute("run", tasks(2, null, invocations), 0), is(nullValue()));
+            assertThat(invocations.get(), is(2));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testInterruptedCaller() throws Exception {
+        final WorkerPool pool = new WorkerPool("test");
+        try {
+            final CountDownLatch started = new CountDownLatch(2);
+            final AtomicInteger running = new AtomicInteger();
+            Runnable slow = new Runnable() {
+                @Override
+                public void run() {
+                    running.incrementAndGet();
+                    try {
+                        started.countDown();
+                        // keeps running for a while after being canceled
+                        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+                        while (System.nanoTime() < end) {
+                            try {
+                                Thread.sleep(10);
+                            } catch (InterruptedException e) {
+                                // ignored
+                            }
+                        }
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }
+            };
+            final Runnable[] tasks = new Runnable[] { slow, slow };
+            final AtomicInteger runningOnReturn = new AtomicInteger(-1);
+            final AtomicBoolean interruptedOnReturn = new AtomicBoolean();
+            Thread caller = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        pool.execute("interrupted", tasks, 0);
+                    } catch (InterruptedException e) {
+                        runningOnReturn.set(running.get());
+                        interruptedOnReturn.set(Thread.currentThread().isInterrupted());
+                    }
+                }
+            };
+            caller.start();
+            started.await();
+            caller.interrupt();
+            caller.join();
+            assertThat(runningOnReturn.get(), is(0));
+            assertThat(interruptedOnReturn.get(), is(false));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentRunner() {
+        WorkerPool pool = new WorkerPool("test");
+        try {
+            final AtomicInteger invocations = new AtomicInteger();
+            for (int run = 0; run < 3; run++) {
+                AtomicLong counter = new AtomicLong(100);
+                InvocationRunner[] runners = new InvocationRunner[4];
+                for (int i = 0; i < runners.length; i++) {
+                    runners[i] = new CountRunner(new Invoker() {
+                        @Override
+                        public String getId() {
+                            return "WorkerPoolTest";
+                        }
+
+                        @Override
+                        public Object invoke(Object[] args) {
+                            invocations.incrementAndGet();
+                            return null;
+                        }
+                    }, new EmptyArgumentsProvider(), new None(), counter);
+                }
+                try (ConcurrentRunner runner = new ConcurrentRunner("test", runners, 0, pool)) {
+                    runner.run();
+                }
+            }
+            assertThat(invocations.get(), is(300));
+            assertThat(pool.getSize(), is(4));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private static Runnable[] tasks(int count, final Set<Thread> threads, final AtomicInteger invocations) {
+        Runnable[] result = new Runnable[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new Runnable() {
+                @Override
+                public void run() {
+                    if (threads != null) {
+                        threads.add(Thread.currentThread());
+                    }
+                    invocations.incrementAndGet();
+                }
+            };
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.github.javatlacati.contiperf.PerfTest;
+import com.github.javatlacati.contiperf.Required;
+import com.github.javatlacati.contiperf.report.InvocationLog;
+import com.github.javatlacati.contiperf.report.ListReportModule;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests measuring and verifying latencies in a {@link PerfTest#timeUnit()}
+ * finer than milliseconds.<br>
+ * <br>
+ * Created: 18.10.2026 16:17:01
+ * 
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class TimeUnitTest {
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule(new ListReportModule());
+
+    @Test
+    @PerfTest(invocations = 10, timeUnit = TimeUnit.MICROSECONDS)
+    @Required(max = 1, timeUnit = TimeUnit.SECONDS)
+    public void test() throws InterruptedException {
+	Thread.sleep(2);
+    }
+
+    @After
+    public void verify() {
+	ListReportModule report = rule.getContext().getReportModule(
+		ListReportModule.class);
+	List<InvocationLog> invocations = report.getInvocations();
+	assertEquals(10, invocations.size());
+	for (InvocationLog log : invocations) {
+	    assertTrue("Latency not measured in microseconds: " + log.latency,
+		    log.latency >= 2000);
+	}
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.javatlacati.contiperf.PerfTest;
+import com.github.javatlacati.contiperf.report.AbstractReportModule;
+import com.github.javatlacati.stat.IntervalSnapshot;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests the reporting of timeline intervals configured by
+ * {@link PerfTest#timelineInterval()}.<br>
+ * <br>
+ * Created: 18.10.2026 16:26:44
+ * 
+ * @since 2.4.4
+ * @author Ruslan López Carro
+ */
+public class TimelineTest {
+
+    private final IntervalModule module = new IntervalModule();
+
+    @Rule
+    public ContiPerfRule rule = new ContiPerfRule(module);
+
+    @Test
+    @PerfTest(duration = 350, timelineInterval = 100)
+    public void test() throws InterruptedException {
+	Thread.sleep(5);
+    }
+
+    @After
+    public void verify() {
+	assertTrue("Expected at least 3 intervals, but got "
+		+ module.intervals.size(), module.intervals.size() >= 3);
+	long samples = 0;
+	for (IntervalSnapshot[] snapshots : module.intervals) {
+	    assertEquals(1, snapshots.length);
+	    samples += snapshots[0].sampleCount();
+	}
+	assertTrue(samples > 0);
+    }
+
+    public static class IntervalModule extends AbstractReportModule {
+
+	final List<IntervalSnapshot[]> intervals = new ArrayList<>();
+
+	@Override
+	public synchronized void intervalCompleted(String serviceId,
+		IntervalSnapshot[] snapshots) {
+	    intervals.add(snapshots);
+	}
+
+    }
+
+}
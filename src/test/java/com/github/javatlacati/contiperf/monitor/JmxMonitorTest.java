@@ -0,0 +1,125 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.monitor;
+
+import com.github.javatlacati.contiperf.Clock;
+import com.github.javatlacati.contiperf.ExecutionConfig;
+import com.github.javatlacati.contiperf.Invoker;
+import com.github.javatlacati.contiperf.PerfTestFailure;
+import com.github.javatlacati.contiperf.PerformanceTracker;
+import com.github.javatlacati.contiperf.clock.SystemClock;
+import com.github.javatlacati.contiperf.report.ReportContext;
+import com.github.javatlacati.stat.CounterRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+/**
+ * Tests the {@link JmxMonitor}.<br>
+ * <br>
+ * Created: 18.10.2026 16:49:51
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@ResourceLock("CounterRepository")
+public class JmxMonitorTest {
+
+    private static final String NAME = "JmxMonitorTest";
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    @TempDir
+    File folder;
+
+    @Test
+    public void testRepository() throws Exception {
+        CounterRepository repository = CounterRepository.getInstance();
+        JmxMonitor.monitor(repository);
+        try {
+            for (int i = 1; i <= 100; i++) {
+                repository.addSample(NAME, i);
+            }
+            ObjectName name = JmxMonitor.objectName("LatencyCounter", NAME);
+            assertThat(server.getAttribute(name, "SampleCount"), is((Object) 100L));
+            assertThat(server.getAttribute(name, "MaxLatency"), is((Object) 100L));
+            assertThat(server.getAttribute(name, "AverageLatency"), is((Object) 50.5));
+            TabularData percentiles = (TabularData) server.getAttribute(name, "Percentiles");
+            assertThat(percentiles.get(new Object[] { "90" }).get("value"), is((Object) 90L));
+            repository.clear();
+            assertThat(server.isRegistered(name), is(false));
+        } finally {
+            JmxMonitor.unmonitor(repository);
+        }
+    }
+
+    @Test
+    public void testPerfTest() throws Exception {
+        Invoker invoker = new Invoker() {
+            @Override
+            public String getId() {
+                return NAME;
+            }
+
+            @Override
+            public Object invoke(Object[] args) {
+                return null;
+            }
+        };
+        final PerformanceTracker tracker = new PerformanceTracker(invoker,
+                new ExecutionConfig(10), null,
+                new ReportContext(folder, PerfTestFailure.class),
+                new Clock[] { new SystemClock() });
+        tracker.startTracking();
+        ObjectName name = JmxMonitor.register(tracker);
+        assertThat(name, is(notNullValue()));
+        for (int i = 0; i < 5; i++) {
+            tracker.invoke(new Object[0]);
+        }
+        assertThat(server.getAttribute(name, "Invocations"), is((Object) 5L));
+        assertThat(server.getAttribute(name, "Threads"), is((Object) 1));
+        assertThat(server.getAttribute(name, "ErrorRate"), is((Object) 0.));
+        server.invoke(name, "abort", new Object[0], new String[0]);
+        Assertions.assertThrows(PerfTestFailure.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                tracker.invoke(new Object[0]);
+            }
+        });
+        JmxMonitor.unregister(name);
+        assertThat(server.isRegistered(name), is(false));
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.monitor;
+
+import com.github.javatlacati.stat.CounterKey;
+import com.github.javatlacati.stat.CounterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Tests the {@link PrometheusEndpoint}.<br>
+ * <br>
+ * Created: 18.10.2026 16:53:46
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@ResourceLock("CounterRepository")
+public class PrometheusEndpointTest {
+
+    private static final String NAME = "PrometheusEndpointTest";
+
+    @AfterEach
+    public void tearDown() {
+        CounterRepository.getInstance().clear();
+    }
+
+    @Test
+    public void testRender() {
+        CounterRepository repository = CounterRepository.getInstance();
+        CounterKey key = CounterKey.of(NAME, "shard", "3", "le", "x");
+        repository.addSample(key, 5);
+        repository.addSample(key, 5);
+        repository.addSample(key, 2000);
+        String text = new PrometheusEndpoint(new InetSocketAddress(0), repository).render();
+        String labels = "counter=\"" + NAME + "\",tag_le=\"x\",shard=\"3\"";
+        assertThat(text, containsString("# TYPE contiperf_latency_seconds histogram\n"));
+        assertThat(text, containsString("contiperf_latency_seconds_bucket{" + labels + ",le=\"0.005\"} 2\n"));
+        assertThat(text, containsString("contiperf_latency_seconds_bucket{" + labels + ",le=\"0.0001\"} 0\n"));
+        assertThat(text, containsString("contiperf_latency_seconds_bucket{" + labels + ",le=\"1\"} 2\n"));
+        assertThat(text, containsString("contiperf_latency_seconds_bucket{" + labels + ",le=\"2.5\"} 3\n"));
+        assertThat(text, containsString("contiperf_latency_seconds_bucket{" + labels + ",le=\"10\"} 3\n"));
+        // all boundaries are exposed, regardless of the samples
+        assertThat(text.split("contiperf_latency_seconds_bucket\\{" + labels).length - 1,
+                is(PrometheusEndpoint.DEFAULT_BUCKETS.length + 1));
+        assertThat(text, containsString("contiperf_latency_seconds_bucket{" + labels + ",le=\"+Inf\"} 3\n"));
+        assertThat(text, containsString("contiperf_latency_seconds_sum{" + labels + "} 2.01\n"));
+        assertThat(text, containsString("contiperf_latency_seconds_count{" + labels + "} 3\n"));
+        assertThat(text, containsString("contiperf_errors_total{" + labels + "} 0\n"));
+    }
+
+    @Test
+    public void testCustomBuckets() {
+        CounterRepository repository = CounterRepository.getInstance();
+        repository.addSample(NAME, 5);
+        repository.addSample(NAME, 290);
+        String text = new PrometheusEndpoint(new InetSocketAddress(0), repository, 0.29, 0.3).render();
+        String labels = "counter=\"" + NAME + "\"";
+        assertThat(text, containsString("contiperf_latency_seconds_bucket{" + labels + ",le=\"0.29\"} 2\n"));
+        assertThat(text, containsString("contiperf_latency_seconds_bucket{" + labels + ",le=\"0.3\"} 2\n"));
+        assertThat(text, not(containsString("le=\"0.005\"")));
+    }
+
+    @Test
+    public void testLabelCollision() {
+        // the tags are ordered by key: a-b, a.b, a_b
+        String labels = PrometheusEndpoint.counterLabels(CounterKey.of(NAME, "a-b", "1", "a_b", "2", "a.b", "3"));
+        assertThat(labels, is("counter=\"" + NAME + "\",a_b=\"1\",a_b_2=\"3\",a_b_3=\"2\""));
+    }
+
+    @Test
+    public void testLabelName() {
+        assertThat(PrometheusEndpoint.labelName("db.table"), is("db_table"));
+        assertThat(PrometheusEndpoint.labelName("1st"), is("_st"));
+        assertThat(PrometheusEndpoint.labelName("__x"), is("tag___x"));
+        assertThat(PrometheusEndpoint.escape("a\"b\\"), is("a\\\"b\\\\"));
+    }
+
+    @Test
+    public void testScrape() throws Exception {
+        CounterRepository.getInstance().addSample(NAME, 10);
+        PrometheusEndpoint endpoint = new PrometheusEndpoint(
+                new InetSocketAddress("127.0.0.1", 0), CounterRepository.getInstance());
+        endpoint.start();
+        try {
+            URL url = new URL("http://127.0.0.1:" + endpoint.getPort() + PrometheusEndpoint.PATH);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            assertThat(connection.getResponseCode(), is(200));
+            assertThat(connection.getContentType(), is(PrometheusEndpoint.CONTENT_TYPE));
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream in = connection.getInputStream()) {
+                byte[] buffer = new byte[4096];
+                int length;
+                while ((length = in.read(buffer)) != -1) {
+                    body.write(buffer, 0, length);
+                }
+            }
+            assertThat(new String(body.toByteArray(), StandardCharsets.UTF_8),
+                    containsString("contiperf_latency_seconds_count{counter=\"" + NAME + "\"} 1\n"));
+        } finally {
+            endpoint.stop();
+        }
+    }
+
+}
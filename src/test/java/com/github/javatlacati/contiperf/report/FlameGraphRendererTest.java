@@ -0,0 +1,73 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.report;
+
+import com.github.javatlacati.profile.Profiler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+
+/**
+ * Tests the {@link FlameGraphRenderer}.<br>
+ * <br>
+ * Created: 18.10.2026 16:59:41
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class FlameGraphRendererTest {
+
+    @Test
+    public void testRender() {
+        Profiler profiler = new Profiler("test", 1, "ms");
+        profiler.addSample(Arrays.asList("request"), 100);
+        profiler.addSample(Arrays.asList("request", "parse"), 25);
+        profiler.addSample(Arrays.asList("request", "query<sql>"), 75);
+        String svg = new FlameGraphRenderer().render(
+                profiler.getRootProfile().getSubProfile("request"), 800);
+        assertThat(svg, startsWith("<svg "));
+        assertThat(svg, containsString("height='32'"));
+        assertThat(svg, endsWith("</svg>"));
+        // sub profiles are placed side by side in name order
+        assertThat(svg, containsString("<title>parse (total: 25 ms, 25.0%, self: 25 ms, 1 inv.)</title><rect x='0' y='0' width='200'"));
+        assertThat(svg, containsString("<title>query&lt;sql&gt; (total: 75 ms, 75.0%, self: 75 ms, 1 inv.)</title><rect x='200' y='0' width='600'"));
+        assertThat(svg, not(containsString("<sql>")));
+    }
+
+    @Test
+    public void testEmpty() {
+        Profiler profiler = new Profiler("test", 1, "ms");
+        String svg = new FlameGraphRenderer().render(profiler.getRootProfile(), 800);
+        assertThat(svg, not(containsString("<rect")));
+    }
+
+}
@@ -22,15 +22,19 @@
 
 package com.github.javatlacati.contiperf.report;
 
+import com.github.javatlacati.contiperf.clock.SystemClock;
 import com.github.javatlacati.stat.LatencyCounter;
+import com.github.javatlacati.stat.LogLinearHistogram;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.startsWith;
 
 /**
@@ -103,6 +107,20 @@ public class GoogleLatencyRendererTest {
         System.out.println(url);
     }
 
+    @Test
+    public void testNanoseconds() {
+        LatencyCounter counter = new LatencyCounter("test", SystemClock.NAME,
+                TimeUnit.NANOSECONDS, new LogLinearHistogram());
+        for (int i = 0; i < 1000; i++) {
+            counter.addSample(3000000000L + i * 1000000L, null);
+        }
+        String url = new GoogleLatencyRenderer().render(counter,
+                getClass().getSimpleName(), 400, 200);
+        String data = url.substring(url.indexOf("&chd=t:"), url.indexOf("&chxt"));
+        assertThat("Latencies beyond the int range must not wrap", data, not(containsString("-")));
+        assertThat(url, containsString("&chxr=0,0,399"));
+    }
+
     private int rand() {
         return random.nextInt(RANDOM_BOUND) * random.nextInt(RANDOM_BOUND);
     }
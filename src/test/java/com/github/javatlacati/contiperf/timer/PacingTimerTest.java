@@ -0,0 +1,158 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.contiperf.timer;
+
+import com.github.javatlacati.contiperf.CountRunner;
+import com.github.javatlacati.contiperf.EmptyArgumentsProvider;
+import com.github.javatlacati.contiperf.Invoker;
+import com.github.javatlacati.contiperf.WaitTimer;
+import com.github.javatlacati.contiperf.util.PreciseSleep;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Tests the {@link PacingTimer} and the {@link PreciseSleep}.<br>
+ * <br>
+ * Created: 18.10.2026 17:34:28
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class PacingTimerTest {
+
+    @Test
+    public void testInitialization() throws Exception {
+        PacingTimer timer = PacingTimer.class.getDeclaredConstructor().newInstance();
+        timer.init(new double[0]);
+        assertThat(timer.getInterval(), is(1000000000L));
+        assertThat(timer.getWaitTime(), is(1000));
+        timer.init(new double[] { 5000 });
+        assertThat(timer.getWaitTimeNanos(), is(200000L));
+        assertThat(timer.getWaitTime(), is(0));
+        assertThat(timer.getAverageWaitTime(), is(0.2));
+    }
+
+    @Test
+    public void testIllegalRate() {
+        final PacingTimer timer = new PacingTimer();
+        Assertions.assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                timer.init(new double[] { 0 });
+            }
+        });
+    }
+
+    @Test
+    public void testAbsoluteSchedule() {
+        PacingTimer timer = new PacingTimer();
+        timer.init(new double[] { 3000 });
+        // the deadlines do not depend on the time of the call and do not drift
+        long deadline = 1000;
+        for (int i = 0; i < 3000; i++) {
+            deadline = timer.nextDeadline(deadline, deadline + 100000 * (i % 5));
+        }
+        assertThat(deadline, is(1000 + 3000 * 333333L));
+        assertThat(timer.nextDeadline(AbstractTimer.NO_DEADLINE, 5000), is(5000 + 333333L));
+    }
+
+    @Test
+    public void testRelativeWait() {
+        ConstantTimer timer = new ConstantTimer();
+        timer.init(new double[] { 2 });
+        assertThat(timer.getWaitTimeNanos(), is(2000000L));
+        assertThat(timer.nextDeadline(0, 5000), is(2005000L));
+    }
+
+    @Test
+    public void testWaitTimerDefaults() {
+        WaitTimer timer = new WaitTimer() {
+            @Override
+            public void init(double[] params) {
+            }
+
+            @Override
+            public int getWaitTime() {
+                return 3;
+            }
+        };
+        assertThat(timer.getWaitTimeNanos(), is(3000000L));
+        assertThat(timer.nextDeadline(WaitTimer.NO_DEADLINE, 5000), is(3005000L));
+        assertThat(timer.isPrecise(), is(false));
+        assertThat(new ConstantTimer().isPrecise(), is(false));
+        assertThat(new PacingTimer().isPrecise(), is(true));
+    }
+
+    @Test
+    public void testPacedRunner() {
+        PacingTimer timer = new PacingTimer();
+        timer.init(new double[] { 5000 });
+        final AtomicInteger invocations = new AtomicInteger();
+        Invoker invoker = new Invoker() {
+            @Override
+            public String getId() {
+                return "PacingTimerTest";
+            }
+
+            @Override
+            public Object invoke(Object[] args) {
+                invocations.incrementAndGet();
+                return null;
+            }
+        };
+        long start = System.nanoTime();
+        try (CountRunner runner = new CountRunner(invoker, new EmptyArgumentsProvider(), timer,
+                new AtomicLong(1000))) {
+            runner.run();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertThat(invocations.get(), is(1000));
+        // 1000 invocations at 5000 per second take 200 ms, which millisecond sleeps cannot achieve
+        assertThat(elapsedMillis, greaterThanOrEqualTo(199L));
+        assertThat(elapsedMillis, lessThan(1000L));
+    }
+
+    @Test
+    public void testPreciseSleep() throws Exception {
+        long start = System.nanoTime();
+        PreciseSleep.nanos(300000);
+        long elapsed = System.nanoTime() - start;
+        assertThat(elapsed, greaterThanOrEqualTo(300000L));
+        long deadline = System.nanoTime() - 1000;
+        PreciseSleep.until(deadline);
+    }
+
+}
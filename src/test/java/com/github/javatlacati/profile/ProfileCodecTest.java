@@ -0,0 +1,86 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.profile;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests the {@link ProfileCodec}.<br>
+ * <br>
+ * Created: 18.10.2026 17:07:31
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class ProfileCodecTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Profiler profiler = new Profiler("test", TimeUnit.MICROSECONDS);
+        profiler.addSample(Arrays.asList("request"), 100);
+        profiler.addSample(Arrays.asList("request"), 300);
+        profiler.addSample(Arrays.asList("request", "parse"), 30);
+        profiler.addSample(Arrays.asList("request", "query"), 50);
+        profiler.addSample(Arrays.asList("request", "query", "connect"), 20);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProfileCodec.write(profiler.getRootProfile(), out);
+        Profile copy = ProfileCodec.read(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(copy.getName(), is("test"));
+        assertThat(copy.getTimeUnit(), is(TimeUnit.MICROSECONDS));
+        Profile request = copy.getSubProfile("request");
+        assertThat(request.getParent(), is(copy));
+        assertThat(request.getInvocationCount(), is(2L));
+        assertThat(request.getTotalLatency(), is(400L));
+        assertThat(request.getCounter().maxLatency(), is(300L));
+        assertThat(request.getSelfTime(), is(320L));
+        assertThat(request.getSubProfile("query").getSubProfile("connect").getTotalLatency(), is(20L));
+        // a profile which has been read continues recording
+        request.getOrCreateSubProfile("parse").addSample(10);
+        assertThat(request.getSubProfile("parse").getTotalLatency(), is(40L));
+    }
+
+    @Test
+    public void testIllegalHeader() {
+        Assertions.assertThrows(IOException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                ProfileCodec.read(new ByteArrayInputStream(new byte[] { 'C', 'P', 'L', 'C', 1 }));
+            }
+        });
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.profile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests the {@link ProfileDiff}.<br>
+ * <br>
+ * Created: 18.10.2026 17:07:31
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class ProfileDiffTest {
+
+    @Test
+    public void testCompare() {
+        Profiler baseline = new Profiler("test", 1, "ms");
+        baseline.addSample(Arrays.asList("request"), 100);
+        baseline.addSample(Arrays.asList("request", "parse"), 30);
+        baseline.addSample(Arrays.asList("request", "query"), 50);
+        baseline.addSample(Arrays.asList("request", "cache"), 5);
+        Profiler current = new Profiler("test", 1, "ms");
+        current.addSample(Arrays.asList("request"), 140);
+        current.addSample(Arrays.asList("request", "parse"), 30);
+        current.addSample(Arrays.asList("request", "query"), 90);
+        current.addSample(Arrays.asList("request", "query"), 0);
+        current.addSample(Arrays.asList("request", "render"), 10);
+        ProfileDiff diff = ProfileDiff.compare(baseline.getRootProfile(), current.getRootProfile());
+        List<ProfileDiff.Entry> entries = diff.getEntries();
+        assertThat(entries.size(), is(5));
+        // render and query have the same impact, render has the higher change in total time
+        ProfileDiff.Entry top = entries.get(0);
+        assertThat(top.getPath(), is("request;render"));
+        assertThat(top.getMeanSelfTimeDelta(), is(10.));
+        assertThat(top.getImpact(), is(10.));
+        // query is invoked twice as often, but each invocation got faster
+        ProfileDiff.Entry query = entries.get(1);
+        assertThat(query.getPath(), is("request;query"));
+        assertThat(query.getCurrentMeanSelfTime(), is(45.));
+        assertThat(query.getMeanSelfTimeDelta(), is(-5.));
+        assertThat(query.getMeanTotalTimeDelta(), is(-5.));
+        assertThat(query.getImpact(), is(-10.));
+        assertThat(query.getInvocationDelta(), is(1L));
+        assertThat(entries.get(2).getPath(), is("request"));
+        assertThat(entries.get(2).getMeanSelfTimeDelta(), is(-5.));
+        assertThat(entries.get(2).getMeanTotalTimeDelta(), is(40.));
+        // cache is no longer invoked, its impact is weighted by the baseline invocations
+        assertThat(entries.get(3).getPath(), is("request;cache"));
+        assertThat(entries.get(3).getCurrentMeanTotalTime(), is(0.));
+        assertThat(entries.get(3).getImpact(), is(-5.));
+        assertThat(entries.get(4).getPath(), is("request;parse"));
+        StringWriter out = new StringWriter();
+        diff.writeText(new PrintWriter(out), 1);
+        assertThat(out.toString(), containsString(
+                "     10.00     +10.00      10.00     +10.00          +10        1       +1  request;render"));
+    }
+
+    @Test
+    public void testDifferentInvocationCounts() {
+        // a longer run with the same performance per invocation is no change
+        Profiler baseline = new Profiler("test", 1, "ms");
+        for (int i = 0; i < 10; i++) {
+            baseline.addSample(Arrays.asList("request"), 20);
+            baseline.addSample(Arrays.asList("request", "query"), 5);
+        }
+        Profiler current = new Profiler("test", 1, "ms");
+        for (int i = 0; i < 30; i++) {
+            current.addSample(Arrays.asList("request"), 20);
+            current.addSample(Arrays.asList("request", "query"), i < 10 ? 5 : 6);
+        }
+        ProfileDiff diff = ProfileDiff.compare(baseline.getRootProfile(), current.getRootProfile());
+        ProfileDiff.Entry top = diff.getEntries().get(0);
+        assertThat(top.getPath(), is("request;query"));
+        assertThat(top.getMeanSelfTimeDelta(), closeTo(2 / 3., 1e-9));
+        assertThat(top.getImpact(), closeTo(20, 1e-9));
+        assertThat(top.getInvocationDelta(), is(20L));
+        assertThat(diff.getEntries().get(1).getMeanTotalTimeDelta(), is(0.));
+    }
+
+    @Test
+    public void testTimeUnitConversion() {
+        Profiler baseline = new Profiler("test", TimeUnit.MILLISECONDS);
+        baseline.addSample(Arrays.asList("request"), 2);
+        Profiler current = new Profiler("test", TimeUnit.MICROSECONDS);
+        current.addSample(Arrays.asList("request"), 2500);
+        ProfileDiff diff = ProfileDiff.compare(baseline.getRootProfile(), current.getRootProfile());
+        assertThat(diff.getTimeUnit(), is(TimeUnit.MICROSECONDS));
+        assertThat(diff.getEntries().get(0).getMeanSelfTimeDelta(), is(500.));
+    }
+
+}
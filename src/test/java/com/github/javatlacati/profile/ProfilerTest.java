@@ -22,13 +22,25 @@
 
 package com.github.javatlacati.profile;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertEquals;
 
 
@@ -78,4 +90,120 @@ public class ProfilerTest {
         profiler.printSummary();
     }
 
+    @Test
+    public void testConcurrentSamples() throws InterruptedException {
+        final Profiler profiler = new Profiler("test", 1, "ms");
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i++) {
+                        List<String> path = Arrays.asList("request", "step" + (i % 10));
+                        profiler.addSample(path, 2);
+                    }
+                }
+            };
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Profile request = profiler.getRootProfile().getOrCreateSubProfile("request");
+        assertThat(profiler.getRootProfile().getSubProfiles().size(), is(1));
+        assertThat(request.getSubProfiles().size(), is(10));
+        long total = 0;
+        for (Profile step : request.getSubProfiles()) {
+            assertThat(step.getParent(), is(request));
+            total += step.getInvocationCount();
+        }
+        assertThat(total, is(80000L));
+        assertThat(request.getOrCreateSubProfile("step3").getTotalLatency(), is(16000L));
+    }
+
+    @Test
+    public void testEnterExit() throws InterruptedException {
+        Profiler profiler = new Profiler("test", TimeUnit.NANOSECONDS);
+        for (int i = 0; i < 3; i++) {
+            try (Profiler.Scope request = profiler.enter("request")) {
+                try (Profiler.Scope parse = profiler.enter("parse")) {
+                    assertThat(parse, is(sameInstance(request)));
+                    assertThat(parse.getDepth(), is(2));
+                }
+                profiler.enter("query");
+                Thread.sleep(2);
+                profiler.exit();
+            }
+        }
+        Profile request = profiler.getRootProfile().getOrCreateSubProfile("request");
+        assertThat(request.getTimeUnit(), is(TimeUnit.NANOSECONDS));
+        assertThat(request.getInvocationCount(), is(3L));
+        assertThat(request.getSubProfiles().size(), is(2));
+        Profile query = request.getOrCreateSubProfile("query");
+        assertThat(query.getInvocationCount(), is(3L));
+        assertThat(query.getCounter().minLatency(), greaterThanOrEqualTo(2000000L));
+        assertThat(request.getTotalLatency(), greaterThanOrEqualTo(query.getTotalLatency()));
+    }
+
+    @Test
+    public void testEnterWithTimeUnit() {
+        Profiler profiler = new Profiler("test", 1, "ms");
+        for (int i = 0; i < 3; i++) {
+            profiler.enter("test", TimeUnit.NANOSECONDS);
+            profiler.enter("fast");
+            profiler.exit();
+            profiler.exit();
+        }
+        Profile test = profiler.getRootProfile().getSubProfile("test");
+        assertThat(profiler.getRootProfile().getTimeUnit(), is(TimeUnit.MILLISECONDS));
+        assertThat(test.getTimeUnit(), is(TimeUnit.NANOSECONDS));
+        Profile fast = test.getSubProfile("fast");
+        assertThat(fast.getTimeUnit(), is(TimeUnit.NANOSECONDS));
+        // sub-millisecond latencies are not lost
+        assertThat(fast.getTotalLatency(), greaterThan(0L));
+        assertThat(test.getTotalLatency(), greaterThanOrEqualTo(fast.getTotalLatency()));
+    }
+
+    @Test
+    public void testExitWithoutEnter() {
+        final Profiler profiler = new Profiler("test", TimeUnit.NANOSECONDS);
+        Assertions.assertThrows(IllegalStateException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                profiler.exit();
+            }
+        });
+    }
+
+    @Test
+    public void testSelfTime() {
+        Profiler profiler = new Profiler("test", 1, "ms");
+        profiler.addSample(Arrays.asList("request"), 100);
+        profiler.addSample(Arrays.asList("request", "parse"), 30);
+        profiler.addSample(Arrays.asList("request", "query"), 50);
+        Profile request = profiler.getRootProfile().getSubProfile("request");
+        assertThat(request.getChildTime(), is(80L));
+        assertThat(request.getSelfTime(), is(20L));
+        assertThat(request.getSubProfile("parse").getSelfTime(), is(30L));
+        assertThat(request.getSubProfile("missing"), is(nullValue()));
+    }
+
+    @Test
+    public void testWriteFoldedStacks() throws IOException {
+        Profiler profiler = new Profiler("test", 1, "ms");
+        profiler.addSample(Arrays.asList("request"), 100);
+        profiler.addSample(Arrays.asList("request", "query"), 50);
+        profiler.addSample(Arrays.asList("request", "parse"), 30);
+        profiler.addSample(Arrays.asList("request", "parse", "lex;scan"), 30);
+        profiler.addSample(Arrays.asList("idle"), 5);
+        StringWriter out = new StringWriter();
+        profiler.writeFoldedStacks(out);
+        assertThat(out.toString(), is("idle 5\n"
+                + "request 20\n"
+                + "request;parse;lex:scan 30\n"
+                + "request;query 50\n"));
+    }
+
 }
@@ -0,0 +1,164 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.profile;
+
+import com.github.javatlacati.contiperf.Clock;
+import com.github.javatlacati.contiperf.ExecutionConfig;
+import com.github.javatlacati.contiperf.Invoker;
+import com.github.javatlacati.contiperf.PerfTestFailure;
+import com.github.javatlacati.contiperf.PerformanceTracker;
+import com.github.javatlacati.contiperf.clock.SystemClock;
+import com.github.javatlacati.contiperf.report.ReportContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+/**
+ * Tests the {@link StackSampler}.<br>
+ * <br>
+ * Created: 18.10.2026 17:02:24
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class StackSamplerTest {
+
+    @TempDir
+    File folder;
+
+    @Test
+    public void testAddStack() throws IOException {
+        StackSampler sampler = new StackSampler("test", 10);
+        sampler.addStack(stack("com.acme.Dao.query", "com.acme.Service.handle"));
+        sampler.addStack(stack("com.acme.Dao.query", "com.acme.Service.handle"));
+        sampler.addStack(stack("com.acme.Service.handle"));
+        // a thread which is not invoking the test is ignored
+        sampler.addStack(new StackTraceElement[] { frame("com.github.javatlacati.contiperf.WaitTimer.runStep"),
+                frame("java.lang.Thread.run") });
+        Profile root = sampler.getProfiler().getRootProfile();
+        assertThat(root.getInvocationCount(), is(3L));
+        assertThat(root.getSubProfiles().size(), is(1));
+        Profile handle = root.getSubProfile("com.acme.Service.handle");
+        assertThat(handle.getTotalLatency(), is(30L));
+        assertThat(handle.getSelfTime(), is(10L));
+        List<Map.Entry<String, Long>> hotspots = sampler.hotspots(5);
+        assertThat(hotspots.size(), is(2));
+        assertThat(hotspots.get(0).getKey(), is("com.acme.Dao.query"));
+        assertThat(hotspots.get(0).getValue(), is(20L));
+        StringWriter out = new StringWriter();
+        sampler.getProfiler().writeFoldedStacks(out);
+        assertThat(out.toString(), is("com.acme.Service.handle 10\n"
+                + "com.acme.Service.handle;com.acme.Dao.query 20\n"));
+    }
+
+    @Test
+    public void testSampling() throws Exception {
+        Invoker invoker = new Invoker() {
+            @Override
+            public String getId() {
+                return "StackSamplerTest";
+            }
+
+            @Override
+            public Object invoke(Object[] args) {
+                return spin(300);
+            }
+        };
+        PerformanceTracker tracker = new PerformanceTracker(invoker,
+                new ExecutionConfig(1), null,
+                new ReportContext(folder, PerfTestFailure.class),
+                new Clock[] { new SystemClock() });
+        StackSampler sampler = new StackSampler("StackSamplerTest", 5);
+        tracker.setSampler(sampler);
+        tracker.startTracking();
+        sampler.start();
+        try {
+            tracker.invoke(new Object[0]);
+        } finally {
+            sampler.stop();
+            tracker.stopTracking();
+        }
+        Profile root = sampler.getProfiler().getRootProfile();
+        assertThat(root.getInvocationCount(), greaterThan(0L));
+        Profile invoke = root.getSubProfile(invoker.getClass().getName() + ".invoke");
+        assertThat(invoke, is(notNullValue()));
+        assertThat(invoke.getSubProfile(StackSamplerTest.class.getName() + ".spin"), is(notNullValue()));
+        sampler.writeReport(folder);
+        String hotspots = new String(Files.readAllBytes(new File(folder, "StackSamplerTest.hotspots.txt").toPath()), "UTF-8");
+        assertThat(hotspots, containsString(".spin"));
+        assertThat(new File(folder, "StackSamplerTest.folded").exists(), is(true));
+    }
+
+    // helpers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    static long spin(long millis) {
+        long end = System.nanoTime() + millis * 1000000;
+        long count = 0;
+        while (System.nanoTime() < end) {
+            count++;
+        }
+        return count;
+    }
+
+    /** Creates a stack with the given frames on top of a test invocation. */
+    private static StackTraceElement[] stack(String... frames) {
+        String[] infrastructure = {
+                "jdk.internal.reflect.NativeMethodAccessorImpl.invoke0",
+                "org.junit.runners.model.FrameworkMethod$1.runReflectiveCall",
+                "com.github.javatlacati.contiperf.PerformanceTracker.invoke",
+                "com.github.javatlacati.contiperf.CountRunner.run",
+                "java.lang.Thread.run"
+        };
+        StackTraceElement[] result = new StackTraceElement[frames.length + infrastructure.length];
+        for (int i = 0; i < frames.length; i++) {
+            result[i] = frame(frames[i]);
+        }
+        for (int i = 0; i < infrastructure.length; i++) {
+            result[frames.length + i] = frame(infrastructure[i]);
+        }
+        return result;
+    }
+
+    private static StackTraceElement frame(String name) {
+        int separator = name.lastIndexOf('.');
+        return new StackTraceElement(name.substring(0, separator),
+                name.substring(separator + 1), null, -1);
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+import com.github.javatlacati.contiperf.clock.SystemClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests the {@link CounterKey}.<br>
+ * <br>
+ * Created: 18.10.2026 16:42:42
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class CounterKeyTest {
+
+    @Test
+    public void testId() {
+        assertThat(CounterKey.of("db.query").getId(), is("db.query"));
+        CounterKey key = CounterKey.of("db.query", "table", "users", "shard", "3");
+        assertThat(key.getId(), is("db.query{shard=3,table=users}"));
+        assertThat(key.getTag("shard"), is("3"));
+        assertThat(key, is(CounterKey.of("db.query", "shard", "3", "table", "users")));
+    }
+
+    @Test
+    public void testParse() {
+        CounterKey key = CounterKey.parse("db.query{shard=3,table=users}");
+        assertThat(key.getName(), is("db.query"));
+        assertThat(key.getTags().size(), is(2));
+        assertThat(key.getTag("table"), is("users"));
+        assertThat(CounterKey.parse("db.query").hasTags(), is(false));
+        assertThat(CounterKey.parse("{x}").getName(), is("{x}"));
+        assertThat(CounterKey.parse("a{x}").getName(), is("a{x}"));
+    }
+
+    @Test
+    public void testMatches() {
+        CounterKey key = CounterKey.of("db.query", "table", "users", "shard", "3");
+        assertThat(key.matches(CounterKey.of("db.query")), is(true));
+        assertThat(key.matches(CounterKey.of("db.query", "table", "users")), is(true));
+        assertThat(key.matches(CounterKey.of("db.query", "table", "orders")), is(false));
+        assertThat(key.matches(CounterKey.of("db")), is(false));
+    }
+
+    @Test
+    public void testTemplate() {
+        final CounterKey.Template template = CounterKey.template("db.query", "table", "shard");
+        CounterKey key = template.with("users", "3");
+        assertThat(key, is(CounterKey.of("db.query", "shard", "3", "table", "users")));
+        assertThat(template.with("users", "3"), is(sameInstance(key)));
+        assertThat(template.with("users", "4").getId(), is("db.query{shard=4,table=users}"));
+        LatencyCounter counter = new LatencyCounter(key, SystemClock.NAME,
+                TimeUnit.MILLISECONDS, new LogLinearHistogram());
+        assertThat(counter.getKey(), is(sameInstance(key)));
+        Assertions.assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                template.with("users");
+            }
+        });
+        Assertions.assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                template.with("a,b", "3");
+            }
+        });
+    }
+
+    @Test
+    public void testIllegalTag() {
+        Assertions.assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                CounterKey.of("db.query", "table", "a,b");
+            }
+        });
+    }
+
+}
@@ -26,6 +26,12 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -52,6 +58,7 @@ public class CounterRepositoryTest {
     }
 
     @Test
+    @ResourceLock("CounterRepository")
     public void testLifeCyle() {
         assertNull(
                 repository.getCounter(NAME), "Counter should not be defined yet");
@@ -65,4 +72,33 @@ public class CounterRepositoryTest {
                 repository.getCounter(NAME), "After calling clear(), the repository should have no counters");
     }
 
+    @Test
+    @ResourceLock("CounterRepository")
+    public void testTaggedCounters() {
+        CounterKey shard1 = CounterKey.of(NAME, "table", "users", "shard", "1");
+        CounterKey shard2 = CounterKey.of(NAME, "shard", "2", "table", "users");
+        repository.addSample(shard1, 10);
+        repository.addSample(shard1, 20);
+        repository.addSample(shard2, 60);
+        repository.addSample(CounterKey.of(NAME, "table", "orders"), 1000);
+        LatencyCounter counter = repository.getCounter(NAME + "{shard=2,table=users}");
+        assertSame(counter, repository.getOrCreateCounter(shard2));
+        assertThat(counter.getKey(), is(shard2));
+        assertThat(repository.getCounters(CounterKey.of(NAME)).size(), is(3));
+        LatencyCounter users = repository.aggregate(CounterKey.of(NAME, "table", "users"));
+        assertThat(users.getName(), is(NAME + "{table=users}"));
+        assertThat(users.sampleCount(), is(3L));
+        assertThat(users.averageLatency(), is(30.));
+        assertThat(repository.aggregate(CounterKey.of(NAME)).maxLatency(), is(1000L));
+        repository.printSummary();
+    }
+
+    @Test
+    @ResourceLock("CounterRepository")
+    public void testTimeUnit() {
+        LatencyCounter counter = repository.getOrCreateCounter(
+                CounterKey.of(NAME, "unit", "ns"), TimeUnit.NANOSECONDS);
+        assertThat(counter.getTimeUnit(), is(TimeUnit.NANOSECONDS));
+    }
+
 }
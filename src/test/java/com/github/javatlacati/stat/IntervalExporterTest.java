@@ -0,0 +1,130 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+/**
+ * Tests the {@link IntervalExporter}.<br>
+ * <br>
+ * Created: 18.10.2026 16:46:05
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@ResourceLock("CounterRepository")
+public class IntervalExporterTest {
+
+    private static final String NAME = "IntervalExporterTest";
+
+    @TempDir
+    File folder;
+
+    @AfterEach
+    public void tearDown() {
+        CounterRepository.getInstance().clear();
+    }
+
+    @Test
+    public void testJson() throws IOException {
+        File file = new File(folder, "latencies.jsonl");
+        IntervalExporter exporter = new IntervalExporter(file, 60000,
+                IntervalExporter.Format.JSON);
+        exporter.start();
+        CounterRepository repository = CounterRepository.getInstance();
+        CounterKey key = CounterKey.of(NAME, "shard", "1");
+        for (int i = 1; i <= 100; i++) {
+            repository.addSample(key, i);
+        }
+        exporter.export();
+        repository.addSample(key, 500);
+        exporter.stop();
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertThat(lines.size(), is(2));
+        assertThat(lines.get(0), startsWith("{\"time\":"));
+        assertThat(lines.get(0), containsString("\"counter\":\"" + NAME + "{shard=1}\""));
+        assertThat(lines.get(0), containsString("\"tags\":{\"shard\":\"1\"}"));
+        assertThat(lines.get(0), containsString("\"count\":100,"));
+        assertThat(lines.get(0), containsString("\"p90\":90,"));
+        assertThat(lines.get(0), containsString("\"p99.9\":99,"));
+        assertThat(lines.get(1), containsString("\"count\":1,"));
+        assertThat(lines.get(1), containsString("\"max\":500}"));
+    }
+
+    @Test
+    public void testCounterInUse() throws IOException {
+        File file = new File(folder, "latencies.jsonl");
+        CounterRepository repository = new CounterRepository();
+        CounterKey key = CounterKey.of(NAME, "phase", "live");
+        repository.addSample(key, 1000);
+        IntervalExporter exporter = new IntervalExporter(repository, file, 60000,
+                IntervalExporter.Format.JSON);
+        exporter.start();
+        repository.addSample(key, 1);
+        repository.addSample(key, 2);
+        exporter.stop();
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        // the sample recorded before the start is not exported
+        assertThat(lines.size(), is(1));
+        assertThat(lines.get(0), containsString("\"count\":2,"));
+        assertThat(lines.get(0), containsString("\"max\":2}"));
+    }
+
+    @Test
+    public void testCsvRolling() throws IOException {
+        File file = new File(folder, "latencies.csv");
+        IntervalExporter exporter = new IntervalExporter(file, 60000,
+                IntervalExporter.Format.CSV);
+        exporter.setMaxFileSize(1);
+        exporter.setMaxBackups(2);
+        exporter.start();
+        CounterKey key = CounterKey.of(NAME, "table", "users", "shard", "1");
+        for (int i = 0; i < 4; i++) {
+            CounterRepository.getInstance().addSample(key, 10);
+            exporter.export();
+        }
+        exporter.stop();
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertThat(lines.size(), is(2));
+        assertThat(lines.get(0), startsWith("time,counter,"));
+        assertThat(lines.get(1), containsString(",\"" + NAME + "{shard=1,table=users}\",MILLISECONDS,1,"));
+        assertThat(new File(folder, "latencies.csv.1").exists(), is(true));
+        assertThat(new File(folder, "latencies.csv.2").exists(), is(true));
+        assertThat(new File(folder, "latencies.csv.3").exists(), is(false));
+    }
+
+}
@@ -0,0 +1,212 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+import com.github.javatlacati.contiperf.PerfTestExecutionError;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Tests the {@link LatencyCounterCodec} and the {@link LatencyCounterMerger}.<br>
+ * <br>
+ * Created: 18.10.2026 16:30:00
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class LatencyCounterCodecTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        LatencyCounter counter = createCounter();
+        counter.addSample(1, null);
+        counter.addSample(2, null);
+        counter.addSample(1234567, null);
+        counter.stop();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LatencyCounterCodec.writeHeader(out);
+        LatencyCounterCodec.write(counter, out);
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        LatencyCounterCodec.readHeader(in);
+        LatencyCounter copy = LatencyCounterCodec.read(in);
+        assertThat(LatencyCounterCodec.read(in), is(nullValue()));
+        assertThat(copy.getName(), is("test"));
+        assertThat(copy.getClockName(), is("system"));
+        assertThat(copy.getTimeUnit(), is(TimeUnit.MICROSECONDS));
+        assertThat(copy.sampleCount(), is(3L));
+        assertThat(copy.totalLatency(), is(1234570L));
+        assertThat(copy.minLatency(), is(1L));
+        assertThat(copy.maxLatency(), is(1234567L));
+        assertThat(copy.errorCount(), is(0L));
+        assertThat(copy.getStartTime(), is(counter.getStartTime()));
+        assertThat(copy.getEndTime(), is(counter.getEndTime()));
+        assertThat(copy.isCorrected(), is(false));
+        assertThat(copy.getMoments().getCount(), is(3L));
+        assertThat(copy.getMoments().getMean(), is(counter.getMoments().getMean()));
+        assertThat(copy.standardDeviation(), is(counter.standardDeviation()));
+    }
+
+    @Test
+    public void testHistogramTypeRoundTrip() throws IOException {
+        Histogram[] prototypes = { new LogLinearHistogram(3), new LinearHistogram() };
+        for (Histogram prototype : prototypes) {
+            LatencyCounter counter = new LatencyCounter("test", "system",
+                    TimeUnit.MICROSECONDS, prototype);
+            counter.start();
+            for (int latency = 1; latency <= 5000; latency += 7) {
+                counter.addSample(latency, null);
+            }
+            counter.stop();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            LatencyCounterCodec.write(counter, out);
+            LatencyCounter copy = LatencyCounterCodec.read(new ByteArrayInputStream(out.toByteArray()));
+            Histogram histogram = copy.getHistogram();
+            assertThat(histogram.getClass() == prototype.getClass(), is(true));
+            assertThat(histogram.bucketCount(), is(counter.getHistogram().bucketCount()));
+            for (int bucket = 0; bucket < histogram.bucketCount(); bucket++) {
+                assertThat(histogram.bucketSamples(bucket), is(counter.getHistogram().bucketSamples(bucket)));
+            }
+            assertThat(histogram.getTotalValue(), is(counter.getHistogram().getTotalValue()));
+            assertThat(histogram.getMinValue(), is(1L));
+            assertThat(histogram.getMaxValue(), is(4999L));
+            assertThat(histogram.valueAtPercentile(90), is(counter.getHistogram().valueAtPercentile(90)));
+        }
+    }
+
+    @Test
+    public void testCompactness() throws IOException {
+        LatencyCounter counter = createCounter();
+        for (int latency = 0; latency < 10000; latency++) {
+            counter.addSample(latency, null);
+        }
+        counter.stop();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LatencyCounterCodec.write(counter, out);
+        int buckets = counter.getHistogram().bucketIndex(9999) + 1;
+        assertThat(out.size(), lessThan(buckets * 2 + 100));
+    }
+
+    @Test
+    public void testMerge() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LatencyCounterCodec.writeHeader(out);
+        for (int shard = 0; shard < 3; shard++) {
+            LatencyCounter counter = createCounter();
+            counter.addSample(10 * (shard + 1), null);
+            counter.addSample(5, new PerfTestExecutionError("fail"));
+            counter.stop();
+            LatencyCounterCodec.write(counter, out);
+        }
+        LatencyCounterMerger merger = new LatencyCounterMerger();
+        merger.add(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(merger.getCounters().size(), is(1));
+        LatencyCounter merged = merger.getCounters().iterator().next();
+        assertThat(merged.sampleCount(), is(3L));
+        assertThat(merged.totalLatency(), is(60L));
+        assertThat(merged.maxLatency(), is(30L));
+        assertThat(merged.errorCount(), is(3L));
+        assertThat(merged.totalInvocations(), is(6L));
+        assertThat(merged.getMoments().getMean(), closeTo(20, 1e-9));
+        assertThat(merged.standardDeviation(), closeTo(10, 1e-9));
+    }
+
+    @Test
+    public void testMergeCorrectedWithUncorrected() throws IOException {
+        LatencyCounter corrected = createCounter();
+        corrected.setExpectedInterval(10);
+        corrected.addSample(100, null);
+        corrected.stop();
+        LatencyCounter uncorrected = createCounter();
+        uncorrected.addSample(100, null);
+        uncorrected.stop();
+        final LatencyCounterMerger merger = new LatencyCounterMerger();
+        merger.add(corrected);
+        final LatencyCounter other = uncorrected;
+        Assertions.assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() {
+                merger.add(other);
+            }
+        });
+    }
+
+    @Test
+    public void testCorruptStringLength() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // the length of the counter name
+        LatencyCounterCodec.writeVarLong(1L << 40, out);
+        final byte[] bytes = out.toByteArray();
+        Assertions.assertThrows(IOException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                LatencyCounterCodec.read(new ByteArrayInputStream(bytes));
+            }
+        });
+    }
+
+    @Test
+    public void testIllegalHeader() {
+        Assertions.assertThrows(IOException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                LatencyCounterCodec.readHeader(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5 }));
+            }
+        });
+    }
+
+    @Test
+    public void testVarLong() throws IOException {
+        long[] values = { 0, 1, -1, 127, 128, -300, Long.MAX_VALUE, Long.MIN_VALUE };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long value : values) {
+            LatencyCounterCodec.writeSignedVarLong(value, out);
+        }
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        for (long value : values) {
+            assertThat(LatencyCounterCodec.readSignedVarLong(in), is(value));
+        }
+    }
+
+    private static LatencyCounter createCounter() {
+        LatencyCounter counter = new LatencyCounter("test", "system",
+                TimeUnit.MICROSECONDS, new LogLinearHistogram());
+        counter.start();
+        return counter;
+    }
+
+}
@@ -23,14 +23,21 @@
 package com.github.javatlacati.stat;
 
 
+import com.github.javatlacati.contiperf.PerfTestExecutionError;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 
+import java.util.Map;
+
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
 
 /**
@@ -47,7 +54,7 @@ public class LatencyCounterTest {
     @Test
     public void testStartTwice() {
 
-        Assertions.assertThrows(IllegalStateException.class, new Executable() {
+	Assertions.assertThrows(IllegalStateException.class, new Executable() {
 			@Override
 			public void execute() throws Throwable {
 				LatencyCounter counter = new LatencyCounter("test");
@@ -73,19 +80,192 @@ public class LatencyCounterTest {
 
     @Test
     public void testPercentileAboveLatency() {
-        LatencyCounter counter = new LatencyCounter("test");
-        counter.start();
-        for (int i = 25; i <= 125; i += 25) {
-            counter.addSample(i, null);
-        }
-        counter.stop();
-        assertThat(counter.percentileAboveLatency(0), is(100.));
-        assertThat(counter.percentileAboveLatency(25), is(80.));
-        assertThat(counter.percentileAboveLatency(99), is(40.));
-        assertThat(counter.percentileAboveLatency(100), is(20.));
-        assertThat(counter.percentileAboveLatency(124), is(20.));
-        assertThat(counter.percentileAboveLatency(125), is(0.));
-        assertThat(counter.percentileAboveLatency(126), is(0.));
+	LatencyCounter counter = new LatencyCounter("test");
+	counter.start();
+	for (int i = 25; i <= 125; i += 25) {
+	    counter.addSample(i, null);
+	}
+	counter.stop();
+	assertThat(counter.percentileAboveLatency(0), is(100.));
+	assertThat(counter.percentileAboveLatency(25), is(80.));
+	assertThat(counter.percentileAboveLatency(99), is(40.));
+	assertThat(counter.percentileAboveLatency(100), is(20.));
+	assertThat(counter.percentileAboveLatency(124), is(20.));
+	assertThat(counter.percentileAboveLatency(125), is(0.));
+	assertThat(counter.percentileAboveLatency(126), is(0.));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+	final LatencyCounter counter = new LatencyCounter("test");
+	counter.start();
+	Thread[] threads = new Thread[8];
+	for (int i = 0; i < threads.length; i++) {
+	    threads[i] = new Thread() {
+		@Override
+		public void run() {
+		    for (int latency = 1; latency <= 10000; latency++) {
+			counter.addSample(latency, null);
+		    }
+		}
+	    };
+	    threads[i].start();
+	}
+	for (Thread thread : threads) {
+	    thread.join();
+	}
+	counter.stop();
+	assertThat(counter.sampleCount(), is(80000L));
+	assertThat(counter.totalLatency(), is(8 * 50005000L));
+	assertThat(counter.minLatency(), is(1L));
+	assertThat(counter.maxLatency(), is(10000L));
+	assertThat(counter.getLatencyCount(1), is(8L));
+    }
+
+    @Test
+    public void testManyShortLivedThreads() throws Exception {
+	final LatencyCounter counter = new LatencyCounter("test");
+	counter.start();
+	for (int i = 0; i < 1000; i++) {
+	    Thread thread = new Thread() {
+		@Override
+		public void run() {
+		    counter.addSample(5, null);
+		}
+	    };
+	    thread.start();
+	    thread.join();
+	}
+	assertThat(counter.stripeCount(), is(lessThanOrEqualTo(LatencyCounter.STRIPES)));
+	counter.stop();
+	assertThat(counter.sampleCount(), is(1000L));
+	assertThat(counter.getLatencyCount(5), is(1000L));
+    }
+
+    @Test
+    public void testSampleAfterStop() {
+	LatencyCounter counter = new LatencyCounter("test");
+	counter.start();
+	counter.addSample(3, null);
+	counter.stop();
+	assertThat(counter.sampleCount(), is(1L));
+	counter.addSample(5, null);
+	assertThat(counter.sampleCount(), is(2L));
+	assertThat(counter.maxLatency(), is(5L));
+    }
+
+    @Test
+    public void testCoordinatedOmissionCorrection() {
+	LatencyCounter counter = new LatencyCounter("test");
+	counter.setExpectedInterval(10);
+	counter.start();
+	for (int i = 0; i < 99; i++) {
+	    counter.addSample(1, null);
+	}
+	counter.addSample(1000, null);
+	counter.stop();
+	assertThat(counter.sampleCount(), is(100L));
+	assertThat(counter.percentileLatency(99), is(1L));
+	Histogram corrected = counter.getCorrectedHistogram();
+	assertThat(corrected.getTotalCount(), is(199L));
+	assertThat(corrected.getMaxValue(), is(1000L));
+	assertThat(counter.correctedPercentileLatency(50), is(lessThanOrEqualTo(10L)));
+	assertThat(counter.correctedPercentileLatency(90), is(greaterThan(500L)));
+    }
+
+    @Test
+    public void testCorrectedAverageConfidenceInterval() {
+	LatencyCounter counter = new LatencyCounter("test");
+	counter.setExpectedInterval(10);
+	counter.start();
+	for (int i = 0; i < 99; i++) {
+	    counter.addSample(1, null);
+	}
+	counter.addSample(1000, null);
+	counter.stop();
+	ConfidenceInterval raw = counter.averageConfidenceInterval(0.95);
+	ConfidenceInterval corrected = counter.correctedAverageConfidenceInterval(0.95);
+	assertThat(raw.getCenter(), is(closeTo(10.99, 1e-9)));
+	assertThat(corrected.getCenter(), is(closeTo(counter.correctedAverageLatency(), 1e-9)));
+	assertThat(corrected.getHalfWidth(), is(greaterThan(0.)));
+	// without correction both intervals are the same
+	LatencyCounter uncorrected = new LatencyCounter("test");
+	uncorrected.addSample(1, null);
+	uncorrected.addSample(3, null);
+	assertThat(uncorrected.correctedAverageConfidenceInterval(0.95).getLower(),
+		is(uncorrected.averageConfidenceInterval(0.95).getLower()));
+    }
+
+    @Test
+    public void testExpectedIntervalAfterRecording() {
+	final LatencyCounter counter = new LatencyCounter("test");
+	counter.addSample(1, null);
+	Assertions.assertThrows(IllegalStateException.class, new Executable() {
+	    @Override
+	    public void execute() throws Throwable {
+		counter.setExpectedInterval(10);
+	    }
+	});
+    }
+
+    @Test
+    public void testRotateInterval() {
+	LatencyCounter counter = new LatencyCounter("test");
+	counter.enableIntervals();
+	counter.start();
+	counter.addSample(1, null);
+	counter.addSample(2, null);
+	IntervalSnapshot first = counter.rotateInterval();
+	counter.addSample(30, null);
+	IntervalSnapshot second = counter.rotateInterval();
+	IntervalSnapshot third = counter.rotateInterval();
+	counter.stop();
+	assertThat(first.sampleCount(), is(2L));
+	assertThat(first.maxLatency(), is(2L));
+	assertThat(second.sampleCount(), is(1L));
+	assertThat(second.percentileLatency(50), is(30L));
+	assertThat(third.sampleCount(), is(0L));
+	assertThat(second.getStartTime(), is(first.getEndTime()));
+	assertThat(counter.getIntervals().size(), is(3));
+	assertThat(counter.sampleCount(), is(3L));
+    }
+
+    @Test
+    public void testEnableIntervalsWhileRecording() {
+	LatencyCounter counter = new LatencyCounter("test");
+	counter.start();
+	counter.addSample(1, null);
+	long enableTime = System.currentTimeMillis();
+	counter.enableIntervals();
+	counter.addSample(2, null);
+	IntervalSnapshot first = counter.rotateInterval();
+	counter.stop();
+	assertThat(first.sampleCount(), is(1L));
+	assertThat(first.maxLatency(), is(2L));
+	assertThat(first.getStartTime(), is(greaterThanOrEqualTo(enableTime)));
+	assertThat(counter.sampleCount(), is(2L));
+    }
+
+    @Test
+    public void testBoundedErrors() {
+	LatencyCounter counter = new LatencyCounter("test");
+	counter.start();
+	for (int i = 0; i < 1000; i++) {
+	    counter.addSample(7, new PerfTestExecutionError(new IllegalStateException()));
+	    counter.addSample(3, null);
+	}
+	counter.addSample(9, new PerfTestExecutionError("failed"));
+	counter.stop();
+	assertThat(counter.errorCount(), is(1001L));
+	assertThat(counter.getAssertionErrors().size(), is(ErrorStatistics.DEFAULT_MAX_SAMPLES));
+	Map<String, Long> countsByType = counter.getErrorStatistics().getCountsByType();
+	assertThat(countsByType.get(IllegalStateException.class.getName()), is(1000L));
+	assertThat(countsByType.get(PerfTestExecutionError.class.getName()), is(1L));
+	assertThat(counter.getErrorHistogram().getTotalCount(), is(1001L));
+	assertThat(counter.getErrorHistogram().getMaxValue(), is(9L));
+	assertThat(counter.sampleCount(), is(1000L));
+	assertThat(counter.totalInvocations(), is(2001L));
+	assertThat(counter.maxLatency(), is(3L));
     }
 
 }
@@ -0,0 +1,134 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Tests the {@link LogLinearHistogram}.<br>
+ * <br>
+ * Created: 18.10.2026 16:12:13
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class LogLinearHistogramTest {
+
+    @Test
+    public void testExactRange() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        for (long value = 0; value < 256; value++) {
+            assertThat(histogram.bucketIndex(value), is((int) value));
+            assertThat(histogram.bucketValue((int) value), is(value));
+        }
+    }
+
+    @Test
+    public void testBucketsAreContiguous() {
+        LogLinearHistogram histogram = new LogLinearHistogram(3);
+        long previous = histogram.bucketValue(0);
+        for (int bucket = 1; bucket < 200; bucket++) {
+            long value = histogram.bucketValue(bucket);
+            assertThat(previous, lessThan(value));
+            assertThat(histogram.bucketIndex(value), is(bucket));
+            assertThat(histogram.bucketIndex(value - 1), is(bucket - 1));
+            previous = value;
+        }
+    }
+
+    @Test
+    public void testRelativeError() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        for (long value = 256; value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            int bucket = histogram.bucketIndex(value);
+            long width = histogram.bucketValue(bucket + 1) - histogram.bucketValue(bucket);
+            assertThat((double) width / value, lessThanOrEqualTo(1. / 128));
+        }
+    }
+
+    @Test
+    public void testOutlierFootprint() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        histogram.record(3);
+        histogram.record(30000000000L);
+        assertThat(histogram.getTotalCount(), is(2L));
+        assertThat(histogram.getMaxValue(), is(30000000000L));
+        assertThat(histogram.bucketCount(), lessThan(4000));
+        assertThat(histogram.getCount(30000000000L), is(1L));
+        assertThat(histogram.valueAtPercentile(50), is(3L));
+        assertThat(histogram.valueAtPercentile(100), is(30000000000L));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertThat(histogram.valueAtPercentile(50), is(50L));
+        assertThat(histogram.valueAtPercentile(90), is(90L));
+        assertThat(histogram.countAbove(90), is(10L));
+        assertThat(histogram.getTotalValue(), is(5050L));
+    }
+
+    @Test
+    public void testFractionalPercentiles() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        for (int i = 1; i <= 200; i++) {
+            histogram.record(i);
+        }
+        assertThat(histogram.valueAtPercentile(99.5), is(199L));
+        assertThat(histogram.valueAtPercentile(0.5), is(1L));
+        assertThat(histogram.valueAtPercentile(0), is(1L));
+        assertThat(histogram.valueAtPercentile(100), is(200L));
+        histogram.record(201);
+        assertThat(histogram.valueAtPercentile(100), is(201L));
+        assertThat(histogram.countAbove(199), is(2L));
+        assertThat(histogram.countAbove(0), is(201L));
+    }
+
+    @Test
+    public void testAdd() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        Histogram other = histogram.newInstance();
+        histogram.record(3);
+        other.record(1);
+        other.record(1000000);
+        histogram.add(other);
+        histogram.add(histogram.newInstance());
+        assertThat(histogram.getTotalCount(), is(3L));
+        assertThat(histogram.getTotalValue(), is(1000004L));
+        assertThat(histogram.getMinValue(), is(1L));
+        assertThat(histogram.getMaxValue(), is(1000000L));
+        assertThat(histogram.getCount(1000000), is(1L));
+    }
+
+}
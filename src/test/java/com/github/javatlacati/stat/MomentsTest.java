@@ -0,0 +1,120 @@
+/*
+ * (c) Copyright 2026 by Volker Bergmann. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, is permitted under the terms of the
+ * GNU Lesser General Public License (LGPL), Eclipse Public License (EPL)
+ * and the BSD License.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * WITHOUT A WARRANTY OF ANY KIND. ALL EXPRESS OR IMPLIED CONDITIONS,
+ * REPRESENTATIONS AND WARRANTIES, INCLUDING ANY IMPLIED WARRANTY OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE OR NON-INFRINGEMENT, ARE
+ * HEREBY EXCLUDED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.javatlacati.stat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests the {@link Moments} and the {@link ConfidenceInterval}.<br>
+ * <br>
+ * Created: 18.10.2026 16:36:48
+ *
+ * @author Ruslan López Carro
+ * @since 2.4.4
+ */
+@Execution(ExecutionMode.CONCURRENT)
+public class MomentsTest {
+
+    @Test
+    public void testEmpty() {
+        Moments moments = new Moments();
+        assertThat(moments.getCount(), is(0L));
+        assertThat(moments.getVariance(), is(0.));
+        assertThat(moments.getSkewness(), is(0.));
+    }
+
+    @Test
+    public void testSmallSeries() {
+        Moments moments = new Moments();
+        for (int value : new int[] { 2, 4, 4, 4, 5, 5, 7, 9 }) {
+            moments.add(value);
+        }
+        assertThat(moments.getMean(), closeTo(5, 1e-12));
+        assertThat(moments.getVariance(), closeTo(32. / 7, 1e-12));
+        assertThat(moments.getSkewness(), closeTo(0.65625, 1e-12));
+    }
+
+    @Test
+    public void testSkewedDistribution() {
+        Moments moments = new Moments();
+        for (int i = 0; i < 1000; i++) {
+            moments.add(i % 100 == 0 ? 1000 : 10);
+        }
+        assertThat(moments.getSkewness(), greaterThan(5.));
+    }
+
+    @Test
+    public void testMerge() {
+        Random random = new Random(42);
+        Moments all = new Moments();
+        Moments left = new Moments();
+        Moments right = new Moments();
+        for (int i = 0; i < 10000; i++) {
+            double value = 1000 + random.nextGaussian() * 100 + (i < 3000 ? 500 : 0);
+            all.add(value);
+            (i < 3000 ? left : right).add(value);
+        }
+        Moments merged = new Moments();
+        merged.add(left);
+        merged.add(new Moments());
+        merged.add(right);
+        assertThat(merged.getCount(), is(all.getCount()));
+        assertThat(merged.getMean(), closeTo(all.getMean(), 1e-9));
+        assertThat(merged.getVariance(), closeTo(all.getVariance(), 1e-6));
+        assertThat(merged.getSkewness(), closeTo(all.getSkewness(), 1e-9));
+    }
+
+    @Test
+    public void testNormalQuantile() {
+        assertThat(ConfidenceInterval.normalQuantile(0.5), closeTo(0, 1e-9));
+        assertThat(ConfidenceInterval.normalQuantile(0.975), closeTo(1.959964, 1e-6));
+        assertThat(ConfidenceInterval.normalQuantile(0.01), closeTo(-2.326348, 1e-6));
+        assertThat(ConfidenceInterval.criticalValue(0.99), closeTo(2.575829, 1e-6));
+    }
+
+    @Test
+    public void testMeanInterval() {
+        Moments moments = new Moments(100, 50, 99 * 25, 0);
+        ConfidenceInterval interval = ConfidenceInterval.ofMean(moments, 0.95);
+        assertThat(interval.getCenter(), closeTo(50, 1e-9));
+        assertThat(interval.getHalfWidth(), closeTo(0.979982, 1e-6));
+        assertThat(interval.getRelativeMargin(), closeTo(0.0195996, 1e-6));
+    }
+
+    @Test
+    public void testRateInterval() {
+        ConfidenceInterval interval = ConfidenceInterval.ofRate(10000, 2000, 0.95);
+        assertThat(interval.getCenter(), closeTo(5000, 1e-9));
+        assertThat(interval.getHalfWidth(), closeTo(97.9982, 1e-4));
+    }
+
+}